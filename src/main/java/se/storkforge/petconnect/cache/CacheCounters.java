@@ -0,0 +1,85 @@
+package se.storkforge.petconnect.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.CacheStatistics;
+import org.springframework.data.redis.cache.RedisCache;
+
+/**
+ * Hit, miss and eviction counters of one cache since startup, on this node.
+ *
+ * Near counters are zero when the cache has no near tier. A near miss is
+ * followed by a Redis lookup, so Redis hits and misses only count those.
+ * A request that misses both tiers is counted once, even when it waits for
+ * another caller's load.
+ *
+ * @param name - the cache name.
+ * @param nearHits - lookups answered by the near cache.
+ * @param nearMisses - lookups passed on to Redis.
+ * @param nearEvictions - near entries dropped for size or age, not counting invalidations.
+ * @param nearSize - the approximate number of near entries.
+ * @param redisHits - Redis lookups that found a value.
+ * @param redisMisses - Redis lookups that found nothing.
+ * @param redisPuts - values written to Redis.
+ * @param redisEvictions - entries removed from Redis by evictions and clears.
+ * @param hitRatio - the share of lookups answered by either tier, 0 without lookups.
+ * @param loads - loader runs on this node, early refreshes included.
+ * @param earlyRefreshes - entries reloaded before their TTL ended.
+ */
+public record CacheCounters(
+        String name,
+        long nearHits,
+        long nearMisses,
+        long nearEvictions,
+        long nearSize,
+        long redisHits,
+        long redisMisses,
+        long redisPuts,
+        long redisEvictions,
+        double hitRatio,
+        long loads,
+        long earlyRefreshes
+) {
+
+    /**
+     * @return the counters of the cache, or null if it keeps none.
+     */
+    public static CacheCounters of(Cache cache) {
+        if (cache instanceof SingleFlightCache singleFlightCache) {
+            CacheCounters counters = of(singleFlightCache.getDelegate());
+            return counters == null ? null : counters.withLoads(singleFlightCache.loadCount(),
+                    singleFlightCache.earlyRefreshCount());
+        }
+        if (cache instanceof TwoTierCache twoTierCache) {
+            com.github.benmanes.caffeine.cache.stats.CacheStats near = twoTierCache.nearStats();
+            CacheStatistics redis = redisStatistics(twoTierCache.getRemote());
+            long redisHits = redis != null ? redis.getHits() : 0;
+            return new CacheCounters(cache.getName(),
+                    near.hitCount(), near.missCount(), near.evictionCount(), twoTierCache.nearSize(),
+                    redisHits,
+                    redis != null ? redis.getMisses() : 0,
+                    redis != null ? redis.getPuts() : 0,
+                    redis != null ? redis.getDeletes() : 0,
+                    ratio(near.hitCount() + redisHits, near.requestCount()), 0, 0);
+        }
+        CacheStatistics redis = redisStatistics(cache);
+        if (redis == null) {
+            return null;
+        }
+        return new CacheCounters(cache.getName(), 0, 0, 0, 0,
+                redis.getHits(), redis.getMisses(), redis.getPuts(), redis.getDeletes(),
+                ratio(redis.getHits(), redis.getHits() + redis.getMisses()), 0, 0);
+    }
+
+    private CacheCounters withLoads(long loads, long earlyRefreshes) {
+        return new CacheCounters(name, nearHits, nearMisses, nearEvictions, nearSize,
+                redisHits, redisMisses, redisPuts, redisEvictions, hitRatio, loads, earlyRefreshes);
+    }
+
+    private static double ratio(long hits, long lookups) {
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    private static CacheStatistics redisStatistics(Cache cache) {
+        return cache instanceof RedisCache redisCache ? redisCache.getStatistics() : null;
+    }
+}
@@ -0,0 +1,161 @@
+package se.storkforge.petconnect.cache;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Redis serializer for cache values.
+ *
+ * Only registered value types can be cached, which keeps JPA entities and their
+ * lazy proxies out of Redis. A value is written as a one-line header with the
+ * type name and version, for example {@code pet@1} or {@code pet@1[]} for a list,
+ * followed by the JSON of the value. Entries whose type is unknown or whose
+ * version differs from the registered one are read as misses, so changing a
+ * value record only needs a version bump and no cache flush. Cached nulls are
+ * written as a bare {@code null} header.
+ */
+public class CacheValueCodec implements RedisSerializer<Object> {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheValueCodec.class);
+
+    private static final byte HEADER_END = '\n';
+    private static final String LIST_SUFFIX = "[]";
+    private static final String EMPTY_LIST = "[]";
+    private static final String NULL = "null";
+
+    private final ObjectMapper mapper = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    private final Map<Class<?>, Registration> byType = new HashMap<>();
+    private final Map<String, Registration> byName = new HashMap<>();
+
+    /**
+     * Registers a value type.
+     *
+     * @param name - the short name written to the header, unique per type.
+     * @param version - the current version of the type.
+     * @param type - the value class, a record with JSON friendly components.
+     * @return this codec.
+     */
+    public CacheValueCodec register(String name, int version, Class<?> type) {
+        if (name.isEmpty() || name.indexOf('@') >= 0 || name.endsWith(LIST_SUFFIX))
+            throw new IllegalArgumentException("Invalid cache value name: " + name);
+        if (byName.containsKey(name) || byType.containsKey(type))
+            throw new IllegalArgumentException("Cache value already registered: " + name);
+
+        Registration registration = new Registration(name, version, type,
+                mapper.constructType(type),
+                mapper.getTypeFactory().constructCollectionType(List.class, type));
+        byType.put(type, registration);
+        byName.put(name, registration);
+        return this;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return null;
+        }
+
+        if (value instanceof NullValue) {
+            return (NULL + (char) HEADER_END).getBytes(StandardCharsets.UTF_8);
+        }
+
+        String header;
+        if (value instanceof List<?> list) {
+            header = list.isEmpty() ? EMPTY_LIST : registrationOf(list.getFirst()).header() + LIST_SUFFIX;
+        } else {
+            header = registrationOf(value).header();
+        }
+
+        try {
+            byte[] head = header.getBytes(StandardCharsets.UTF_8);
+            byte[] body = mapper.writeValueAsBytes(value);
+            byte[] bytes = new byte[head.length + 1 + body.length];
+            System.arraycopy(head, 0, bytes, 0, head.length);
+            bytes[head.length] = HEADER_END;
+            System.arraycopy(body, 0, bytes, head.length + 1, body.length);
+            return bytes;
+        } catch (IOException e) {
+            throw new SerializationException("Could not serialize cache value of type " + header, e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+
+        int headerEnd = indexOf(bytes, HEADER_END);
+        if (headerEnd < 0) {
+            logger.debug("Ignoring cache value without a header");
+            return null;
+        }
+        String header = new String(bytes, 0, headerEnd, StandardCharsets.UTF_8);
+        if (header.equals(EMPTY_LIST)) {
+            return List.of();
+        }
+        if (header.equals(NULL)) {
+            return NullValue.INSTANCE;
+        }
+
+        boolean list = header.endsWith(LIST_SUFFIX);
+        String tag = list ? header.substring(0, header.length() - LIST_SUFFIX.length()) : header;
+        int at = tag.lastIndexOf('@');
+        Registration registration = at > 0 ? byName.get(tag.substring(0, at)) : null;
+        if (registration == null || !tag.substring(at + 1).equals(String.valueOf(registration.version()))) {
+            logger.debug("Ignoring cache value with stale or unknown type {}", header);
+            return null;
+        }
+
+        try {
+            JavaType type = list ? registration.listType() : registration.javaType();
+            return mapper.readValue(bytes, headerEnd + 1, bytes.length - headerEnd - 1, type);
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable cache value of type {}", header, e);
+            return null;
+        }
+    }
+
+    private Registration registrationOf(Object value) {
+        Registration registration = byType.get(value.getClass());
+        if (registration == null) {
+            throw new SerializationException(value.getClass().getName()
+                    + " is not a registered cache value, cache a value record instead of an entity");
+        }
+        return registration;
+    }
+
+    private static int indexOf(byte[] bytes, byte b) {
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private record Registration(String name, int version, Class<?> type, JavaType javaType, JavaType listType) {
+
+        String header() {
+            return name + "@" + version;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package se.storkforge.petconnect.cache;
+
+/**
+ * Cached participant of a meet-up.
+ *
+ * @param id - the user ID.
+ * @param username - the username.
+ * @param email - the email address.
+ */
+public record CachedParticipant(Long id, String username, String email) {
+
+    /**
+     * Bump when the fields change, older entries are then treated as misses.
+     */
+    public static final int VERSION = 1;
+}
@@ -0,0 +1,45 @@
+package se.storkforge.petconnect.cache;
+
+import se.storkforge.petconnect.entity.Pet;
+
+/**
+ * Cached view of a pet for read-only lookups. The owner is referenced by ID so
+ * the lazy owner association is never touched.
+ *
+ * @param id - the pet ID.
+ * @param name - the pet's name.
+ * @param species - the pet's species.
+ * @param available - whether the pet is available.
+ * @param age - the pet's age.
+ * @param location - the pet's location, may be null.
+ * @param profilePicturePath - the stored profile picture, may be null.
+ * @param ownerId - the owner's ID, null if the pet has no owner.
+ */
+public record CachedPet(
+        Long id,
+        String name,
+        String species,
+        boolean available,
+        int age,
+        String location,
+        String profilePicturePath,
+        Long ownerId
+) {
+
+    /**
+     * Bump when the fields change, older entries are then treated as misses.
+     */
+    public static final int VERSION = 1;
+
+    public static CachedPet of(Pet pet) {
+        return new CachedPet(
+                pet.getId(),
+                pet.getName(),
+                pet.getSpecies(),
+                pet.isAvailable(),
+                pet.getAge(),
+                pet.getLocation(),
+                pet.getProfilePicturePath(),
+                pet.getOwner() != null ? pet.getOwner().getId() : null);
+    }
+}
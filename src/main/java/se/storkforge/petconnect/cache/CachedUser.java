@@ -0,0 +1,42 @@
+package se.storkforge.petconnect.cache;
+
+import se.storkforge.petconnect.entity.Role;
+import se.storkforge.petconnect.entity.User;
+
+import java.util.List;
+
+/**
+ * Cached view of a user for read-only lookups. Holds no password and no lazy
+ * associations, so pets and meet-ups are left out.
+ *
+ * @param id - the user ID.
+ * @param username - the username.
+ * @param email - the email address.
+ * @param phoneNumber - the phone number, may be null.
+ * @param profilePicturePath - the stored profile picture, may be null.
+ * @param roles - the names of the user's roles.
+ */
+public record CachedUser(
+        Long id,
+        String username,
+        String email,
+        String phoneNumber,
+        String profilePicturePath,
+        List<String> roles
+) {
+
+    /**
+     * Bump when the fields change, older entries are then treated as misses.
+     */
+    public static final int VERSION = 1;
+
+    public static CachedUser of(User user) {
+        return new CachedUser(
+                user.getId(),
+                user.getUsername(),
+                user.getEmail(),
+                user.getPhoneNumber(),
+                user.getProfilePicturePath(),
+                user.getRoles().stream().map(Role::getName).sorted().toList());
+    }
+}
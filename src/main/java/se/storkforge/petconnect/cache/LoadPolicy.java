@@ -0,0 +1,13 @@
+package se.storkforge.petconnect.cache;
+
+import java.time.Duration;
+
+/**
+ * How entries of one cache are loaded and refreshed.
+ *
+ * @param ttl - how long the shared cache keeps an entry.
+ * @param earlyRefreshBeta - how eagerly hot entries are reloaded before they expire,
+ *                         1 is the usual choice, 0 turns early refresh off.
+ */
+public record LoadPolicy(Duration ttl, double earlyRefreshBeta) {
+}
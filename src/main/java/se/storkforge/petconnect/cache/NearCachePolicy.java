@@ -0,0 +1,12 @@
+package se.storkforge.petconnect.cache;
+
+import java.time.Duration;
+
+/**
+ * Size and lifetime of one cache's near tier.
+ *
+ * @param maxSize - the maximum number of entries, 0 disables the near tier.
+ * @param ttl - how long an entry lives without an invalidation.
+ */
+public record NearCachePolicy(long maxSize, Duration ttl) {
+}
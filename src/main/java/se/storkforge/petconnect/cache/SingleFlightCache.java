@@ -0,0 +1,301 @@
+package se.storkforge.petconnect.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Protects a cache against stampedes on popular keys.
+ *
+ * Loads through {@link #get(Object, Callable)}, which {@code @Cacheable(sync = true)}
+ * uses, are single-flight per key: when an entry is missing, one caller runs the
+ * loader and concurrent callers for the same key wait for its result instead of
+ * all querying the database. Other keys are not blocked.
+ *
+ * Entries loaded on this node are also refreshed early with probabilistic early
+ * expiration (XFetch): on a hit, the entry is reloaded in the background with a
+ * probability that rises as its expiry nears and with how long it took to load,
+ * so a hot entry is usually replaced before it expires and readers never see the
+ * miss. Only entries this node loaded are candidates, since their expiry is known.
+ *
+ * A put, evict or clear while a load or refresh of the key is running supersedes
+ * that load: its result is still returned to the callers waiting for it, but is
+ * not written to the delegate, where it would bring back the pre-update value.
+ */
+public class SingleFlightCache implements Cache {
+
+    private static final Logger logger = LoggerFactory.getLogger(SingleFlightCache.class);
+
+    static final int MAX_TRACKED_LOADS = 10_000;
+
+    private final Cache delegate;
+    private final LoadPolicy policy;
+    private final Executor refreshExecutor;
+    private final LongSupplier nanoClock;
+    private final DoubleSupplier random;
+    private final boolean allowNullValues;
+
+    private final ConcurrentMap<Object, Flight> inFlight = new ConcurrentHashMap<>();
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Load> loads;
+    private final AtomicLong loadCount = new AtomicLong();
+    private final AtomicLong earlyRefreshCount = new AtomicLong();
+    private final AtomicLong storeSequence = new AtomicLong();
+
+    /**
+     * @param delegate - the cache to protect.
+     * @param policy - the TTL of the delegate and the early refresh setting.
+     * @param refreshExecutor - runs early refreshes.
+     */
+    public SingleFlightCache(Cache delegate, LoadPolicy policy, Executor refreshExecutor) {
+        this(delegate, policy, refreshExecutor, System::nanoTime, () -> Math.random());
+    }
+
+    SingleFlightCache(Cache delegate, LoadPolicy policy, Executor refreshExecutor,
+                      LongSupplier nanoClock, DoubleSupplier random) {
+        this.delegate = delegate;
+        this.policy = policy;
+        this.refreshExecutor = refreshExecutor;
+        this.nanoClock = nanoClock;
+        this.random = random;
+        this.allowNullValues = allowsNullValues(delegate);
+        this.loads = Caffeine.newBuilder()
+                .maximumSize(MAX_TRACKED_LOADS)
+                .expireAfterWrite(policy.ttl())
+                .build();
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        long seen = storeSequence.get();
+        ValueWrapper cached = delegate.get(key);
+        if (cached != null) {
+            refreshEarlyIfDue(key, valueLoader);
+            return (T) cached.get();
+        }
+        return (T) loadOnce(key, seen, valueLoader);
+    }
+
+    // runs the loader unless another caller already is, in which case its result is shared
+    private Object loadOnce(Object key, long seen, Callable<?> valueLoader) {
+        Flight flight = new Flight();
+        Flight running = inFlight.putIfAbsent(key, flight);
+        if (running != null) {
+            return await(running.result, key, valueLoader);
+        }
+
+        try {
+            // look again only if a flight stored the key after our miss, so a plain miss
+            // is one delegate lookup and the tiers' miss counters are not doubled
+            Load stored = loads.getIfPresent(key);
+            ValueWrapper cached = stored != null && stored.sequence() > seen ? delegate.get(key) : null;
+            Object value = cached != null ? cached.get() : load(key, flight, valueLoader);
+            flight.result.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private void refreshEarlyIfDue(Object key, Callable<?> valueLoader) {
+        if (policy.earlyRefreshBeta() <= 0) {
+            return;
+        }
+        Load last = loads.getIfPresent(key);
+        if (last == null) {
+            return;
+        }
+
+        // XFetch: refresh when now - delta * beta * ln(random) reaches the expiry
+        double head = -last.durationNanos() * policy.earlyRefreshBeta() * Math.log(random.getAsDouble());
+        if (nanoClock.getAsLong() + head < last.expiresAtNanos()) {
+            return;
+        }
+
+        Flight flight = new Flight();
+        if (inFlight.putIfAbsent(key, flight) != null) {
+            return;
+        }
+        earlyRefreshCount.incrementAndGet();
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    flight.result.complete(load(key, flight, valueLoader));
+                } catch (RuntimeException | Error e) {
+                    flight.result.completeExceptionally(e);
+                    logger.debug("Early refresh of {} in {} failed, the entry expires as usual", key, getName(), e);
+                } finally {
+                    inFlight.remove(key, flight);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, flight);
+            flight.result.cancel(false);
+            logger.debug("Could not schedule early refresh of {} in {}", key, getName(), e);
+        }
+    }
+
+    private Object load(Object key, Flight flight, Callable<?> valueLoader) {
+        long start = nanoClock.getAsLong();
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        long end = nanoClock.getAsLong();
+        loadCount.incrementAndGet();
+
+        if (value != null || allowNullValues) {
+            flight.storeUnlessSuperseded(() -> {
+                delegate.put(key, value);
+                loads.put(key, new Load(end + policy.ttl().toNanos(), end - start, storeSequence.incrementAndGet()));
+            });
+        }
+        return value;
+    }
+
+    private void supersede(Object key) {
+        Flight flight = inFlight.get(key);
+        if (flight != null) {
+            flight.supersede();
+        }
+    }
+
+    private void supersedeAll() {
+        inFlight.values().forEach(Flight::supersede);
+    }
+
+    private Object await(CompletableFuture<Object> flight, Object key, Callable<?> valueLoader) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new ValueRetrievalException(key, valueLoader, e.getCause());
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        supersede(key);
+        loads.invalidate(key);
+        delegate.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        supersede(key);
+        loads.invalidate(key);
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        supersede(key);
+        loads.invalidate(key);
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        supersedeAll();
+        loads.invalidateAll();
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        supersedeAll();
+        loads.invalidateAll();
+        return delegate.invalidate();
+    }
+
+    public Cache getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * @return the number of times a loader ran, early refreshes included.
+     */
+    public long loadCount() {
+        return loadCount.get();
+    }
+
+    /**
+     * @return the number of early refreshes started.
+     */
+    public long earlyRefreshCount() {
+        return earlyRefreshCount.get();
+    }
+
+    private static boolean allowsNullValues(Cache cache) {
+        Cache target = cache instanceof TwoTierCache twoTierCache ? twoTierCache.getRemote() : cache;
+        return target instanceof AbstractValueAdaptingCache adapting && adapting.isAllowNullValues();
+    }
+
+    private record Load(long expiresAtNanos, long durationNanos, long sequence) {
+    }
+
+    // a running load or refresh of one key
+    private static final class Flight {
+
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        private boolean superseded;
+
+        synchronized void supersede() {
+            superseded = true;
+        }
+
+        // under the lock, so an invalidation lands either before the check or after the write
+        synchronized void storeUnlessSuperseded(Runnable store) {
+            if (!superseded) {
+                store.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package se.storkforge.petconnect.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Function;
+
+/**
+ * Wraps every cache of another cache manager in a {@link SingleFlightCache}.
+ * Early refreshes run on virtual threads.
+ */
+public class SingleFlightCacheManager implements CacheManager {
+
+    private final CacheManager delegate;
+    private final Function<String, LoadPolicy> loadPolicies;
+    private final Executor refreshExecutor;
+    private final ConcurrentMap<String, SingleFlightCache> caches = new ConcurrentHashMap<>();
+
+    /**
+     * @param delegate - the cache manager to protect.
+     * @param loadPolicies - the load policy of each cache, by name.
+     */
+    public SingleFlightCacheManager(CacheManager delegate, Function<String, LoadPolicy> loadPolicies) {
+        this.delegate = delegate;
+        this.loadPolicies = loadPolicies;
+        ThreadFactory threads = Thread.ofVirtual().name("cache-refresh-", 0).factory();
+        this.refreshExecutor = task -> threads.newThread(task).start();
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        SingleFlightCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache target = delegate.getCache(name);
+        if (target == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, cacheName ->
+                new SingleFlightCache(target, loadPolicies.apply(cacheName), refreshExecutor));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+}
@@ -0,0 +1,178 @@
+package se.storkforge.petconnect.cache;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.NullValue;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+import java.util.function.BiConsumer;
+
+/**
+ * A cache with a bounded in-process near cache in front of a shared remote cache.
+ *
+ * Reads check the near cache first and copy remote hits into it. Writes and
+ * evictions go to the remote cache, update the local near cache and are
+ * announced to the other nodes, which drop their near copy. Near entries also
+ * expire on their own, which bounds staleness if an announcement is lost.
+ *
+ * Cache values are immutable records, so the same instance can be handed to
+ * every caller. Cached nulls, for caches that allow them, are kept near as
+ * {@link NullValue}.
+ */
+public class TwoTierCache implements Cache {
+
+    private final Cache remote;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> near;
+    private final BiConsumer<String, String> invalidationPublisher;
+
+    /**
+     * @param remote - the shared cache, usually a RedisCache.
+     * @param near - the local cache, keyed by the string form of the cache key.
+     * @param invalidationPublisher - announces (cache name, key) changes to the other nodes, a null key
+     *                              means the whole cache.
+     */
+    public TwoTierCache(Cache remote,
+                        com.github.benmanes.caffeine.cache.Cache<String, Object> near,
+                        BiConsumer<String, String> invalidationPublisher) {
+        this.remote = remote;
+        this.near = near;
+        this.invalidationPublisher = invalidationPublisher;
+    }
+
+    @Override
+    public String getName() {
+        return remote.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        Object value = near.getIfPresent(nearKey(key));
+        if (value != null) {
+            return new SimpleValueWrapper(fromNear(value));
+        }
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper != null) {
+            near.put(nearKey(key), toNear(wrapper.get()));
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        Object value = near.getIfPresent(nearKey(key));
+        if (value == NullValue.INSTANCE) {
+            return null;
+        }
+        if (value != null && (type == null || type.isInstance(value))) {
+            return (T) value;
+        }
+        T loaded = remote.get(key, type);
+        if (loaded != null) {
+            near.put(nearKey(key), loaded);
+        }
+        return loaded;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object value = near.getIfPresent(nearKey(key));
+        if (value != null) {
+            return (T) fromNear(value);
+        }
+        T loaded = remote.get(key, valueLoader);
+        if (loaded != null) {
+            near.put(nearKey(key), loaded);
+        }
+        return loaded;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        near.put(nearKey(key), toNear(value));
+        invalidationPublisher.accept(getName(), nearKey(key));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = remote.putIfAbsent(key, value);
+        near.invalidate(nearKey(key));
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        near.invalidate(nearKey(key));
+        invalidationPublisher.accept(getName(), nearKey(key));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = remote.evictIfPresent(key);
+        near.invalidate(nearKey(key));
+        invalidationPublisher.accept(getName(), nearKey(key));
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        near.invalidateAll();
+        invalidationPublisher.accept(getName(), null);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = remote.invalidate();
+        near.invalidateAll();
+        invalidationPublisher.accept(getName(), null);
+        return invalidated;
+    }
+
+    /**
+     * Drops a near entry after another node changed it.
+     *
+     * @param key - the string form of the key, or null for every entry.
+     */
+    void invalidateNear(String key) {
+        if (key == null) {
+            near.invalidateAll();
+        } else {
+            near.invalidate(key);
+        }
+    }
+
+    Cache getRemote() {
+        return remote;
+    }
+
+    CacheStats nearStats() {
+        return near.stats();
+    }
+
+    long nearSize() {
+        return near.estimatedSize();
+    }
+
+    private static Object toNear(Object value) {
+        return value != null ? value : NullValue.INSTANCE;
+    }
+
+    private static Object fromNear(Object value) {
+        return value == NullValue.INSTANCE ? null : value;
+    }
+
+    // the remote cache stringifies keys too, so keys of one cache never collide here
+    static String nearKey(Object key) {
+        return String.valueOf(key);
+    }
+}
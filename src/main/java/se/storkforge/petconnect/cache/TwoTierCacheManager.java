@@ -0,0 +1,107 @@
+package se.storkforge.petconnect.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Wraps every cache of a remote cache manager in a {@link TwoTierCache}, sized
+ * by the cache's {@link NearCachePolicy}. Caches whose policy has no near
+ * entries are returned unwrapped.
+ *
+ * Changes are published on {@value #CHANNEL} as {@code node, cache, key} lines,
+ * a missing key clears the cache. Each node subscribes and drops the matching
+ * near entries, ignoring its own messages.
+ */
+public class TwoTierCacheManager implements CacheManager, MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(TwoTierCacheManager.class);
+
+    public static final String CHANNEL = "petconnect:cache:invalidate";
+
+    private final CacheManager remote;
+    private final StringRedisTemplate redisTemplate;
+    private final Function<String, NearCachePolicy> nearPolicies;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, Cache> caches = new ConcurrentHashMap<>();
+
+    /**
+     * @param remote - the shared cache manager.
+     * @param redisTemplate - used to publish invalidations.
+     * @param nearPolicies - the near cache policy of each cache, by name.
+     */
+    public TwoTierCacheManager(CacheManager remote, StringRedisTemplate redisTemplate,
+                               Function<String, NearCachePolicy> nearPolicies) {
+        this.remote = remote;
+        this.redisTemplate = redisTemplate;
+        this.nearPolicies = nearPolicies;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache remoteCache = remote.getCache(name);
+        if (remoteCache == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, cacheName -> {
+            NearCachePolicy policy = nearPolicies.apply(cacheName);
+            if (policy.maxSize() <= 0) {
+                return remoteCache;
+            }
+            return new TwoTierCache(remoteCache,
+                    Caffeine.newBuilder()
+                            .maximumSize(policy.maxSize())
+                            .expireAfterWrite(policy.ttl())
+                            .recordStats()
+                            .build(),
+                    this::publish);
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remote.getCacheNames();
+    }
+
+    private void publish(String cacheName, String key) {
+        String message = nodeId + "\n" + cacheName + (key != null ? "\n" + key : "");
+        try {
+            redisTemplate.convertAndSend(CHANNEL, message);
+        } catch (RuntimeException e) {
+            logger.warn("Could not publish invalidation of {} in {}, other nodes keep it until their near entry expires",
+                    key != null ? key : "all entries", cacheName, e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\n", 3);
+        if (parts.length < 2 || parts[0].equals(nodeId)) {
+            return;
+        }
+        if (caches.get(parts[1]) instanceof TwoTierCache cache) {
+            cache.invalidateNear(parts.length == 3 ? parts[2] : null);
+        }
+    }
+
+    String nodeId() {
+        return nodeId;
+    }
+}
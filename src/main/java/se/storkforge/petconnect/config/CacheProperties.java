@@ -0,0 +1,72 @@
+package se.storkforge.petconnect.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Cache settings under {@code petconnect.cache}.
+ *
+ * Every cache uses {@code defaults}, overridden field by field by its entry in
+ * {@code caches}. Use the bracket form for cache names so their case is kept,
+ * for example {@code petconnect.cache.caches[petCache].ttl=30m}.
+ *
+ * @param nearEnabled - whether a Caffeine near cache sits in front of Redis.
+ * @param defaults - the policy for caches without their own entry.
+ * @param caches - per-cache overrides by cache name.
+ */
+@ConfigurationProperties(prefix = "petconnect.cache")
+public record CacheProperties(
+        @DefaultValue("true") boolean nearEnabled,
+        @DefaultValue Policy defaults,
+        Map<String, Policy> caches
+) {
+
+    private static final Policy BUILT_IN = new Policy(Duration.ofMinutes(10), 10_000L, Duration.ofSeconds(60), false, null, 1.0);
+
+    public CacheProperties {
+        caches = caches != null ? Map.copyOf(caches) : Map.of();
+    }
+
+    /**
+     * @return the complete policy for caches without their own entry.
+     */
+    public Policy defaultPolicy() {
+        return defaults.orElse(BUILT_IN);
+    }
+
+    /**
+     * @param cacheName - the name of the cache.
+     * @return the complete policy of the cache.
+     */
+    public Policy policyFor(String cacheName) {
+        Policy policy = caches.get(cacheName);
+        return policy != null ? policy.orElse(defaultPolicy()) : defaultPolicy();
+    }
+
+    /**
+     * The settings of one cache, null fields fall back to the defaults.
+     *
+     * @param ttl - how long Redis keeps an entry.
+     * @param nearMaxSize - the maximum number of near cache entries on each node, 0 disables the near cache.
+     * @param nearTtl - how long a near entry lives without an invalidation.
+     * @param cacheNulls - whether null results are cached.
+     * @param keyPrefix - prepended to the cache name in Redis keys, for sharing a Redis between environments.
+     * @param earlyRefreshBeta - how eagerly hot entries are reloaded before their TTL ends, 0 disables early refresh.
+     */
+    public record Policy(Duration ttl, Long nearMaxSize, Duration nearTtl, Boolean cacheNulls, String keyPrefix,
+                         Double earlyRefreshBeta) {
+
+        Policy orElse(Policy fallback) {
+            return new Policy(
+                    ttl != null ? ttl : fallback.ttl(),
+                    nearMaxSize != null ? nearMaxSize : fallback.nearMaxSize(),
+                    nearTtl != null ? nearTtl : fallback.nearTtl(),
+                    cacheNulls != null ? cacheNulls : fallback.cacheNulls(),
+                    keyPrefix != null ? keyPrefix : fallback.keyPrefix(),
+                    earlyRefreshBeta != null ? earlyRefreshBeta : fallback.earlyRefreshBeta());
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package se.storkforge.petconnect.config;
+
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.analysis.MaxQueryDepthInstrumentation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.graphql.GraphQlSourceBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.web.servlet.function.RequestPredicates;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.RouterFunctions;
+import org.springframework.web.servlet.function.ServerResponse;
+import se.storkforge.petconnect.controller.PersistedQueryController;
+import se.storkforge.petconnect.graphql.ParsedDocumentCache;
+import se.storkforge.petconnect.graphql.QueryCostCalculator;
+
+/**
+ * Limits on GraphQL queries, checked after validation and before any resolver
+ * runs, so a rejected query never takes a database connection, and the cache
+ * that lets repeated queries skip parsing and validation, and the GET route
+ * for persisted queries.
+ */
+@Configuration
+public class GraphQlConfig {
+
+    @Bean
+    public MaxQueryComplexityInstrumentation queryCostInstrumentation(
+            @Value("${petconnect.graphql.max-cost:2000}") int maxCost,
+            @Value("${petconnect.graphql.default-list-size:100}") int defaultListSize) {
+        return new MaxQueryComplexityInstrumentation(maxCost, new QueryCostCalculator(defaultListSize));
+    }
+
+    @Bean
+    public MaxQueryDepthInstrumentation queryDepthInstrumentation(
+            @Value("${petconnect.graphql.max-depth:15}") int maxDepth) {
+        return new MaxQueryDepthInstrumentation(maxDepth);
+    }
+
+    @Bean
+    public GraphQlSourceBuilderCustomizer parsedDocumentCacheCustomizer(
+            @Value("${petconnect.graphql.document-cache-size:500}") long documentCacheSize) {
+        ParsedDocumentCache documentCache = new ParsedDocumentCache(documentCacheSize);
+        return builder -> builder.configureGraphQl(graphQl -> graphQl.preparsedDocumentProvider(documentCache));
+    }
+
+    // ahead of Boot's GraphQL router function, which answers every GET on the path with a 405
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public RouterFunction<ServerResponse> persistedQueryRouterFunction(
+            PersistedQueryController persistedQueryController,
+            @Value("${spring.graphql.path:/graphql}") String path) {
+        return RouterFunctions.route(RequestPredicates.GET(path).and(RequestPredicates.param("extensions", value -> true)),
+                persistedQueryController::getPersistedQuery);
+    }
+}
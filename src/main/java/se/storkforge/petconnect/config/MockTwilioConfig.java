@@ -1,15 +1,26 @@
 package se.storkforge.petconnect.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import se.storkforge.petconnect.service.SmsSender;
 
 @Profile("dev")
 @Configuration
 public class MockTwilioConfig {
 
+    private static final Logger logger = LoggerFactory.getLogger(MockTwilioConfig.class);
+
     @Bean
     public TwilioConfig mockTwilio() {
         return new TwilioConfig("mockSid", "mockToken", "+1234567890");
     }
+
+    // stands in for TwilioSmsSender so the rate limiter can be exercised locally
+    @Bean
+    public SmsSender twilioSmsSender() {
+        return (to, from, message) -> logger.info("Mock SMS from {} to {}: {}", from, to, message);
+    }
 }
@@ -1,19 +1,93 @@
 package se.storkforge.petconnect.config;
 
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
-
-import java.time.Duration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import se.storkforge.petconnect.cache.CacheValueCodec;
+import se.storkforge.petconnect.cache.CachedParticipant;
+import se.storkforge.petconnect.cache.CachedPet;
+import se.storkforge.petconnect.cache.CachedUser;
+import se.storkforge.petconnect.cache.LoadPolicy;
+import se.storkforge.petconnect.cache.NearCachePolicy;
+import se.storkforge.petconnect.cache.SingleFlightCacheManager;
+import se.storkforge.petconnect.cache.TwoTierCacheManager;
+import se.storkforge.petconnect.dto.MeetUpSummary;
+import se.storkforge.petconnect.service.searchService.MeetUpTileCache;
 
 @Configuration
 @EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
 public class RedisConfig {
+
+    // every type stored in a cache must be registered here
+    @Bean
+    public CacheValueCodec cacheValueCodec() {
+        return new CacheValueCodec()
+                .register("user", CachedUser.VERSION, CachedUser.class)
+                .register("pet", CachedPet.VERSION, CachedPet.class)
+                .register("participant", CachedParticipant.VERSION, CachedParticipant.class)
+                .register("meetUpSummary", MeetUpSummary.VERSION, MeetUpSummary.class)
+                .register("meetUpTile", MeetUpTileCache.Cell.VERSION, MeetUpTileCache.Cell.class);
+    }
+
+    // Redis caches configured per cache from CacheProperties, with a Caffeine near cache in front
+    // and single-flight loading with early refresh in front of both
+    @Bean
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                     StringRedisTemplate redisTemplate,
+                                     CacheValueCodec cacheValueCodec,
+                                     CacheProperties cacheProperties,
+                                     RedisMessageListenerContainer cacheInvalidationListener) {
+        RedisCacheManager.RedisCacheManagerBuilder builder = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(redisCacheConfiguration(cacheProperties.defaultPolicy(), cacheValueCodec))
+                .enableStatistics();
+        cacheProperties.caches().keySet().forEach(name -> builder.withCacheConfiguration(name,
+                redisCacheConfiguration(cacheProperties.policyFor(name), cacheValueCodec)));
+        RedisCacheManager redisCacheManager = builder.build();
+        redisCacheManager.afterPropertiesSet();
+
+        CacheManager sharedCacheManager = redisCacheManager;
+        if (cacheProperties.nearEnabled()) {
+            TwoTierCacheManager twoTierCacheManager = new TwoTierCacheManager(redisCacheManager, redisTemplate, name -> {
+                CacheProperties.Policy policy = cacheProperties.policyFor(name);
+                return new NearCachePolicy(policy.nearMaxSize(), policy.nearTtl());
+            });
+            cacheInvalidationListener.addMessageListener(twoTierCacheManager, new ChannelTopic(TwoTierCacheManager.CHANNEL));
+            sharedCacheManager = twoTierCacheManager;
+        }
+        return new SingleFlightCacheManager(sharedCacheManager, name -> {
+            CacheProperties.Policy policy = cacheProperties.policyFor(name);
+            return new LoadPolicy(policy.ttl(), policy.earlyRefreshBeta());
+        });
+    }
+
+    private static RedisCacheConfiguration redisCacheConfiguration(CacheProperties.Policy policy, CacheValueCodec codec) {
+        RedisCacheConfiguration configuration = RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(policy.ttl())
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(codec));
+        if (!policy.cacheNulls()) {
+            configuration = configuration.disableCachingNullValues();
+        }
+        if (policy.keyPrefix() != null && !policy.keyPrefix().isBlank()) {
+            configuration = configuration.prefixCacheNameWith(policy.keyPrefix());
+        }
+        return configuration;
+    }
+
+    // near cache invalidations from other nodes, the listener is added by cacheManager
     @Bean
-    public RedisCacheConfiguration cacheConfiguration() {
-        return RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofMinutes(10)) // default TTL
-                .disableCachingNullValues();
+    public RedisMessageListenerContainer cacheInvalidationListener(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
     }
 }
@@ -111,7 +111,7 @@ public class AdminUserController {
 
     @GetMapping("/users/{id}")
     public String viewUserDetails(@PathVariable Long id, Model model) {
-        User user = userService.getUserById(id); // Använder nu den cachade getUserById
+        User user = userService.getUserById(id);
         model.addAttribute("user", user);
         return "admin/users/details";
     }
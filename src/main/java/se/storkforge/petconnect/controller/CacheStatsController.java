@@ -0,0 +1,36 @@
+package se.storkforge.petconnect.controller;
+
+import org.springframework.cache.CacheManager;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import se.storkforge.petconnect.cache.CacheCounters;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+@RestController
+@RequestMapping("/admin/caches")
+public class CacheStatsController {
+
+    private final CacheManager cacheManager;
+
+    public CacheStatsController(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * @return the hit, miss and eviction counters of every cache on this node.
+     */
+    @GetMapping("/stats")
+    public List<CacheCounters> getCacheStats() {
+        return cacheManager.getCacheNames().stream()
+                .map(cacheManager::getCache)
+                .filter(Objects::nonNull)
+                .map(CacheCounters::of)
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparing(CacheCounters::name))
+                .toList();
+    }
+}
@@ -5,8 +5,10 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import se.storkforge.petconnect.cache.CachedParticipant;
 import se.storkforge.petconnect.dto.MeetUpRequestDTO;
 import se.storkforge.petconnect.dto.MeetUpResponseDTO;
+import se.storkforge.petconnect.dto.MeetUpSummary;
 import se.storkforge.petconnect.entity.MeetUp;
 import se.storkforge.petconnect.entity.User;
 import se.storkforge.petconnect.service.MeetUpService;
@@ -14,7 +16,6 @@ import se.storkforge.petconnect.service.MeetUpService;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.NoSuchElementException;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 @RestController
@@ -42,17 +43,14 @@ public class MeetUpController {
     }
 
     @GetMapping("/search")
-    public List<MeetUpResponseDTO> searchMeetUps(
+    public List<MeetUpSummary> searchMeetUps(
             @RequestParam double longitude,
             @RequestParam double latitude,
             @RequestParam double radiusInKm,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
         try {
-            return meetUpService.searchMeetUps(longitude, latitude, radiusInKm, start, end)
-                    .stream()
-                    .map(MeetUpResponseDTO::new)
-                    .collect(Collectors.toList());
+            return meetUpService.searchMeetUps(longitude, latitude, radiusInKm, start, end);
         } catch (Exception e) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
         }
@@ -85,12 +83,12 @@ public class MeetUpController {
     @GetMapping("/{meetUpId}/participants")
     public ResponseEntity<List<MeetUpResponseDTO.ParticipantDTO>> getParticipants(@PathVariable Long meetUpId) {
         try {
-            Set<User> participants = meetUpService.getParticipants(meetUpId);
+            List<CachedParticipant> participants = meetUpService.getParticipants(meetUpId);
             List<MeetUpResponseDTO.ParticipantDTO> participantDTOs = participants.stream()
-                    .map(user -> {
+                    .map(participant -> {
                         MeetUpResponseDTO.ParticipantDTO dto = new MeetUpResponseDTO.ParticipantDTO();
-                        dto.setId(user.getId());
-                        dto.setEmail(user.getEmail());
+                        dto.setId(participant.id());
+                        dto.setEmail(participant.email());
                         return dto;
                     })
                     .collect(Collectors.toList());
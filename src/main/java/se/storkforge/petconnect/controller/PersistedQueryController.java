@@ -0,0 +1,133 @@
+package se.storkforge.petconnect.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.context.ContextSnapshot;
+import io.micrometer.context.ContextSnapshotFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.graphql.server.WebGraphQlHandler;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+import reactor.core.publisher.Mono;
+import se.storkforge.petconnect.graphql.PersistedQuery;
+import se.storkforge.petconnect.graphql.PersistedQueryInterceptor;
+import se.storkforge.petconnect.graphql.PersistedQueryStore;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Runs persisted GraphQL queries over GET, so CDNs and browsers can cache the
+ * responses. Requests carry the hash in the {@code extensions} parameter the way
+ * APQ clients send it, for example
+ * {@code /graphql?extensions={"persistedQuery":{"version":1,"sha256Hash":"..."}}&variables={...}}.
+ * Unknown hashes get a PersistedQueryNotFound error, after which the client
+ * registers the document with a POST. Only queries are run, never mutations.
+ *
+ * This is a functional endpoint routed from GraphQlConfig. Spring Boot maps every
+ * GET /graphql to a 405 with a router function, and router functions are matched
+ * before annotated controllers, so the route has to be ordered ahead of Boot's.
+ *
+ * Requests go through the same WebGraphQlHandler as POST /graphql, so interceptors
+ * run and the security context is propagated to data fetchers. The resolved document
+ * is sent as the query and the persistedQuery extension is dropped, so the APQ
+ * interceptor does not register the document again on every GET.
+ */
+@Component
+public class PersistedQueryController {
+
+    private static final TypeReference<Map<String, Object>> JSON_OBJECT = new TypeReference<>() {
+    };
+
+    private final WebGraphQlHandler graphQlHandler;
+    private final PersistedQueryStore store;
+    private final ObjectMapper objectMapper;
+    private final Duration maxAge;
+    private final ContextSnapshotFactory snapshotFactory = ContextSnapshotFactory.builder().build();
+
+    public PersistedQueryController(WebGraphQlHandler graphQlHandler,
+                                    PersistedQueryStore store,
+                                    ObjectMapper objectMapper,
+                                    @Value("${petconnect.graphql.persisted-queries.max-age:60s}") Duration maxAge) {
+        this.graphQlHandler = graphQlHandler;
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * Handles GET /graphql requests that carry an {@code extensions} parameter.
+     *
+     * @param serverRequest - the request with extensions, and optionally variables and operationName.
+     * @return the GraphQL response, or a GraphQL-style error for invalid requests.
+     */
+    public ServerResponse getPersistedQuery(ServerRequest serverRequest) {
+        Map<String, Object> extensionMap;
+        Map<String, Object> variableMap;
+        try {
+            extensionMap = parse(serverRequest.param("extensions").orElse("null"));
+            variableMap = parse(serverRequest.param("variables").orElse("null"));
+        } catch (IllegalArgumentException e) {
+            return error(HttpStatus.BAD_REQUEST, e.getMessage(), "BAD_REQUEST");
+        }
+        String hash = PersistedQueryInterceptor.hash(extensionMap);
+        if (hash == null) {
+            return error(HttpStatus.BAD_REQUEST, "Missing persistedQuery extension", "BAD_REQUEST");
+        }
+
+        Optional<PersistedQuery> persisted = store.find(hash);
+        if (persisted.isEmpty()) {
+            return error(HttpStatus.OK, "PersistedQueryNotFound", "PERSISTED_QUERY_NOT_FOUND");
+        }
+        if (!persisted.get().readOnly()) {
+            return error(HttpStatus.METHOD_NOT_ALLOWED, "Only queries can be sent with GET", "METHOD_NOT_ALLOWED");
+        }
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("query", persisted.get().document());
+        body.put("operationName", serverRequest.param("operationName").orElse(null));
+        body.put("variables", variableMap);
+        Map<String, Object> otherExtensions = new HashMap<>(extensionMap);
+        otherExtensions.remove(PersistedQueryInterceptor.EXTENSION);
+        body.put("extensions", otherExtensions);
+
+        WebGraphQlRequest request = new WebGraphQlRequest(serverRequest.uri(), serverRequest.headers().asHttpHeaders(),
+                null, serverRequest.remoteAddress().orElse(null), serverRequest.attributes(), body,
+                UUID.randomUUID().toString(), LocaleContextHolder.getLocale());
+
+        // like GraphQlHttpHandler, carry the caller's thread locals (e.g. the security context) into the execution
+        ContextSnapshot snapshot = snapshotFactory.captureAll();
+        Mono<ServerResponse> response = graphQlHandler.handleRequest(request)
+                .map(graphQlResponse -> ServerResponse.ok()
+                        .cacheControl(graphQlResponse.getErrors().isEmpty()
+                                ? CacheControl.maxAge(maxAge).cachePublic()
+                                : CacheControl.noStore())
+                        .body(graphQlResponse.toMap()))
+                .contextWrite(snapshot::updateContext);
+        return ServerResponse.async(response);
+    }
+
+    private Map<String, Object> parse(String json) {
+        try {
+            return objectMapper.readValue(json, JSON_OBJECT);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON in request parameters");
+        }
+    }
+
+    private static ServerResponse error(HttpStatus status, String message, String code) {
+        return ServerResponse.status(status)
+                .cacheControl(CacheControl.noStore())
+                .body(Map.of("errors", List.of(Map.of("message", message, "extensions", Map.of("code", code)))));
+    }
+}
@@ -5,20 +5,29 @@ import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import se.storkforge.petconnect.cache.CachedPet;
+import se.storkforge.petconnect.dto.Connection;
+import se.storkforge.petconnect.dto.PetImportResult;
 import se.storkforge.petconnect.dto.PetInputDTO;
 import se.storkforge.petconnect.dto.PetUpdateInputDTO;
 import se.storkforge.petconnect.entity.Pet;
 import se.storkforge.petconnect.exception.PetNotFoundException;
+import se.storkforge.petconnect.service.PetExportService;
+import se.storkforge.petconnect.service.PetFileFormat;
 import se.storkforge.petconnect.service.PetFilter;
+import se.storkforge.petconnect.service.PetImportService;
 import se.storkforge.petconnect.service.PetService;
 
 import jakarta.validation.Valid;
+import java.io.InputStream;
 import java.util.Optional;
 
 @RestController
@@ -26,9 +35,14 @@ import java.util.Optional;
 public class PetController {
 
     private final PetService petService;
+    private final PetExportService petExportService;
+    private final PetImportService petImportService;
 
-    public PetController(PetService petService) {
+    public PetController(PetService petService, PetExportService petExportService,
+                         PetImportService petImportService) {
         this.petService = petService;
+        this.petExportService = petExportService;
+        this.petImportService = petImportService;
     }
 
     @GetMapping
@@ -43,6 +57,64 @@ public class PetController {
             @RequestParam(required = false) String nameContains) {
 
         Pageable pageable = PageRequest.of(page, size);
+        PetFilter filter = buildFilter(species, available, minAge, maxAge, location, nameContains);
+
+        Page<Pet> pets = petService.getAllPets(pageable, filter);
+        return new ResponseEntity<>(pets, HttpStatus.OK);
+    }
+
+    /**
+     * Cursor based alternative to {@link #getAllPets}, meant for infinite scroll.
+     * Pass the returned pageInfo.endCursor as {@code after} to fetch the next page.
+     * The total count is skipped unless {@code withTotalCount} is true.
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<Connection<Pet>> scrollPets(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean withTotalCount,
+            @RequestParam(required = false) String species,
+            @RequestParam(required = false) Boolean available,
+            @RequestParam(required = false) @Min(0) Integer minAge,
+            @RequestParam(required = false) @Min(0) Integer maxAge,
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) String nameContains) {
+
+        PetFilter filter = buildFilter(species, available, minAge, maxAge, location, nameContains);
+        return ResponseEntity.ok(petService.getPetsAfter(filter, after, size, withTotalCount));
+    }
+
+    /**
+     * Streams every pet as NDJSON or CSV for partner syncs. The body is written
+     * while rows are read from the database, so the export is never held in memory.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportPets(@RequestParam(defaultValue = "ndjson") String format) {
+        PetFileFormat exportFormat = PetFileFormat.fromName(format);
+
+        StreamingResponseBody body = output -> petExportService.export(exportFormat, output);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.contentType()))
+                .header("Content-Disposition", "attachment; filename=\"pets." + exportFormat.extension() + "\"")
+                .body(body);
+    }
+
+    /**
+     * Bulk imports pets from a CSV or NDJSON body, picked by the Content-Type header.
+     * The body is read as a stream. Rejected rows are listed in the result with
+     * their line number and do not stop the import.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<PetImportResult> importPets(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body,
+            Authentication authentication) {
+        PetFileFormat importFormat = PetFileFormat.fromMediaType(MediaType.parseMediaType(contentType));
+        return ResponseEntity.ok(petImportService.importPets(importFormat, body, authentication.getName()));
+    }
+
+    private PetFilter buildFilter(String species, Boolean available, Integer minAge, Integer maxAge,
+                                  String location, String nameContains) {
         PetFilter filter = new PetFilter();
         filter.setSpecies(species);
         filter.setAvailable(available);
@@ -50,15 +122,13 @@ public class PetController {
         filter.setMaxAge(maxAge);
         filter.setLocation(location);
         filter.setNameContains(nameContains);
-
-        Page<Pet> pets = petService.getAllPets(pageable, filter);
-        return new ResponseEntity<>(pets, HttpStatus.OK);
+        return filter;
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Pet> getPetById(@PathVariable Long id) {
+    public ResponseEntity<CachedPet> getPetById(@PathVariable Long id) {
         try {
-            Optional<Pet> optionalPet = petService.getPetById(id);
+            Optional<CachedPet> optionalPet = petService.getCachedPet(id);
             return optionalPet.map(pet -> new ResponseEntity<>(pet, HttpStatus.OK))
                     .orElseGet(() -> ResponseEntity.notFound().build());
         } catch (IllegalArgumentException e) {
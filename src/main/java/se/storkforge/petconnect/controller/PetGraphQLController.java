@@ -3,34 +3,61 @@ package se.storkforge.petconnect.controller;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
+import se.storkforge.petconnect.dto.Connection;
 import se.storkforge.petconnect.dto.PetInputDTO;
 import se.storkforge.petconnect.dto.PetUpdateInputDTO;
 import se.storkforge.petconnect.entity.Pet;
+import se.storkforge.petconnect.entity.User;
 import se.storkforge.petconnect.exception.PetNotFoundException;
 import se.storkforge.petconnect.service.PetFilter;
 import se.storkforge.petconnect.service.PetService;
+import se.storkforge.petconnect.service.UserService;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 @Controller
 public class PetGraphQLController {
 
+    private static final int DEFAULT_PAGE_SIZE = 10;
+
     private final PetService petService;
+    private final UserService userService;
 
-    public PetGraphQLController(PetService petService) {
+    public PetGraphQLController(PetService petService, UserService userService) {
         this.petService = petService;
+        this.userService = userService;
+    }
+
+    @QueryMapping
+    public Page<Pet> getAllPets(@Argument Integer page, @Argument Integer size, @Argument("filter") PetFilter filter) {
+        return petService.getAllPets(PageRequest.of(page != null ? page : 0, size != null ? size : DEFAULT_PAGE_SIZE), filter);
     }
 
     @QueryMapping
-    public Page<Pet> getAllPets(@Argument int page, @Argument int size, @Argument("filter") PetFilter filter) {
-        return petService.getAllPets(PageRequest.of(page, size), filter);
+    public Connection<Pet> petsConnection(@Argument Integer first, @Argument String after,
+                                          @Argument("filter") PetFilter filter, @Argument Boolean withTotalCount) {
+        return petService.getPetsAfter(filter, after, first != null ? first : DEFAULT_PAGE_SIZE,
+                Boolean.TRUE.equals(withTotalCount));
     }
 
     @QueryMapping
-    public java.util.List<Pet> getPetsByFilter(@Argument("filter") PetFilter filter) {
-        return petService.getPetsByFilter(filter);
+    public Connection<Pet> getPetsBySpecies(@Argument String species, @Argument Integer first, @Argument String after) {
+        return petService.getPetsBySpecies(species, after, first != null ? first : DEFAULT_PAGE_SIZE);
+    }
+
+    @QueryMapping
+    public Connection<Pet> getPetsByFilter(@Argument("filter") PetFilter filter, @Argument Integer first,
+                                           @Argument String after) {
+        return petService.getPetsAfter(filter, after, first != null ? first : DEFAULT_PAGE_SIZE, false);
     }
 
     @QueryMapping
@@ -39,6 +66,28 @@ public class PetGraphQLController {
                 .orElseThrow(() -> new PetNotFoundException("Pet not found with id: " + id));
     }
 
+    /**
+     * Resolves the owners of every pet at one level of a query with a single query.
+     * Only the owner ID is read from the lazy association, so no proxy is initialized.
+     */
+    @BatchMapping(typeName = "Pet", field = "owner")
+    public Map<Pet, User> owner(List<Pet> pets) {
+        Map<Long, User> owners = userService.getUsersByIds(pets.stream()
+                .map(Pet::getOwner)
+                .filter(Objects::nonNull)
+                .map(User::getId)
+                .collect(Collectors.toSet()));
+
+        Map<Pet, User> result = new HashMap<>();
+        for (Pet pet : pets) {
+            User owner = pet.getOwner() != null ? owners.get(pet.getOwner().getId()) : null;
+            if (owner != null) {
+                result.put(pet, owner);
+            }
+        }
+        return result;
+    }
+
     @MutationMapping
     public Pet createPet(@Argument("pet") PetInputDTO petInput, Authentication authentication) {
         return petService.createPet(petInput, authentication.getName());
@@ -7,6 +7,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import se.storkforge.petconnect.dto.Connection;
 import se.storkforge.petconnect.dto.PostInputDTO;
 import se.storkforge.petconnect.dto.PostResponseDTO;
 import se.storkforge.petconnect.service.PostService;
@@ -39,16 +40,34 @@ public class PostController {
         return ResponseEntity.ok(posts);
     }
 
+    /**
+     * Retrieves the post feed, newest first, using cursor pagination.
+     *
+     * @param after the endCursor of the previous page, omit for the first page.
+     * @param size  the number of posts per page. Defaults to 10 if not specified.
+     * @return ResponseEntity containing a connection of PostResponseDTO with the next cursor.
+     */
+    @GetMapping("/feed")
+    public ResponseEntity<Connection<PostResponseDTO>> getFeed(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(postService.getFeed(after, size));
+    }
+
 
     /**
-     * Retrieves all posts made by a specific user.
+     * Retrieves a page of the posts made by a specific user, newest first.
      *
      * @param username The username of the post author
+     * @param page     the page number to retrieve (starting from 0). Defaults to 0 if not specified.
+     * @param size     the number of posts per page. Defaults to 10 if not specified.
      * @return List of post DTOs by the given user
      */
     @GetMapping("/user/{username}")
-    public List<PostResponseDTO> getUserPosts(@PathVariable String username) {
-        return postService.getUserPosts(username);
+    public List<PostResponseDTO> getUserPosts(@PathVariable String username,
+                                              @RequestParam(defaultValue = "0") int page,
+                                              @RequestParam(defaultValue = "10") int size) {
+        return postService.getUserPosts(username, page, size);
     }
 
     /**
@@ -77,4 +96,10 @@ public class PostController {
     public void deletePost(@PathVariable Long id, Principal principal) {
         postService.deletePost(id, principal.getName());
     }
+
+    // invalid cursors and page sizes are client errors, not server errors
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleIllegalArgument(IllegalArgumentException ex) {
+        return ResponseEntity.badRequest().body(ex.getMessage());
+    }
 }
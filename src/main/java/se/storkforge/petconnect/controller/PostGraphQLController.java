@@ -2,40 +2,79 @@ package se.storkforge.petconnect.controller;
 
 import org.springframework.data.domain.PageRequest;
 import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
 import org.springframework.stereotype.Controller;
-import org.springframework.web.bind.annotation.RequestParam;
+import se.storkforge.petconnect.dto.Connection;
 import se.storkforge.petconnect.dto.PostInputDTO;
 import se.storkforge.petconnect.dto.PostResponseDTO;
+import se.storkforge.petconnect.entity.User;
 import se.storkforge.petconnect.service.PostService;
+import se.storkforge.petconnect.service.UserService;
 
 import java.security.Principal;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Controller
 public class PostGraphQLController {
 
+    private static final int DEFAULT_PAGE_SIZE = 10;
+
     private final PostService postService;
+    private final UserService userService;
 
-    public PostGraphQLController(PostService postService) {
+    public PostGraphQLController(PostService postService, UserService userService) {
         this.postService = postService;
+        this.userService = userService;
+    }
+
+    @QueryMapping
+    public Connection<PostResponseDTO> postsConnection(@Argument Integer first, @Argument String after) {
+        return postService.getFeed(after, first != null ? first : DEFAULT_PAGE_SIZE);
+    }
+
+    @QueryMapping
+    public Connection<PostResponseDTO> userPostsConnection(@Argument String username, @Argument Integer first,
+                                                           @Argument String after) {
+        return postService.getUserPostsAfter(username, after, first != null ? first : DEFAULT_PAGE_SIZE);
     }
 
     @QueryMapping
-    public List<PostResponseDTO> getAllPosts(@RequestParam(defaultValue = "0") int page,
-                                             @RequestParam(defaultValue = "10") int size) {
-        return postService.getAllPosts(PageRequest.of(page, size));
+    public List<PostResponseDTO> getAllPosts(@Argument Integer page, @Argument Integer size) {
+        return postService.getAllPosts(PageRequest.of(page != null ? page : 0, size != null ? size : DEFAULT_PAGE_SIZE));
     }
 
     @QueryMapping
-    public List<PostResponseDTO> getUserPosts(@Argument String username) {
-        return postService.getUserPosts(username);
+    public List<PostResponseDTO> getUserPosts(@Argument String username, @Argument Integer page, @Argument Integer size) {
+        return postService.getUserPosts(username, page != null ? page : 0, size != null ? size : DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Resolves the authors of every post at one level of a query with a single query.
+     */
+    @BatchMapping(typeName = "Post", field = "author")
+    public Map<PostResponseDTO, User> author(List<PostResponseDTO> posts) {
+        Map<String, User> authors = userService.getUsersByUsernames(posts.stream()
+                .map(PostResponseDTO::getUsername)
+                .collect(Collectors.toSet()));
+
+        Map<PostResponseDTO, User> result = new HashMap<>();
+        for (PostResponseDTO post : posts) {
+            User author = authors.get(post.getUsername());
+            if (author != null) {
+                result.put(post, author);
+            }
+        }
+        return result;
     }
 
     @MutationMapping
-    public PostResponseDTO createPost(@Argument PostInputDTO dto, Principal principal) {
-        return postService.createPost(dto, null, principal.getName()); // без файла
+    public PostResponseDTO createPost(@Argument("post") PostInputDTO post, Principal principal) {
+        return postService.createPost(post, null, principal.getName()); // no image over GraphQL
     }
 
     @MutationMapping
@@ -0,0 +1,25 @@
+package se.storkforge.petconnect.controller;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import se.storkforge.petconnect.service.RateLimitedSmsSender;
+
+@RestController
+@RequestMapping("/admin/sms")
+public class SmsStatsController {
+
+    private final RateLimitedSmsSender smsSender;
+
+    public SmsStatsController(RateLimitedSmsSender smsSender) {
+        this.smsSender = smsSender;
+    }
+
+    /**
+     * @return the sent, failed and throttled counters of the SMS rate limiter on this node.
+     */
+    @GetMapping("/stats")
+    public RateLimitedSmsSender.Stats getSmsStats() {
+        return smsSender.stats();
+    }
+}
@@ -3,6 +3,7 @@ package se.storkforge.petconnect.controller;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
 import org.springframework.stereotype.Controller;
@@ -10,17 +11,25 @@ import se.storkforge.petconnect.dto.PaginationInfo;
 import se.storkforge.petconnect.dto.UserPage;
 import se.storkforge.petconnect.dto.UserInputDTO;
 import se.storkforge.petconnect.dto.UserUpdateInputDTO;
+import se.storkforge.petconnect.entity.Pet;
 import se.storkforge.petconnect.entity.User;
 import se.storkforge.petconnect.exception.UserNotFoundException;
+import se.storkforge.petconnect.service.PetService;
 import se.storkforge.petconnect.service.UserService;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 @Controller
 public class UserGraphQLController {
 
     private final UserService userService;
+    private final PetService petService;
 
-    public UserGraphQLController(UserService userService) {
+    public UserGraphQLController(UserService userService, PetService petService) {
         this.userService = userService;
+        this.petService = petService;
     }
 
     @QueryMapping
@@ -50,6 +59,21 @@ public class UserGraphQLController {
                 .orElseThrow(() -> new UserNotFoundException("User not found"));
     }
 
+    /**
+     * Resolves the pets of every user at one level of a query with a single query,
+     * instead of initializing each user's pets collection.
+     */
+    @BatchMapping(typeName = "User", field = "pets")
+    public Map<User, List<Pet>> pets(List<User> users) {
+        Map<Long, List<Pet>> petsByOwner = petService.getPetsByOwnerIds(users.stream().map(User::getId).toList());
+
+        Map<User, List<Pet>> result = new HashMap<>();
+        for (User user : users) {
+            result.put(user, petsByOwner.getOrDefault(user.getId(), List.of()));
+        }
+        return result;
+    }
+
     @MutationMapping
     public User createUser(@Argument("user") UserInputDTO userInput) {
         User user = new User();
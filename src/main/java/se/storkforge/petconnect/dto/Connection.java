@@ -0,0 +1,45 @@
+package se.storkforge.petconnect.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Relay-style cursor connection, used for keyset paginated lists.
+ * totalCount is only filled in when the caller asked for it.
+ */
+public record Connection<T>(
+        List<Edge<T>> edges,
+        CursorPageInfo pageInfo,
+        Long totalCount
+) {
+
+    public record Edge<T>(String cursor, T node) {}
+
+    /**
+     * Builds a connection from a keyset query that fetched one row more than the
+     * page size, the extra row only signals that a next page exists.
+     *
+     * @param fetched - up to size + 1 rows in sort order.
+     * @param size - the requested page size.
+     * @param cursorOf - derives the cursor of a row from its sort key.
+     * @param hasPreviousPage - true if the page was requested with an after cursor.
+     * @param totalCount - the total number of matching rows, or null if not requested.
+     */
+    public static <T> Connection<T> of(List<T> fetched, int size, Function<T, String> cursorOf,
+                                       boolean hasPreviousPage, Long totalCount) {
+        List<Edge<T>> edges = fetched.stream()
+                .limit(size)
+                .map(node -> new Edge<>(cursorOf.apply(node), node))
+                .toList();
+        CursorPageInfo pageInfo = new CursorPageInfo(
+                fetched.size() > size,
+                hasPreviousPage,
+                edges.isEmpty() ? null : edges.getFirst().cursor(),
+                edges.isEmpty() ? null : edges.getLast().cursor());
+        return new Connection<>(edges, pageInfo, totalCount);
+    }
+
+    public List<T> nodes() {
+        return edges.stream().map(Edge::node).toList();
+    }
+}
@@ -0,0 +1,8 @@
+package se.storkforge.petconnect.dto;
+
+public record CursorPageInfo(
+        boolean hasNextPage,
+        boolean hasPreviousPage,
+        String startCursor,
+        String endCursor
+) {}
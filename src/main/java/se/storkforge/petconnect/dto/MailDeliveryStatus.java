@@ -0,0 +1,22 @@
+package se.storkforge.petconnect.dto;
+
+/**
+ * Outcome of a single message in a bulk mail send.
+ *
+ * @param recipient - the recipient address(es) of the message.
+ * @param sent - true if the SMTP server accepted the message.
+ * @param error - the failure reason, null when sent.
+ */
+public record MailDeliveryStatus(
+        String recipient,
+        boolean sent,
+        String error
+) {
+    public static MailDeliveryStatus sent(String recipient) {
+        return new MailDeliveryStatus(recipient, true, null);
+    }
+
+    public static MailDeliveryStatus failed(String recipient, String error) {
+        return new MailDeliveryStatus(recipient, false, error);
+    }
+}
@@ -0,0 +1,42 @@
+package se.storkforge.petconnect.dto;
+
+import org.geolatte.geom.G2D;
+import org.geolatte.geom.Point;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only view of a meet-up for searches, without participants.
+ *
+ * @param id - the meet-up ID.
+ * @param latitude - latitude of the location.
+ * @param longitude - longitude of the location.
+ * @param dateTime - the scheduled date and time.
+ * @param status - the meet-up status.
+ * @param participantCount - the number of participants.
+ */
+public record MeetUpSummary(
+        Long id,
+        double latitude,
+        double longitude,
+        LocalDateTime dateTime,
+        String status,
+        int participantCount
+) implements Serializable {
+
+    /**
+     * Cache value version, bump when the components change.
+     */
+    public static final int VERSION = 1;
+
+    // used by JPQL constructor expressions, size() is returned as Integer
+    public MeetUpSummary(Long id, Point<G2D> location, LocalDateTime dateTime, String status, Integer participantCount) {
+        this(id, location.getPosition().getLat(), location.getPosition().getLon(), dateTime, status,
+                participantCount != null ? participantCount : 0);
+    }
+
+    public MeetUpSummary withParticipantCount(int participantCount) {
+        return new MeetUpSummary(id, latitude, longitude, dateTime, status, participantCount);
+    }
+}
@@ -0,0 +1,24 @@
+package se.storkforge.petconnect.dto;
+
+/**
+ * One pet in a catalogue export, read by a JPQL constructor query so no
+ * entities are loaded.
+ *
+ * @param id - the pet ID.
+ * @param name - the pet's name.
+ * @param species - the pet's species.
+ * @param available - whether the pet is available.
+ * @param age - the pet's age.
+ * @param location - the pet's location, may be null.
+ * @param ownerId - the owner's ID, null if the pet has no owner.
+ */
+public record PetExportRow(
+        Long id,
+        String name,
+        String species,
+        boolean available,
+        int age,
+        String location,
+        Long ownerId
+) {
+}
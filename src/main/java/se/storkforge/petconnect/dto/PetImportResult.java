@@ -0,0 +1,24 @@
+package se.storkforge.petconnect.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk pet import.
+ *
+ * @param imported - the number of pets saved.
+ * @param failed - the number of rows rejected.
+ * @param errors - why rows were rejected. Capped, so it may hold fewer entries than {@code failed}.
+ */
+public record PetImportResult(
+        long imported,
+        long failed,
+        List<RowError> errors
+) {
+
+    /**
+     * @param line - the line the row starts on, counting the header.
+     * @param message - why the row was rejected.
+     */
+    public record RowError(long line, String message) {
+    }
+}
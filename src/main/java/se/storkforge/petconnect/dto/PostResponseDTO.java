@@ -9,6 +9,18 @@ public class PostResponseDTO {
     private String username;
     private LocalDateTime createdAt;
 
+    public PostResponseDTO() {
+    }
+
+    // used by the JPQL constructor queries in PostRepository
+    public PostResponseDTO(Long id, String content, String imageUrl, String username, LocalDateTime createdAt) {
+        this.id = id;
+        this.content = content;
+        this.imageUrl = imageUrl;
+        this.username = username;
+        this.createdAt = createdAt;
+    }
+
     public Long getId() {
         return id;
     }
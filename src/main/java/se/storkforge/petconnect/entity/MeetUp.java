@@ -14,6 +14,9 @@ import java.util.Objects;
 import java.util.Set;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_meet_up_date_time", columnList = "date_time")
+})
 public class MeetUp {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -25,13 +28,15 @@ public class MeetUp {
     private Point<G2D> location;
 
     @Future(message = "Date and time must be in the future")
+    @Column(name = "date_time")
     private LocalDateTime dateTime;
 
     @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "user_meetup",
             joinColumns = @JoinColumn(name = "meetup_id"),              // Refers to MeetUp's ID
-            inverseJoinColumns = @JoinColumn(name = "user_id")          // Refers to User's ID
+            inverseJoinColumns = @JoinColumn(name = "user_id"),         // Refers to User's ID
+            indexes = @Index(name = "idx_user_meetup_user", columnList = "user_id, meetup_id")
     )
     private Set<User> participants = new HashSet<>();
 
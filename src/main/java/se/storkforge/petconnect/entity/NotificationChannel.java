@@ -0,0 +1,6 @@
+package se.storkforge.petconnect.entity;
+
+public enum NotificationChannel {
+    EMAIL,
+    SMS
+}
@@ -0,0 +1,8 @@
+package se.storkforge.petconnect.entity;
+
+public enum NotificationJobStatus {
+    PENDING,
+    IN_PROGRESS,
+    SENT,
+    FAILED
+}
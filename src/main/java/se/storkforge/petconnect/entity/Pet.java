@@ -9,8 +9,10 @@ import java.util.Objects;
 
 @Entity
 public class Pet {
+    // a pooled sequence rather than IDENTITY, so inserts can be batched (see V5 migration)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pet_id_seq")
+    @SequenceGenerator(name = "pet_id_seq", sequenceName = "pet_id_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Name is required")
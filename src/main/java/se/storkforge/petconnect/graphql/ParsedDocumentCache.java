@@ -0,0 +1,46 @@
+package se.storkforge.petconnect.graphql;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Keeps parsed and validated GraphQL documents by query text, so the queries
+ * clients send over and over skip parsing and validation. Documents with
+ * syntax or validation errors are not kept, they are rare and would only
+ * crowd out good ones.
+ */
+public class ParsedDocumentCache implements PreparsedDocumentProvider {
+
+    private final Cache<String, PreparsedDocumentEntry> documents;
+
+    /**
+     * @param maxSize - the maximum number of documents kept.
+     */
+    public ParsedDocumentCache(long maxSize) {
+        this.documents = Caffeine.newBuilder().maximumSize(maxSize).build();
+    }
+
+    @Override
+    public CompletableFuture<PreparsedDocumentEntry> getDocumentAsync(ExecutionInput executionInput,
+                                                                      Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+        String query = executionInput.getQuery();
+        PreparsedDocumentEntry entry = documents.getIfPresent(query);
+        if (entry == null) {
+            entry = parseAndValidateFunction.apply(executionInput);
+            if (!entry.hasErrors()) {
+                documents.put(query, entry);
+            }
+        }
+        return CompletableFuture.completedFuture(entry);
+    }
+
+    long size() {
+        return documents.estimatedSize();
+    }
+}
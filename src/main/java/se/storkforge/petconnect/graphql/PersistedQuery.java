@@ -0,0 +1,10 @@
+package se.storkforge.petconnect.graphql;
+
+/**
+ * A registered GraphQL document.
+ *
+ * @param document - the query text.
+ * @param readOnly - true if every operation in it is a query, so it may be run over GET.
+ */
+public record PersistedQuery(String document, boolean readOnly) {
+}
@@ -0,0 +1,82 @@
+package se.storkforge.petconnect.graphql;
+
+import graphql.ExecutionResult;
+import graphql.GraphqlErrorBuilder;
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.graphql.support.DefaultExecutionGraphQlResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Automatic persisted queries on the GraphQL endpoint, following the Apollo
+ * protocol: a request with a {@code persistedQuery} extension and no query is
+ * answered with the registered document, or a PersistedQueryNotFound error
+ * that makes the client retry with the full query, which is then registered.
+ */
+@Component
+public class PersistedQueryInterceptor implements WebGraphQlInterceptor {
+
+    public static final String EXTENSION = "persistedQuery";
+    static final String NOT_FOUND = "PersistedQueryNotFound";
+
+    private final PersistedQueryStore store;
+
+    public PersistedQueryInterceptor(PersistedQueryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public Mono<WebGraphQlResponse> intercept(WebGraphQlRequest request, Chain chain) {
+        String hash = hash(request.getExtensions());
+        if (hash == null) {
+            return chain.next(request);
+        }
+
+        String document = request.getDocument();
+        if (document == null || document.isBlank()) {
+            Optional<PersistedQuery> persisted = store.find(hash);
+            if (persisted.isEmpty()) {
+                return Mono.just(error(request, NOT_FOUND, "PERSISTED_QUERY_NOT_FOUND"));
+            }
+            String stored = persisted.get().document();
+            request.configureExecutionInput((input, builder) -> builder.query(stored).build());
+            return chain.next(request);
+        }
+
+        try {
+            store.register(hash, document);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(error(request, e.getMessage(), "INVALID_PERSISTED_QUERY"));
+        }
+        return chain.next(request);
+    }
+
+    /**
+     * @return the sha256Hash of a version 1 persistedQuery extension, or null if there is none.
+     */
+    public static String hash(Map<String, Object> extensions) {
+        if (extensions != null
+                && extensions.get(EXTENSION) instanceof Map<?, ?> persisted
+                && Integer.valueOf(1).equals(persisted.get("version"))
+                && persisted.get("sha256Hash") instanceof String hash
+                && !hash.isBlank()) {
+            return hash.toLowerCase();
+        }
+        return null;
+    }
+
+    private static WebGraphQlResponse error(WebGraphQlRequest request, String message, String code) {
+        ExecutionResult result = ExecutionResult.newExecutionResult()
+                .addError(GraphqlErrorBuilder.newError()
+                        .message(message)
+                        .extensions(Map.of("code", code))
+                        .build())
+                .build();
+        return new WebGraphQlResponse(new DefaultExecutionGraphQlResponse(request.toExecutionInput(), result));
+    }
+}
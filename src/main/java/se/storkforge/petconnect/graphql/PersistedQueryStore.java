@@ -0,0 +1,125 @@
+package se.storkforge.petconnect.graphql;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import graphql.language.Document;
+import graphql.language.OperationDefinition;
+import graphql.parser.InvalidSyntaxException;
+import graphql.parser.Parser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * GraphQL documents registered by their SHA-256 hash, for automatic persisted queries.
+ *
+ * A client sends the hash alone, and the full document only the first time or
+ * after a PersistedQueryNotFound error. Documents are kept in a bounded map on
+ * each node and in Redis, so a document registered on one node is found on the
+ * others. Redis errors are logged and treated as not found, which makes the
+ * client send the document again.
+ */
+@Component
+public class PersistedQueryStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(PersistedQueryStore.class);
+
+    static final String KEY_PREFIX = "graphql:apq:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration ttl;
+    private final Cache<String, PersistedQuery> local;
+
+    public PersistedQueryStore(StringRedisTemplate redisTemplate,
+                               @Value("${petconnect.graphql.persisted-queries.max-size:1000}") long maxSize,
+                               @Value("${petconnect.graphql.persisted-queries.ttl:7d}") Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = ttl;
+        this.local = Caffeine.newBuilder().maximumSize(maxSize).build();
+    }
+
+    /**
+     * @param hash - the SHA-256 hash of the document, in lowercase hex.
+     * @return the registered document, or empty if the hash is unknown.
+     */
+    public Optional<PersistedQuery> find(String hash) {
+        PersistedQuery query = local.getIfPresent(hash);
+        if (query != null) {
+            return Optional.of(query);
+        }
+
+        String document;
+        try {
+            document = redisTemplate.opsForValue().get(KEY_PREFIX + hash);
+        } catch (DataAccessException e) {
+            logger.warn("Failed to read persisted query {}", hash, e);
+            return Optional.empty();
+        }
+        if (document == null || !hash.equals(sha256(document))) {
+            return Optional.empty();
+        }
+        query = new PersistedQuery(document, isReadOnly(document));
+        local.put(hash, query);
+        return Optional.of(query);
+    }
+
+    /**
+     * Registers a document under its hash.
+     *
+     * @param hash - the hash the client computed.
+     * @param document - the query text.
+     * @return the registered document.
+     * @throws IllegalArgumentException if the hash does not match the document.
+     */
+    public PersistedQuery register(String hash, String document) {
+        if (!sha256(document).equals(hash)) {
+            throw new IllegalArgumentException("Provided sha does not match query");
+        }
+        PersistedQuery query = local.getIfPresent(hash);
+        if (query != null) {
+            return query;
+        }
+
+        query = new PersistedQuery(document, isReadOnly(document));
+        local.put(hash, query);
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + hash, document, ttl);
+        } catch (DataAccessException e) {
+            logger.warn("Failed to store persisted query {}", hash, e);
+        }
+        return query;
+    }
+
+    /**
+     * @return the lowercase hex SHA-256 hash of the document, as APQ clients compute it.
+     */
+    public static String sha256(String document) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(document.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    // documents that do not parse are not read-only, execution reports the syntax error
+    static boolean isReadOnly(String document) {
+        try {
+            Document parsed = Parser.parse(document);
+            return parsed.getDefinitionsOfType(OperationDefinition.class).stream()
+                    .allMatch(operation -> operation.getOperation() == OperationDefinition.Operation.QUERY);
+        } catch (InvalidSyntaxException e) {
+            return false;
+        }
+    }
+}
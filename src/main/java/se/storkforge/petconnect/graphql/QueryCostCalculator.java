@@ -0,0 +1,80 @@
+package se.storkforge.petconnect.graphql;
+
+import graphql.analysis.FieldComplexityCalculator;
+import graphql.analysis.FieldComplexityEnvironment;
+import graphql.schema.GraphQLTypeUtil;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estimates what a GraphQL query costs to resolve, before it runs.
+ *
+ * Scalar fields are free, since they come with the row that holds them. Every
+ * object is one unit, and a list multiplies the cost of one item by the number
+ * of items it can return. That number is the page size argument of the field
+ * itself, or of the paging wrapper around it such as {@code getAllPets(size)}
+ * around {@code content}, or {@code defaultListSize} for unbounded lists like
+ * {@code User.pets}. Nested lists therefore multiply, which is what makes a
+ * query expensive. Introspection is free so GraphiQL keeps working.
+ */
+public class QueryCostCalculator implements FieldComplexityCalculator {
+
+    static final List<String> SIZE_ARGUMENTS = List.of("first", "size");
+
+    private final int defaultListSize;
+
+    /**
+     * @param defaultListSize - the number of items assumed for lists without a page size.
+     */
+    public QueryCostCalculator(int defaultListSize) {
+        this.defaultListSize = defaultListSize;
+    }
+
+    @Override
+    public int calculate(FieldComplexityEnvironment environment, int childComplexity) {
+        if (environment.getField().getName().startsWith("__")) {
+            return 0;
+        }
+        if (GraphQLTypeUtil.isLeaf(environment.getFieldDefinition().getType())) {
+            return 0;
+        }
+        if (!returnsList(environment)) {
+            return saturate(1L + childComplexity);
+        }
+        return saturate(1L + listSize(environment) * (1L + childComplexity));
+    }
+
+    // the page size of the list, or of the non-list fields wrapping it
+    private long listSize(FieldComplexityEnvironment environment) {
+        FieldComplexityEnvironment current = environment;
+        while (current != null) {
+            Long size = sizeArgument(current.getArguments());
+            if (size != null) {
+                return size;
+            }
+            current = current.getParentEnvironment();
+            if (current != null && returnsList(current)) {
+                break;
+            }
+        }
+        return defaultListSize;
+    }
+
+    private static Long sizeArgument(Map<String, Object> arguments) {
+        for (String name : SIZE_ARGUMENTS) {
+            if (arguments.get(name) instanceof Number size) {
+                return Math.max(size.longValue(), 0);
+            }
+        }
+        return null;
+    }
+
+    private static boolean returnsList(FieldComplexityEnvironment environment) {
+        return GraphQLTypeUtil.isList(GraphQLTypeUtil.unwrapNonNull(environment.getFieldDefinition().getType()));
+    }
+
+    private static int saturate(long cost) {
+        return (int) Math.min(cost, Integer.MAX_VALUE);
+    }
+}
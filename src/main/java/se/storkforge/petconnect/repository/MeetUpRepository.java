@@ -4,21 +4,29 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import se.storkforge.petconnect.cache.CachedParticipant;
+import se.storkforge.petconnect.dto.MeetUpSummary;
 import se.storkforge.petconnect.entity.MeetUp;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface MeetUpRepository extends JpaRepository<MeetUp, Long> {
 
-    // a combined spatial and time query (recommended for most use cases)
+    // a combined spatial and time query, without loading entities; participants are counted in the query
+    // geography makes the radius meters, the cast matches idx_meet_up_location_geog (V3 migration)
     @Query(value = """
-        SELECT * FROM meet_up
-        WHERE ST_DWithin(location, ST_SetSRID(ST_MakePoint(:longitude, :latitude), 4326), :radius)
-        AND date_time BETWEEN :start AND :end
+        SELECT m.id AS id, ST_Y(m.location) AS latitude, ST_X(m.location) AS longitude,
+               m.date_time AS "dateTime", m.status AS status,
+               (SELECT COUNT(*) FROM user_meetup um WHERE um.meetup_id = m.id) AS "participantCount"
+        FROM meet_up m
+        WHERE ST_DWithin(m.location::geography, ST_SetSRID(ST_MakePoint(:longitude, :latitude), 4326)::geography, :radius)
+        AND m.date_time BETWEEN :start AND :end
+        ORDER BY m.date_time, m.id
         """, nativeQuery = true)
-    List<MeetUp> findMeetUpsNearAndWithinTime(
+    List<MeetUpSummaryRow> findSummariesNearAndWithinTime(
             @Param("longitude") double longitude,
             @Param("latitude") double latitude,
             @Param("radius") double radiusInMeters,
@@ -26,14 +34,85 @@ public interface MeetUpRepository extends JpaRepository<MeetUp, Long> {
             @Param("end") LocalDateTime end
     );
 
-
     List<MeetUp> findByDateTimeBetween(LocalDateTime start, LocalDateTime end);
 
+    @Query("""
+        SELECT new se.storkforge.petconnect.dto.MeetUpSummary(m.id, m.location, m.dateTime, m.status, size(m.participants))
+        FROM MeetUp m
+        WHERE m.id IN :ids
+        """)
+    List<MeetUpSummary> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+        SELECT new se.storkforge.petconnect.dto.MeetUpSummary(m.id, m.location, m.dateTime, m.status, size(m.participants))
+        FROM MeetUp m
+        WHERE m.dateTime BETWEEN :start AND :end
+        """)
+    List<MeetUpSummary> findSummariesBetween(@Param("start") LocalDateTime start,
+                                             @Param("end") LocalDateTime end);
+
+    // fills meet-up tile cache cells, end is exclusive so adjacent days don't overlap
+    @Query(value = """
+        SELECT * FROM meet_up
+        WHERE location && ST_MakeEnvelope(:minLon, :minLat, :maxLon, :maxLat, 4326)
+        AND date_time >= :start AND date_time < :end
+        """, nativeQuery = true)
+    List<MeetUp> findInBoundingBox(@Param("minLon") double minLon,
+                                   @Param("minLat") double minLat,
+                                   @Param("maxLon") double maxLon,
+                                   @Param("maxLat") double maxLat,
+                                   @Param("start") LocalDateTime start,
+                                   @Param("end") LocalDateTime end);
+
+    // which of the given users already have a meet-up in the window, one round trip for all of them
     @Query(value = """
-        SELECT * FROM meet_up 
-        WHERE ST_DWithin(location, ST_SetSRID(ST_MakePoint(:longitude, :latitude), 4326), :radius)
+        SELECT DISTINCT um.user_id FROM user_meetup um
+        JOIN meet_up m ON m.id = um.meetup_id
+        WHERE um.user_id IN (:userIds)
+        AND m.date_time BETWEEN :start AND :end
         """, nativeQuery = true)
-    List<MeetUp> findMeetUpsNear(@Param("longitude") double longitude,
-                                 @Param("latitude") double latitude,
-                                 @Param("radius") double radiusInMeters);
+    List<Long> findBusyUserIds(@Param("userIds") Collection<Long> userIds,
+                               @Param("start") LocalDateTime start,
+                               @Param("end") LocalDateTime end);
+
+    @Query("""
+        SELECT new se.storkforge.petconnect.cache.CachedParticipant(u.id, u.username, u.email)
+        FROM MeetUp m JOIN m.participants u
+        WHERE m.id = :meetUpId
+        ORDER BY u.id
+        """)
+    List<CachedParticipant> findParticipants(@Param("meetUpId") Long meetUpId);
+
+    @Query(value = """
+        SELECT m.id AS id, ST_Y(m.location) AS latitude, ST_X(m.location) AS longitude,
+               m.date_time AS "dateTime", m.status AS status,
+               (SELECT COUNT(*) FROM user_meetup um WHERE um.meetup_id = m.id) AS "participantCount"
+        FROM meet_up m
+        WHERE ST_DWithin(m.location::geography, ST_SetSRID(ST_MakePoint(:longitude, :latitude), 4326)::geography, :radius)
+        ORDER BY m.date_time, m.id
+        """, nativeQuery = true)
+    List<MeetUpSummaryRow> findSummariesNear(@Param("longitude") double longitude,
+                                             @Param("latitude") double latitude,
+                                             @Param("radius") double radiusInMeters);
+
+    /**
+     * Row of the native summary queries, columns are matched by alias.
+     */
+    interface MeetUpSummaryRow {
+        Long getId();
+
+        double getLatitude();
+
+        double getLongitude();
+
+        LocalDateTime getDateTime();
+
+        String getStatus();
+
+        int getParticipantCount();
+
+        default MeetUpSummary toSummary() {
+            return new MeetUpSummary(getId(), getLatitude(), getLongitude(), getDateTime(), getStatus(), getParticipantCount());
+        }
+    }
 }
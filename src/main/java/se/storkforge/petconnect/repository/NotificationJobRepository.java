@@ -0,0 +1,91 @@
+package se.storkforge.petconnect.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import se.storkforge.petconnect.entity.NotificationJob;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface NotificationJobRepository extends JpaRepository<NotificationJob, Long> {
+
+    /**
+     * Locks due jobs for the current transaction. The lock timeout hint of -2 makes
+     * Hibernate render SELECT ... FOR UPDATE SKIP LOCKED, so rows already locked by
+     * another node are skipped instead of waited on. Must be called in a transaction.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+        SELECT j FROM NotificationJob j
+        WHERE j.status = se.storkforge.petconnect.entity.NotificationJobStatus.PENDING
+        AND j.nextAttemptAt <= :now
+        ORDER BY j.nextAttemptAt
+        """)
+    List<NotificationJob> lockDueJobs(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE NotificationJob j
+        SET j.status = se.storkforge.petconnect.entity.NotificationJobStatus.IN_PROGRESS,
+            j.lockedBy = :node, j.lockedUntil = :lockedUntil, j.version = j.version + 1
+        WHERE j.id IN :ids
+        """)
+    int markClaimed(@Param("ids") Collection<Long> ids,
+                    @Param("node") String node,
+                    @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    // claims a single freshly committed job, the status check makes it a no-op if another node got there first
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE NotificationJob j
+        SET j.status = se.storkforge.petconnect.entity.NotificationJobStatus.IN_PROGRESS,
+            j.lockedBy = :node, j.lockedUntil = :lockedUntil, j.version = j.version + 1
+        WHERE j.id = :id
+        AND j.status = se.storkforge.petconnect.entity.NotificationJobStatus.PENDING
+        """)
+    int claim(@Param("id") Long id,
+              @Param("node") String node,
+              @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    // hands jobs of crashed or stuck nodes back to the pool
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE NotificationJob j
+        SET j.status = se.storkforge.petconnect.entity.NotificationJobStatus.PENDING,
+            j.lockedBy = null, j.lockedUntil = null, j.version = j.version + 1
+        WHERE j.status = se.storkforge.petconnect.entity.NotificationJobStatus.IN_PROGRESS
+        AND j.lockedUntil < :now
+        """)
+    int releaseExpiredLeases(@Param("now") LocalDateTime now);
+
+    // extends the lease if the job is unchanged since it was read, 0 once it was released or claimed again
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE NotificationJob j
+        SET j.lockedUntil = :lockedUntil, j.version = j.version + 1
+        WHERE j.id = :id
+        AND j.version = :version
+        AND j.status = se.storkforge.petconnect.entity.NotificationJobStatus.IN_PROGRESS
+        AND j.lockedBy = :node
+        """)
+    int renewLease(@Param("id") Long id,
+                   @Param("version") long version,
+                   @Param("node") String node,
+                   @Param("lockedUntil") LocalDateTime lockedUntil);
+}
@@ -1,16 +1,35 @@
 package se.storkforge.petconnect.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import se.storkforge.petconnect.dto.PetExportRow;
 import se.storkforge.petconnect.entity.Pet;
 import se.storkforge.petconnect.entity.User;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface PetRepository extends JpaRepository<Pet, Long>, JpaSpecificationExecutor<Pet> {
     List<Pet> findByOwner(User owner);
     List<Pet> findByOwnerId(Long ownerId);
+    List<Pet> findByOwnerIdInOrderById(Collection<Long> ownerIds);
+
+    // rows are pulled from a server-side cursor in batches of the fetch size, must be consumed in a transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+        SELECT new se.storkforge.petconnect.dto.PetExportRow(p.id, p.name, p.species, p.available, p.age, p.location, o.id)
+        FROM Pet p LEFT JOIN p.owner o
+        ORDER BY p.id
+        """)
+    Stream<PetExportRow> streamExportRows();
 }
\ No newline at end of file
@@ -4,18 +4,68 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import se.storkforge.petconnect.dto.PostResponseDTO;
 import se.storkforge.petconnect.entity.Post;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface PostRepository extends JpaRepository<Post, Long> {
 
-    List<Post> findByAuthorUsernameOrderByCreatedAtDesc(String username);
+    @Query("SELECT p FROM Post p JOIN FETCH p.author a WHERE a.username = :username ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findByAuthorUsernameOrderByCreatedAtDesc(@Param("username") String username, Pageable pageable);
 
-    @Query("SELECT p FROM Post p ORDER BY p.createdAt DESC")
+    @Query("SELECT p FROM Post p JOIN FETCH p.author WHERE p.id IN :ids")
+    List<Post> findAllByIdWithAuthor(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p FROM Post p JOIN FETCH p.author ORDER BY p.createdAt DESC, p.id DESC")
     List<Post> findAllOrderByCreatedAtDesc(Pageable pageable);
 
+    // keyset pages below read the author's username through a plain join, so no users or roles are loaded
+
+    @Query("""
+        SELECT new se.storkforge.petconnect.dto.PostResponseDTO(p.id, p.content, p.imagePath, a.username, p.createdAt)
+        FROM Post p JOIN p.author a
+        ORDER BY p.createdAt DESC, p.id DESC
+        """)
+    List<PostResponseDTO> findFeedPage(Pageable pageable);
+
+    // the createdAt <= bound lets the (created_at, id) index limit the scan
+    @Query("""
+        SELECT new se.storkforge.petconnect.dto.PostResponseDTO(p.id, p.content, p.imagePath, a.username, p.createdAt)
+        FROM Post p JOIN p.author a
+        WHERE p.createdAt <= :createdAt
+        AND (p.createdAt < :createdAt OR p.id < :id)
+        ORDER BY p.createdAt DESC, p.id DESC
+        """)
+    List<PostResponseDTO> findFeedPageAfter(@Param("createdAt") LocalDateTime createdAt,
+                                            @Param("id") Long id,
+                                            Pageable pageable);
+
+    @Query("""
+        SELECT new se.storkforge.petconnect.dto.PostResponseDTO(p.id, p.content, p.imagePath, a.username, p.createdAt)
+        FROM Post p JOIN p.author a
+        WHERE a.username = :username
+        ORDER BY p.createdAt DESC, p.id DESC
+        """)
+    List<PostResponseDTO> findAuthorPage(@Param("username") String username, Pageable pageable);
+
+    // same seek as the feed, on the (author_id, created_at, id) index
+    @Query("""
+        SELECT new se.storkforge.petconnect.dto.PostResponseDTO(p.id, p.content, p.imagePath, a.username, p.createdAt)
+        FROM Post p JOIN p.author a
+        WHERE a.username = :username
+        AND p.createdAt <= :createdAt
+        AND (p.createdAt < :createdAt OR p.id < :id)
+        ORDER BY p.createdAt DESC, p.id DESC
+        """)
+    List<PostResponseDTO> findAuthorPageAfter(@Param("username") String username,
+                                              @Param("createdAt") LocalDateTime createdAt,
+                                              @Param("id") Long id,
+                                              Pageable pageable);
+
     @Query("SELECT p FROM Post p JOIN FETCH p.author WHERE p.id = :id")
     Optional<Post> findByIdWithAuthor(@Param("id") Long id);
 }
@@ -7,6 +7,7 @@ import org.springframework.stereotype.Repository;
 import se.storkforge.petconnect.entity.Role;
 import se.storkforge.petconnect.entity.User;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,4 +24,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     @Query("SELECT u FROM User u LEFT JOIN FETCH u.pets WHERE u.id = :id")
     Optional<User> findByIdWithPets(@Param("id") Long id);
+
+    // roles are eager, fetching them here keeps a batch of users to one statement
+    @Query("SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.roles WHERE u.id IN :ids")
+    List<User> findAllByIdWithRoles(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.roles WHERE u.username IN :usernames")
+    List<User> findAllByUsernameWithRoles(@Param("usernames") Collection<String> usernames);
 }
\ No newline at end of file
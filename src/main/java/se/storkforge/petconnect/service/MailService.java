@@ -1,17 +1,31 @@
 package se.storkforge.petconnect.service;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import se.storkforge.petconnect.dto.MailDeliveryStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 @Service
 public class MailService {
 
+    private static final Logger logger = LoggerFactory.getLogger(MailService.class);
+
     @Autowired
     private JavaMailSender mailSender;
 
+    @Value("${petconnect.mail.batch-size:50}")
+    private int batchSize;
+
     /**
      * Sends an email notification to a specified recipient.
      * @param to - recipient's email address.
@@ -34,4 +48,57 @@ public class MailService {
         }
 
     }
+
+    /**
+     * Sends many messages, reusing one SMTP connection per batch instead of
+     * connecting (and negotiating TLS) for every message. A failing message
+     * does not stop the rest of its batch.
+     * @param messages - the messages to send.
+     * @return the delivery status of each message, in the same order.
+     */
+    public List<MailDeliveryStatus> sendBulk(List<SimpleMailMessage> messages) {
+        List<MailDeliveryStatus> statuses = new ArrayList<>(messages.size());
+        int size = batchSize > 0 ? batchSize : messages.size();
+
+        for (int from = 0; from < messages.size(); from += size) {
+            List<SimpleMailMessage> batch = messages.subList(from, Math.min(from + size, messages.size()));
+            statuses.addAll(sendBatch(batch));
+        }
+        return statuses;
+    }
+
+    // JavaMailSender sends an array of messages over a single connected transport
+    private List<MailDeliveryStatus> sendBatch(List<SimpleMailMessage> batch) {
+        Map<Object, Exception> failures = Map.of();
+        MailException batchFailure = null;
+
+        try {
+            mailSender.send(batch.toArray(new SimpleMailMessage[0]));
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages();
+            if (failures.isEmpty()) {
+                batchFailure = e;
+            }
+        } catch (MailException e) {
+            batchFailure = e;
+        }
+
+        if (batchFailure != null) {
+            logger.warn("Failed to send mail batch of {} message(s)", batch.size(), batchFailure);
+        }
+
+        List<MailDeliveryStatus> statuses = new ArrayList<>(batch.size());
+        for (SimpleMailMessage message : batch) {
+            String recipient = recipients(message);
+            Exception failure = batchFailure != null ? batchFailure : failures.get(message);
+            statuses.add(failure == null
+                    ? MailDeliveryStatus.sent(recipient)
+                    : MailDeliveryStatus.failed(recipient, failure.getMessage()));
+        }
+        return statuses;
+    }
+
+    private static String recipients(SimpleMailMessage message) {
+        return message.getTo() == null ? "" : String.join(",", message.getTo());
+    }
 }
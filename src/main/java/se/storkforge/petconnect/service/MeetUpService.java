@@ -9,14 +9,17 @@ import org.geolatte.geom.builder.DSL;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
+import se.storkforge.petconnect.cache.CachedParticipant;
+import se.storkforge.petconnect.dto.MeetUpSummary;
 import se.storkforge.petconnect.entity.MeetUp;
 import se.storkforge.petconnect.entity.MeetUpStatus;
 import se.storkforge.petconnect.entity.User;
 import se.storkforge.petconnect.exception.UserOverbookedException;
 import se.storkforge.petconnect.repository.MeetUpRepository;
 import se.storkforge.petconnect.repository.UserRepository;
+import se.storkforge.petconnect.service.searchService.MeetUpTileCache;
+import se.storkforge.petconnect.service.searchService.UpcomingMeetUpIndex;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -31,8 +34,11 @@ public class MeetUpService {
     @Autowired private MailService mailService;
     @Autowired private SmsService smsService;
     @Autowired private NotificationService notificationService;
+    @Autowired private MeetUpTileCache meetUpTileCache;
+    @Autowired private UpcomingMeetUpIndex upcomingMeetUpIndex;
 
     private static final Logger logger = LoggerFactory.getLogger(MeetUpService.class);
+    private static final int AVAILABILITY_WINDOW_MINUTES = 30;
     @Autowired
     UserRepository userRepository;
 
@@ -40,55 +46,63 @@ public class MeetUpService {
                          MailService mailService,
                          SmsService smsService,
                          NotificationService notificationService,
-                         UserRepository userRepository) {
+                         UserRepository userRepository,
+                         MeetUpTileCache meetUpTileCache,
+                         UpcomingMeetUpIndex upcomingMeetUpIndex) {
         this.meetUpRepository    = meetUpRepository;
         this.mailService         = mailService;
         this.smsService          = smsService;
         this.notificationService = notificationService;
         this.userRepository      = userRepository;
+        this.meetUpTileCache     = meetUpTileCache;
+        this.upcomingMeetUpIndex = upcomingMeetUpIndex;
     }
 
     /**
      * Searches for meet-ups within a specified radius from a given location and time range.
+     * Upcoming meet-ups are served from UpcomingMeetUpIndex, other small searches from
+     * MeetUpTileCache, and the rest from the database. Results are summaries, so no
+     * participants or users are loaded.
      *
      * @param longitude - the longitude of the center point.
      * @param latitude - the latitude of the center point.
      * @param radiusInKm - the search radius in kilometers.
      * @param start - the start date and time for filtering meet-ups.
      * @param end - the end date and time for filtering meet-ups.
-     * @return a list of meet-ups that match the criteria.
+     * @return the matching meet-ups ordered by date.
      */
-    @Cacheable(
-            value = "nearbyMeetUpsCache",
-            key = "T(java.util.Objects).hash(#longitude, #latitude, #radiusInKm, #start, #end)"
-    )
-    public List<MeetUp> searchMeetUps(double longitude, double latitude, double radiusInKm, LocalDateTime start, LocalDateTime end) {
+    public List<MeetUpSummary> searchMeetUps(double longitude, double latitude, double radiusInKm, LocalDateTime start, LocalDateTime end) {
         Objects.requireNonNull(start, "Start date cannot be null");
         Objects.requireNonNull(end, "End date cannot be null");
 
         if (start.isAfter(end)) {
             throw new IllegalArgumentException("Start date must be before end date");
         }
+
+        Optional<List<MeetUpSummary>> upcoming = upcomingMeetUpIndex.search(longitude, latitude, radiusInKm, start, end);
+        if (upcoming.isPresent()) {
+            return upcoming.get();
+        }
+
+        Optional<List<Long>> cachedIds = meetUpTileCache.search(longitude, latitude, radiusInKm, start, end);
+        if (cachedIds.isPresent()) {
+            return loadSummariesInOrder(cachedIds.get());
+        }
+
         double radiusInMeters = radiusInKm * 1000;
-        return meetUpRepository.findMeetUpsNearAndWithinTime(longitude, latitude, radiusInMeters, start, end);
+        return meetUpRepository.findSummariesNearAndWithinTime(longitude, latitude, radiusInMeters, start, end)
+                .stream()
+                .map(MeetUpRepository.MeetUpSummaryRow::toSummary)
+                .toList();
     }
 
-    private boolean isWithinRadius(Point<G2D> center, Point<G2D> point, double radiusKm) {
-        double earthRadius = 6371.0; // km
-        double lat1 = center.getPosition().getLat();
-        double lat2 = point.getPosition().getLat();
-        double lon1 = center.getPosition().getLon();
-        double lon2 = point.getPosition().getLon();
-
-        double dLat = Math.toRadians(lat2 - lat1);
-        double dLon = Math.toRadians(lon2 - lon1);
-        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
-                Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) *
-                        Math.sin(dLon / 2) * Math.sin(dLon / 2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        double distance = earthRadius * c;
-
-        return distance <= radiusKm;
+    private List<MeetUpSummary> loadSummariesInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, MeetUpSummary> byId = meetUpRepository.findSummariesByIds(ids).stream()
+                .collect(Collectors.toMap(MeetUpSummary::id, summary -> summary));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
     }
 
     /**
@@ -101,14 +115,29 @@ public class MeetUpService {
     public boolean isUserAvailable(User user, LocalDateTime dateTime) {
         if (user == null || dateTime == null)
             throw new IllegalArgumentException("User and dateTime cannot be null");
+        if (user.getId() == null)
+            return true; // not persisted yet, so not part of any meet-up
 
-        LocalDateTime startWindow = dateTime.minusMinutes(30);
-        LocalDateTime endWindow = dateTime.plusMinutes(30);
-        return user.getMeetUps().stream()
-                .noneMatch(meetUp -> {
-                    LocalDateTime meetupTime = meetUp.getDateTime();
-                    return !meetupTime.isBefore(startWindow) && !meetupTime.isAfter(endWindow);
-                });
+        return findUnavailableUserIds(List.of(user.getId()), dateTime).isEmpty();
+    }
+
+    /**
+     * Finds the users that already have a meet-up within ±30 minutes of the given time.
+     * Runs a single query against user_meetup and meet_up.date_time regardless of how
+     * many users are checked or how many meet-ups they have joined.
+     * @param userIds - the IDs of the users to check.
+     * @param dateTime - the date and time to check for availability.
+     * @return the IDs of the users that are not available.
+     */
+    public Set<Long> findUnavailableUserIds(Collection<Long> userIds, LocalDateTime dateTime) {
+        if (userIds == null || dateTime == null)
+            throw new IllegalArgumentException("User IDs and dateTime cannot be null");
+        if (userIds.isEmpty())
+            return Set.of();
+
+        LocalDateTime startWindow = dateTime.minusMinutes(AVAILABILITY_WINDOW_MINUTES);
+        LocalDateTime endWindow = dateTime.plusMinutes(AVAILABILITY_WINDOW_MINUTES);
+        return new HashSet<>(meetUpRepository.findBusyUserIds(userIds, startWindow, endWindow));
     }
 
     /**
@@ -129,10 +158,7 @@ public class MeetUpService {
      * @throws NoSuchElementException if any participant is not found
      * @throws IllegalStateException if any user is not available at the given time
      */
-    @Caching(evict = {
-            @CacheEvict(value = "nearbyMeetUpsCache", allEntries = true),
-            @CacheEvict(value = "nearbySimpleMeetUpsCache", allEntries = true)
-    })
+    @CacheEvict(value = "nearbySimpleMeetUpsCache", allEntries = true)
     @Transactional
     public MeetUp planMeetUp(double latitude, double longitude, LocalDateTime dateTime, List<Long> participantIds) {
         if (dateTime == null)
@@ -147,7 +173,7 @@ public class MeetUpService {
         List<User> participants = userRepository.findAllById(participantIds);
         if (participants.size() != participantIds.size())
             throw new NoSuchElementException("Some users were not found");
-        if (participants.stream().anyMatch(user -> !isUserAvailable(user, dateTime)))
+        if (!findUnavailableUserIds(participantIds, dateTime).isEmpty())
             throw new UserOverbookedException("Some users are not available at this time.");
 
         Point<G2D> location = DSL.point(WGS84, new G2D(longitude, latitude));
@@ -159,6 +185,8 @@ public class MeetUpService {
         meetUp.setStatus(MeetUpStatus.PLANNED.name());
 
         MeetUp savedMeetUp = meetUpRepository.save(meetUp);
+        meetUpTileCache.evict(savedMeetUp);
+        upcomingMeetUpIndex.upsert(savedMeetUp);
         notifyAllParticipants(savedMeetUp);
         return savedMeetUp;
     }
@@ -199,6 +227,7 @@ public class MeetUpService {
 
         meetUp.getParticipants().add(verifiedUser);
         MeetUp updatedMeetUp = meetUpRepository.save(meetUp);
+        upcomingMeetUpIndex.upsert(updatedMeetUp);
 
         notifySingleParticipant(updatedMeetUp, verifiedUser);
 
@@ -225,22 +254,25 @@ public class MeetUpService {
             throw new NoSuchElementException("User not found in participants");
         }
 
-        return meetUpRepository.save(meetUp);
+        MeetUp updatedMeetUp = meetUpRepository.save(meetUp);
+        upcomingMeetUpIndex.upsert(updatedMeetUp);
+        return updatedMeetUp;
     }
 
     /**
      * Retrieves the list of participants for the given meet-up.
      *
      * @param meetUpId - the ID of the meet-up.
-     * @return a set of users participating in the meet-up.
+     * @return the participants ordered by ID, read without loading users or their roles.
      * @throws NoSuchElementException if the meet-up is not found.
      */
-    @Cacheable(value = "meetupParticipantsCache", key = "#meetUpId")
-    public Set<User> getParticipants(Long meetUpId) {
-        MeetUp meetUp = meetUpRepository.findById(meetUpId)
-                .orElseThrow(() -> new NoSuchElementException("Meet-up not found"));
-
-        return meetUp.getParticipants();
+    @Cacheable(value = "meetupParticipantsCache", key = "#meetUpId", sync = true)
+    public List<CachedParticipant> getParticipants(Long meetUpId) {
+        List<CachedParticipant> participants = meetUpRepository.findParticipants(meetUpId);
+        if (participants.isEmpty() && !meetUpRepository.existsById(meetUpId)) {
+            throw new NoSuchElementException("Meet-up not found");
+        }
+        return participants;
     }
 
     void notifyAllParticipants(MeetUp meetUp) {
@@ -283,10 +315,14 @@ public class MeetUpService {
 
     @Cacheable(
             value = "nearbySimpleMeetUpsCache",
-            key = "T(java.util.Objects).hash(#longitude, #latitude, #radiusMeters)"
+            key = "T(java.util.Objects).hash(#longitude, #latitude, #radiusMeters)",
+            sync = true
     )
-    public List<MeetUp> findNearbyMeetups(double longitude, double latitude, double radiusMeters) {
-        return meetUpRepository.findMeetUpsNear(longitude, latitude, radiusMeters);
+    public List<MeetUpSummary> findNearbyMeetups(double longitude, double latitude, double radiusMeters) {
+        return meetUpRepository.findSummariesNear(longitude, latitude, radiusMeters)
+                .stream()
+                .map(MeetUpRepository.MeetUpSummaryRow::toSummary)
+                .toList();
     }
 
 }
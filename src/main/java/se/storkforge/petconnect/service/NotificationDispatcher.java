@@ -0,0 +1,374 @@
+package se.storkforge.petconnect.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import se.storkforge.petconnect.dto.MailDeliveryStatus;
+import se.storkforge.petconnect.entity.NotificationChannel;
+import se.storkforge.petconnect.entity.NotificationJob;
+import se.storkforge.petconnect.entity.NotificationJobStatus;
+import se.storkforge.petconnect.repository.NotificationJobRepository;
+import se.storkforge.petconnect.util.TransactionHooks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Relays notification jobs from the outbox to the mail and SMS services.
+ *
+ * Jobs are persisted by {@link #enqueue} inside the caller's transaction and handed
+ * to virtual threads once it commits, so the request never waits for SMTP or Twilio.
+ * Each channel has its own concurrency limit. A periodic relay claims due jobs with
+ * SELECT ... FOR UPDATE SKIP LOCKED, which covers retries, jobs committed on a node
+ * that died before dispatching them, and lets several nodes share the outbox.
+ *
+ * A job is only sent by the node that holds its lease. Waiting for a channel permit
+ * can outlast the lease, so it is renewed right before sending, and a job whose lease
+ * was lost in the meantime is skipped. Results are saved against the job's version,
+ * so a node that lost its lease never overwrites the new holder's result. If a node
+ * dies or stalls mid-send the lease expires and the job is released again, so
+ * delivery is at-least-once for that narrow window and exactly-once otherwise.
+ *
+ * A send rejected by a rate limiter is not a failed attempt: the job is put back
+ * after the initial backoff without counting towards {@code max-attempts}, so a
+ * long burst delays notifications instead of failing them.
+ */
+@Service
+public class NotificationDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    private static final Duration MAX_BACKOFF = Duration.ofHours(1);
+
+    private final NotificationJobRepository jobRepository;
+    private final MailService mailService;
+    private final SmsService smsService;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration lease;
+    private final int batchSize;
+    private final TransactionTemplate transactionTemplate;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<NotificationChannel, Semaphore> channelLimits = new EnumMap<>(NotificationChannel.class);
+
+    public NotificationDispatcher(NotificationJobRepository jobRepository,
+                                  MailService mailService,
+                                  SmsService smsService,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${petconnect.notifications.max-attempts:5}") int maxAttempts,
+                                  @Value("${petconnect.notifications.initial-backoff:30s}") Duration initialBackoff,
+                                  @Value("${petconnect.notifications.lease:5m}") Duration lease,
+                                  @Value("${petconnect.notifications.batch-size:100}") int batchSize,
+                                  @Value("${petconnect.notifications.email-concurrency:4}") int emailConcurrency,
+                                  @Value("${petconnect.notifications.sms-concurrency:2}") int smsConcurrency) {
+        this.jobRepository = jobRepository;
+        this.mailService = mailService;
+        this.smsService = smsService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.lease = lease;
+        this.batchSize = batchSize;
+        channelLimits.put(NotificationChannel.EMAIL, new Semaphore(emailConcurrency));
+        channelLimits.put(NotificationChannel.SMS, new Semaphore(smsConcurrency));
+    }
+
+    /**
+     * Stores a notification job and schedules its delivery for after the current
+     * transaction commits. Without a transaction, delivery is scheduled right away.
+     *
+     * @param channel - the channel to deliver on.
+     * @param recipient - the email address or phone number.
+     * @param subject - the subject, only used for email.
+     * @param body - the message text.
+     * @return the persisted job.
+     */
+    public NotificationJob enqueue(NotificationChannel channel, String recipient, String subject, String body) {
+        if (recipient == null || recipient.isBlank())
+            throw new IllegalArgumentException("Recipient cannot be empty");
+
+        NotificationJob job = jobRepository.save(new NotificationJob(channel, recipient, subject, body));
+        Long id = job.getId();
+        TransactionHooks.afterCommit(() -> dispatch(id));
+        return job;
+    }
+
+    /**
+     * Releases expired leases and claims a batch of due jobs for this node. Rows
+     * locked by another node's relay are skipped, so nodes never claim the same job.
+     */
+    @Scheduled(fixedDelayString = "${petconnect.notifications.sweep-interval:30s}")
+    public void relayDueJobs() {
+        LocalDateTime now = LocalDateTime.now();
+        int released = jobRepository.releaseExpiredLeases(now);
+        if (released > 0) {
+            logger.warn("Released {} notification job(s) with an expired lease", released);
+        }
+
+        List<NotificationJob> claimed = transactionTemplate.execute(status -> {
+            List<NotificationJob> jobs = jobRepository.lockDueJobs(now, PageRequest.of(0, batchSize));
+            if (!jobs.isEmpty()) {
+                jobRepository.markClaimed(jobs.stream().map(NotificationJob::getId).toList(), nodeId, now.plus(lease));
+            }
+            return jobs;
+        });
+
+        if (claimed == null || claimed.isEmpty()) {
+            return;
+        }
+        logger.debug("Claimed {} notification job(s)", claimed.size());
+
+        List<Long> emails = new ArrayList<>();
+        for (NotificationJob job : claimed) {
+            if (job.getChannel() == NotificationChannel.EMAIL) {
+                emails.add(job.getId());
+            } else {
+                submit(job.getId(), false);
+            }
+        }
+        if (!emails.isEmpty()) {
+            submitEmails(emails);
+        }
+    }
+
+    // fast path for jobs committed on this node, the claim is skipped if the relay already took the job
+    void dispatch(Long jobId) {
+        if (jobId != null) {
+            submit(jobId, true);
+        }
+    }
+
+    private void submit(Long jobId, boolean claimFirst) {
+        try {
+            executor.execute(() -> {
+                if (!claimFirst || jobRepository.claim(jobId, nodeId, LocalDateTime.now().plus(lease)) == 1) {
+                    deliver(jobId);
+                }
+            });
+        } catch (RuntimeException e) {
+            logger.warn("Could not schedule notification job {}, it will be picked up by the relay", jobId, e);
+        }
+    }
+
+    private void submitEmails(List<Long> jobIds) {
+        try {
+            executor.execute(() -> deliverEmails(jobIds));
+        } catch (RuntimeException e) {
+            logger.warn("Could not schedule {} email job(s), their leases will expire", jobIds.size(), e);
+        }
+    }
+
+    /**
+     * Sends a claimed batch of email jobs through one bulk mail call, so the
+     * SMTP connection is reused instead of opened once per job.
+     */
+    void deliverEmails(List<Long> jobIds) {
+        List<NotificationJob> jobs = jobRepository.findAllById(jobIds).stream()
+                .filter(this::isClaimedHere)
+                .toList();
+        if (jobs.isEmpty()) {
+            return;
+        }
+
+        Semaphore limit = channelLimits.get(NotificationChannel.EMAIL);
+        try {
+            limit.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        List<NotificationJob> held;
+        List<MailDeliveryStatus> statuses = null;
+        Exception failure = null;
+        try {
+            held = jobs.stream().filter(this::renewLease).toList();
+            if (held.isEmpty()) {
+                return;
+            }
+            try {
+                statuses = mailService.sendBulk(held.stream().map(NotificationDispatcher::toMailMessage).toList());
+            } catch (Exception e) {
+                failure = e;
+            }
+        } finally {
+            limit.release();
+        }
+
+        for (int i = 0; i < held.size(); i++) {
+            if (failure != null) {
+                complete(held.get(i), false, failure.getMessage(), failure);
+            } else {
+                MailDeliveryStatus status = statuses.get(i);
+                complete(held.get(i), status.sent(), status.error(), null);
+            }
+            saveResult(held.get(i));
+        }
+    }
+
+    void deliver(Long jobId) {
+        NotificationJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null || !isClaimedHere(job)) {
+            return;
+        }
+
+        Semaphore limit = channelLimits.get(job.getChannel());
+        try {
+            limit.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        Exception failure = null;
+        try {
+            if (!renewLease(job)) {
+                return;
+            }
+            try {
+                send(job);
+            } catch (Exception e) {
+                failure = e;
+            }
+        } finally {
+            limit.release();
+        }
+        complete(job, failure == null, failure != null ? failure.getMessage() : null, failure);
+        saveResult(job);
+    }
+
+    private boolean isClaimedHere(NotificationJob job) {
+        return job.getStatus() == NotificationJobStatus.IN_PROGRESS && nodeId.equals(job.getLockedBy());
+    }
+
+    // called with the permit held, fails if the lease expired and the job was released while waiting
+    private boolean renewLease(NotificationJob job) {
+        LocalDateTime lockedUntil = LocalDateTime.now().plus(lease);
+        if (jobRepository.renewLease(job.getId(), job.getVersion(), nodeId, lockedUntil) != 1) {
+            logger.info("Lost the lease on notification job {} while waiting to send, skipping it", job.getId());
+            return false;
+        }
+        job.setVersion(job.getVersion() + 1);
+        job.setLockedUntil(lockedUntil);
+        return true;
+    }
+
+    // the version check rejects the write if the lease ran out during the send and another node took over
+    private void saveResult(NotificationJob job) {
+        try {
+            jobRepository.save(job);
+        } catch (OptimisticLockingFailureException e) {
+            logger.warn("Lost the lease on notification job {} while sending, its result was not recorded", job.getId());
+        }
+    }
+
+    private void send(NotificationJob job) {
+        switch (job.getChannel()) {
+            case EMAIL -> mailService.sendMeetUpNotification(job.getRecipient(), job.getSubject(), job.getBody());
+            case SMS -> smsService.sendSms(job.getRecipient(), job.getBody());
+        }
+    }
+
+    private static SimpleMailMessage toMailMessage(NotificationJob job) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(job.getRecipient());
+        message.setSubject(job.getSubject());
+        message.setText(job.getBody());
+        return message;
+    }
+
+    // records the outcome of an attempt and gives up the lease
+    private void complete(NotificationJob job, boolean sent, String error, Exception cause) {
+        if (sent) {
+            job.setStatus(NotificationJobStatus.SENT);
+            job.setSentAt(LocalDateTime.now());
+            job.setLastError(null);
+            job.setAttempts(job.getAttempts() + 1);
+        } else if (isThrottled(cause)) {
+            reschedule(job, error);
+        } else {
+            recordFailure(job, error, cause);
+            job.setAttempts(job.getAttempts() + 1);
+        }
+        job.setLockedBy(null);
+        job.setLockedUntil(null);
+    }
+
+    // the message never reached the provider, so the attempt is not counted
+    private void reschedule(NotificationJob job, String error) {
+        job.setLastError(abbreviate(error));
+        job.setStatus(NotificationJobStatus.PENDING);
+        job.setNextAttemptAt(LocalDateTime.now().plus(initialBackoff));
+        logger.info("{} notification to {} was throttled, retrying in {}",
+                job.getChannel(), job.getRecipient(), initialBackoff);
+    }
+
+    // SmsService wraps the limiter's rejection, so the whole cause chain is checked
+    private static boolean isThrottled(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RejectedExecutionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void recordFailure(NotificationJob job, String error, Exception e) {
+        int attempt = job.getAttempts() + 1;
+        job.setLastError(abbreviate(error));
+        if (attempt >= maxAttempts) {
+            job.setStatus(NotificationJobStatus.FAILED);
+            logger.error("Giving up on {} notification to {} after {} attempts",
+                    job.getChannel(), job.getRecipient(), attempt, e);
+        } else {
+            job.setStatus(NotificationJobStatus.PENDING);
+            job.setNextAttemptAt(LocalDateTime.now().plus(backoff(attempt)));
+            logger.warn("Failed to send {} notification to {} (attempt {}), retrying later",
+                    job.getChannel(), job.getRecipient(), attempt, e);
+        }
+    }
+
+    Duration backoff(int attempt) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempt - 1, 20));
+        return delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay;
+    }
+
+    private static String abbreviate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+
+    String nodeId() {
+        return nodeId;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            logger.warn("Notification workers did not finish, their leases will expire and the jobs be retried");
+        }
+    }
+}
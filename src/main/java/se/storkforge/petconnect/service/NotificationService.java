@@ -3,39 +3,46 @@ package se.storkforge.petconnect.service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import se.storkforge.petconnect.entity.NotificationChannel;
 import se.storkforge.petconnect.entity.User;
 
 @Service
 public class NotificationService {
 
-    private final MailService mailService;
-    private final SmsService smsService;
+    private final NotificationDispatcher notificationDispatcher;
     private final Logger logger = LoggerFactory.getLogger(NotificationService.class);
 
-    public NotificationService(MailService mailService, SmsService smsService) {
-        this.mailService = mailService;
-        this.smsService = smsService;
+    public NotificationService(NotificationDispatcher notificationDispatcher) {
+        this.notificationDispatcher = notificationDispatcher;
     }
 
+    /**
+     * Queues an email and an SMS to the user. Delivery happens asynchronously once
+     * the surrounding transaction commits, see NotificationDispatcher.
+     *
+     * @param user - the user to notify.
+     * @param subject - subject of the email.
+     * @param message - content of the email and SMS.
+     */
     public void notifyUser(User user, String subject, String message) {
-        Throwable emailFailure = null;
+        boolean queued = false;
 
-        try {
-            mailService.sendMeetUpNotification(user.getEmail(), subject, message);
-        } catch (Throwable e) {
-            logger.warn("Failed to send email to {}.", user.getEmail(), e);
-            emailFailure = e;
+        if (hasText(user.getEmail())) {
+            notificationDispatcher.enqueue(NotificationChannel.EMAIL, user.getEmail(), subject, message);
+            queued = true;
         }
 
-        try {
-            smsService.sendSms(user.getPhoneNumber(), message);
-        } catch (Throwable e) {
-            logger.warn("Failed to send SMS to {}.", user.getPhoneNumber(), e);
-            if (emailFailure == null) throw e;
+        if (hasText(user.getPhoneNumber())) {
+            notificationDispatcher.enqueue(NotificationChannel.SMS, user.getPhoneNumber(), subject, message);
+            queued = true;
         }
 
-        if (emailFailure != null) {
-            throw new RuntimeException("Failed to send email notification", emailFailure);
+        if (!queued) {
+            logger.warn("User {} has neither email nor phone number, nothing to notify.", user.getUsername());
         }
     }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
 }
@@ -0,0 +1,107 @@
+package se.storkforge.petconnect.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import se.storkforge.petconnect.dto.PetExportRow;
+import se.storkforge.petconnect.repository.PetRepository;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams the whole pet catalogue for partner syncs.
+ *
+ * Rows are read as DTOs from a server-side cursor, 500 at a time, and written
+ * straight to the output, so memory use does not grow with the catalogue and
+ * no entity ever enters the persistence context. The export is ordered by ID.
+ */
+@Service
+public class PetExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PetExportService.class);
+
+    static final String CSV_HEADER = "id,name,species,available,age,location,ownerId";
+
+    private final PetRepository petRepository;
+    private final ObjectWriter jsonWriter;
+
+    public PetExportService(PetRepository petRepository, ObjectMapper objectMapper) {
+        this.petRepository = petRepository;
+        this.jsonWriter = objectMapper.writerFor(PetExportRow.class);
+    }
+
+    /**
+     * Writes every pet to the output. The transaction stays open while the
+     * rows are written, which the database cursor needs.
+     *
+     * @param format - NDJSON, one JSON object per line, or CSV with a header row.
+     * @param output - the stream to write to, left open.
+     * @return the number of pets written.
+     * @throws UncheckedIOException if writing fails, for example when the client disconnects.
+     */
+    @Transactional(readOnly = true)
+    public long export(PetFileFormat format, OutputStream output) {
+        long count = 0;
+        try (Stream<PetExportRow> rows = petRepository.streamExportRows()) {
+            BufferedOutputStream buffered = new BufferedOutputStream(output, 64 * 1024);
+            Writer writer = new OutputStreamWriter(buffered, StandardCharsets.UTF_8);
+            if (format == PetFileFormat.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+            for (Iterator<PetExportRow> it = rows.iterator(); it.hasNext(); count++) {
+                PetExportRow row = it.next();
+                if (format == PetFileFormat.CSV) {
+                    writeCsv(writer, row);
+                } else {
+                    writer.write(jsonWriter.writeValueAsString(row));
+                    writer.write('\n');
+                }
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Pet export aborted after " + count + " pets", e);
+        }
+        logger.info("Exported {} pets as {}", count, format);
+        return count;
+    }
+
+    private static void writeCsv(Writer writer, PetExportRow row) throws IOException {
+        writer.write(String.valueOf(row.id()));
+        writer.write(',');
+        writer.write(csvField(row.name()));
+        writer.write(',');
+        writer.write(csvField(row.species()));
+        writer.write(',');
+        writer.write(String.valueOf(row.available()));
+        writer.write(',');
+        writer.write(String.valueOf(row.age()));
+        writer.write(',');
+        writer.write(csvField(row.location()));
+        writer.write(',');
+        writer.write(row.ownerId() != null ? String.valueOf(row.ownerId()) : "");
+        writer.write('\n');
+    }
+
+    // RFC 4180: fields with a separator, quote or line break are quoted, quotes are doubled
+    static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
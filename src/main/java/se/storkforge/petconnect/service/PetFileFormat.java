@@ -0,0 +1,56 @@
+package se.storkforge.petconnect.service;
+
+import org.springframework.http.MediaType;
+
+/**
+ * File formats for pet exports and bulk imports.
+ */
+public enum PetFileFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    PetFileFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    /**
+     * @param name - the format name, case-insensitive.
+     * @return the format.
+     * @throws IllegalArgumentException if the format is not supported.
+     */
+    public static PetFileFormat fromName(String name) {
+        for (PetFileFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported format: " + name);
+    }
+
+    /**
+     * @param mediaType - the request content type, parameters such as charset are ignored.
+     * @return the matching format.
+     * @throws IllegalArgumentException if the content type is not supported.
+     */
+    public static PetFileFormat fromMediaType(MediaType mediaType) {
+        for (PetFileFormat format : values()) {
+            if (mediaType != null && mediaType.equalsTypeAndSubtype(MediaType.parseMediaType(format.contentType))) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported content type: " + mediaType
+                + ", expected " + CSV.contentType + " or " + NDJSON.contentType);
+    }
+}
@@ -0,0 +1,317 @@
+package se.storkforge.petconnect.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import se.storkforge.petconnect.dto.PetImportResult;
+import se.storkforge.petconnect.dto.PetInputDTO;
+import se.storkforge.petconnect.entity.Pet;
+import se.storkforge.petconnect.entity.User;
+import se.storkforge.petconnect.repository.PetRepository;
+import se.storkforge.petconnect.service.searchService.PetSearchIndex;
+import se.storkforge.petconnect.util.CsvReader;
+import se.storkforge.petconnect.util.PetValidator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk import of pets from CSV or NDJSON, for shelters onboarding their catalogue.
+ *
+ * The input is read as a stream and handled in chunks of {@code chunkSize} rows. Each
+ * row is checked with {@link PetValidator} and the Pet entity constraints, the owners
+ * of a chunk are loaded with one query, and the valid rows are saved in one transaction.
+ * Pet IDs come from a pooled sequence, so Hibernate sends the inserts in JDBC batches
+ * instead of one round trip per pet. The persistence context is cleared after each
+ * chunk: with open-in-view every chunk joins the request's EntityManager, which would
+ * otherwise keep, and dirty-check on each commit, every pet imported so far. Rejected rows are reported with their line number
+ * and do not stop the import; a chunk that fails to save is reported row by row and the
+ * next chunk carries on.
+ *
+ * CSV input needs a header row. The columns match the export, so an export can be
+ * imported again: name, species, available, age, location and ownerId. Other columns,
+ * such as id, are ignored. NDJSON rows use the same field names.
+ */
+@Service
+public class PetImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PetImportService.class);
+
+    private final PetRepository petRepository;
+    private final UserService userService;
+    private final PetSearchIndex petSearchIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final ObjectReader rowReader;
+    private final int chunkSize;
+    private final int maxErrors;
+
+    public PetImportService(PetRepository petRepository,
+                            UserService userService,
+                            PetSearchIndex petSearchIndex,
+                            PlatformTransactionManager transactionManager,
+                            EntityManager entityManager,
+                            Validator validator,
+                            ObjectMapper objectMapper,
+                            @Value("${petconnect.pets.import.chunk-size:500}") int chunkSize,
+                            @Value("${petconnect.pets.import.max-errors:1000}") int maxErrors) {
+        this.petRepository = petRepository;
+        this.userService = userService;
+        this.petSearchIndex = petSearchIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.rowReader = objectMapper.readerFor(PetInputDTO.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     * Imports pets from the input. Rows without an ownerId belong to the current user.
+     * Only admins may import pets for other users.
+     *
+     * @param format - the format of the input.
+     * @param input - the CSV or NDJSON content, UTF-8 encoded. Not closed.
+     * @param currentUsername - the user running the import.
+     * @return how many rows were imported and why the others were rejected.
+     * @throws SecurityException if the current user does not exist.
+     * @throws IllegalArgumentException if the CSV header is missing required columns.
+     * @throws UncheckedIOException if the input cannot be read.
+     */
+    public PetImportResult importPets(PetFileFormat format, InputStream input, String currentUsername) {
+        User currentUser = userService.getUserByUsername(currentUsername)
+                .orElseThrow(() -> new SecurityException("Invalid owner reference"));
+        Import run = new Import(currentUser);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        try {
+            if (format == PetFileFormat.CSV) {
+                readCsv(reader, run);
+            } else {
+                readNdjson(reader, run);
+            }
+            run.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the import after " + run.imported + " pets", e);
+        }
+
+        logger.info("Imported {} pets for {}, {} row(s) rejected", run.imported, currentUsername, run.failed);
+        return new PetImportResult(run.imported, run.failed, List.copyOf(run.errors));
+    }
+
+    private void readCsv(BufferedReader reader, Import run) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("name") || !columns.containsKey("species")) {
+            throw new IllegalArgumentException("CSV header must contain at least the name and species columns");
+        }
+
+        List<String> fields;
+        while (true) {
+            try {
+                fields = csv.next();
+            } catch (IllegalArgumentException e) {
+                // an unterminated quote swallows the rest of the file
+                run.reject(csv.recordLine(), e.getMessage());
+                return;
+            }
+            if (fields == null) {
+                return;
+            }
+            if (fields.size() == 1 && fields.getFirst().isBlank()) {
+                continue;
+            }
+            try {
+                run.add(csv.recordLine(), toInput(fields, columns));
+            } catch (IllegalArgumentException e) {
+                run.reject(csv.recordLine(), e.getMessage());
+            }
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, Import run) throws IOException {
+        long line = 0;
+        String text;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            try {
+                run.add(line, rowReader.readValue(text));
+            } catch (JsonProcessingException e) {
+                run.reject(line, "Invalid JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private static PetInputDTO toInput(List<String> fields, Map<String, Integer> columns) {
+        PetInputDTO input = new PetInputDTO();
+        input.setName(blankToNull(field(fields, columns, "name")));
+        input.setSpecies(blankToNull(field(fields, columns, "species")));
+        input.setLocation(blankToNull(field(fields, columns, "location")));
+
+        String available = field(fields, columns, "available");
+        if (available != null && !available.isBlank()) {
+            if (!available.equalsIgnoreCase("true") && !available.equalsIgnoreCase("false")) {
+                throw new IllegalArgumentException("available must be true or false");
+            }
+            input.setAvailable(Boolean.parseBoolean(available));
+        }
+        String age = field(fields, columns, "age");
+        if (age != null && !age.isBlank()) {
+            input.setAge(parseNumber(age, "age").intValue());
+        }
+        String ownerId = field(fields, columns, "ownerid");
+        if (ownerId != null && !ownerId.isBlank()) {
+            input.setOwnerId(parseNumber(ownerId, "ownerId"));
+        }
+        return input;
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        return index != null && index < fields.size() ? fields.get(index) : null;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static Long parseNumber(String value, String column) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + " must be a whole number");
+        }
+    }
+
+    // the pet is built when the row is read and gets its owner when the chunk is saved
+    private record Row(long line, Long ownerId, Pet pet) {
+    }
+
+    /**
+     * State of one import: the pending chunk, the counters and the capped error list.
+     */
+    private final class Import {
+
+        private final User currentUser;
+        private final List<Row> chunk = new ArrayList<>();
+        private final List<PetImportResult.RowError> errors = new ArrayList<>();
+        private long imported;
+        private long failed;
+
+        Import(User currentUser) {
+            this.currentUser = currentUser;
+        }
+
+        void add(long line, PetInputDTO input) {
+            try {
+                PetValidator.validatePetInput(input);
+            } catch (IllegalArgumentException e) {
+                reject(line, e.getMessage());
+                return;
+            }
+            // rows for the current user need no lookup
+            Long ownerId = currentUser.getId().equals(input.getOwnerId()) ? null : input.getOwnerId();
+            if (ownerId != null && !currentUser.isAdmin()) {
+                reject(line, "You can only import pets you own");
+                return;
+            }
+            Pet pet = new Pet(input.getName(), input.getSpecies(), input.isAvailable(), input.getAge(),
+                    null, input.getLocation());
+            Set<ConstraintViolation<Pet>> violations = validator.validate(pet);
+            if (!violations.isEmpty()) {
+                reject(line, violations.iterator().next().getMessage());
+                return;
+            }
+            chunk.add(new Row(line, ownerId, pet));
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void reject(long line, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(new PetImportResult.RowError(line, message));
+            }
+        }
+
+        void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            List<Row> rows = List.copyOf(chunk);
+            chunk.clear();
+            List<Row> ownerMissing;
+            try {
+                ownerMissing = transactionTemplate.execute(status -> save(rows));
+            } catch (RuntimeException e) {
+                logger.warn("Could not save {} imported pet(s) starting on line {}", rows.size(), rows.getFirst().line(), e);
+                rows.forEach(row -> reject(row.line(), "Could not be saved: " + e.getMessage()));
+                return;
+            }
+            imported += rows.size() - ownerMissing.size();
+            ownerMissing.forEach(row -> reject(row.line(), "Owner not found: " + row.ownerId()));
+        }
+
+        // runs in the chunk's transaction, the owners are resolved with one query
+        private List<Row> save(List<Row> rows) {
+            Set<Long> ownerIds = rows.stream()
+                    .map(Row::ownerId)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet());
+            Map<Long, User> owners = userService.getUsersByIds(ownerIds);
+
+            List<Pet> pets = new ArrayList<>(rows.size());
+            List<Row> ownerMissing = new ArrayList<>();
+            for (Row row : rows) {
+                User owner = row.ownerId() == null ? currentUser : owners.get(row.ownerId());
+                if (owner == null) {
+                    ownerMissing.add(row);
+                    continue;
+                }
+                row.pet().setOwner(owner);
+                pets.add(row.pet());
+            }
+
+            petSearchIndex.indexAll(petRepository.saveAll(pets));
+            // send the batch now and detach it, so the next chunk starts with an empty context
+            entityManager.flush();
+            entityManager.clear();
+            return ownerMissing;
+        }
+    }
+}
@@ -5,114 +5,208 @@ import org.slf4j.LoggerFactory;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
+import se.storkforge.petconnect.cache.CachedPet;
+import se.storkforge.petconnect.dto.Connection;
 import se.storkforge.petconnect.dto.PetInputDTO;
 import se.storkforge.petconnect.dto.PetUpdateInputDTO;
 import se.storkforge.petconnect.entity.Pet;
 import se.storkforge.petconnect.entity.User;
 import se.storkforge.petconnect.exception.PetNotFoundException;
 import se.storkforge.petconnect.repository.PetRepository;
+import se.storkforge.petconnect.service.searchService.PetSearchIndex;
 import se.storkforge.petconnect.service.storageService.RestrictedFileStorageService;
+import se.storkforge.petconnect.util.CursorCodec;
 import se.storkforge.petconnect.util.OwnershipValidator;
 import se.storkforge.petconnect.util.PetOwnershipHelper;
 import se.storkforge.petconnect.util.PetValidator;
 import org.springframework.cache.annotation.Cacheable;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class PetService {
 
     private static final Logger logger = LoggerFactory.getLogger(PetService.class);
 
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final PetRepository petRepository;
     private final RestrictedFileStorageService storageService;
     private final UserService userService;
     private final PetOwnershipHelper petOwnershipHelper;
     private final OwnershipValidator ownershipValidator;
+    private final PetSearchIndex petSearchIndex;
 
     public PetService(PetRepository petRepository,
                       RestrictedFileStorageService storageService,
                       UserService userService,
                       PetOwnershipHelper petOwnershipHelper,
-                      OwnershipValidator ownershipValidator) {
+                      OwnershipValidator ownershipValidator,
+                      PetSearchIndex petSearchIndex) {
         this.petRepository = petRepository;
         this.storageService = storageService;
         this.userService = userService;
         this.petOwnershipHelper = petOwnershipHelper;
         this.ownershipValidator = ownershipValidator;
+        this.petSearchIndex = petSearchIndex;
     }
 
+    /**
+     * Retrieves a page of pets matching the filter.
+     * Unsorted requests are answered from the in-memory search index and only the
+     * pets on the requested page are loaded by ID. Sorted requests, or requests made
+     * before the index is built, use a JPA Specification against the database.
+     *
+     * @param pageable - the requested page, at most {@value #MAX_PAGE_SIZE} pets.
+     * @param filter - the filter criteria, may be null.
+     * @return a page of matching pets.
+     * @throws IllegalArgumentException if the page size is too large.
+     */
     @Transactional(readOnly = true)
     public Page<Pet> getAllPets(Pageable pageable, PetFilter filter) {
+        if (pageable.isPaged() && pageable.getPageSize() > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
         logger.info("Retrieving all pets with pagination, page: {}, size: {}, filter: {}",
                 pageable.getPageNumber(), pageable.getPageSize(), filter);
 
-        Specification<Pet> spec = buildSpecificationFromFilter(filter);
-        return petRepository.findAll(spec, pageable);
-    }
+        if (isIndexSearchable(pageable)) {
+            List<Long> ids = petSearchIndex.search(filter);
+            int from = (int) Math.min(pageable.getOffset(), ids.size());
+            int to = Math.min(from + pageable.getPageSize(), ids.size());
+            return new PageImpl<>(loadInOrder(ids.subList(from, to)), pageable, ids.size());
+        }
 
-    public List<Pet> getPetsByUser(Long userId) {
-        return petRepository.findByOwnerId(userId);
+        Specification<Pet> spec = PetSpecification.filterPets(filter);
+        return petRepository.findAll(spec, pageable);
     }
 
+    /**
+     * Retrieves a page of pets ordered by ID using keyset pagination.
+     * Each page is found by seeking past the ID in the cursor, so the cost per page
+     * does not grow with how far the client has scrolled. The total count is an
+     * extra query on the database path and is only computed when requested.
+     *
+     * @param filter - the filter criteria, may be null.
+     * @param after - the end cursor of the previous page, or null for the first page.
+     * @param first - the page size, between 1 and {@value #MAX_PAGE_SIZE}.
+     * @param withTotalCount - whether to include the total number of matching pets.
+     * @return a connection with the pets on the page.
+     * @throws IllegalArgumentException if the page size or cursor is invalid.
+     */
     @Transactional(readOnly = true)
-    public List<Pet> getPetsByFilter(PetFilter filter) {
-        logger.info("Retrieving pets by filter: {}", filter);
-        Specification<Pet> spec = buildSpecificationFromFilter(filter);
-        return petRepository.findAll(spec);
-    }
-
-    private Specification<Pet> buildSpecificationFromFilter(PetFilter filter) {
-        if (filter == null || filter.isEmpty()) {
-            return Specification.where(null);
+    public Connection<Pet> getPetsAfter(PetFilter filter, String after, int first, boolean withTotalCount) {
+        if (first < 1 || first > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
         }
-
-        Specification<Pet> spec = Specification.where(null);
-
-        if (filter.getSpecies() != null) {
-            spec = spec.and((root, query, cb) ->
-                    cb.equal(root.get("species"), filter.getSpecies()));
+        Long afterId = after != null ? CursorCodec.decodeId(after) : null;
+        logger.info("Retrieving pets after ID: {}, size: {}, filter: {}", afterId, first, filter);
+
+        List<Pet> fetched;
+        Long totalCount = null;
+        if (petSearchIndex.isReady()) {
+            List<Long> ids = petSearchIndex.search(filter);
+            int from = afterId == null ? 0 : insertionPoint(ids, afterId);
+            fetched = loadInOrder(ids.subList(from, Math.min(from + first + 1, ids.size())));
+            if (withTotalCount) {
+                totalCount = (long) ids.size();
+            }
+        } else {
+            Specification<Pet> spec = PetSpecification.filterPets(filter);
+            fetched = petRepository.findBy(spec.and(PetSpecification.idGreaterThan(afterId)),
+                    query -> query.sortBy(Sort.by("id")).limit(first + 1).all());
+            if (withTotalCount) {
+                totalCount = petRepository.count(spec);
+            }
         }
 
-        if (filter.getAvailable() != null) {
-            spec = spec.and((root, query, cb) ->
-                    cb.equal(root.get("available"), filter.getAvailable()));
-        }
+        return Connection.of(fetched, first, pet -> CursorCodec.encodeId(pet.getId()), afterId != null, totalCount);
+    }
 
-        if (filter.getMinAge() != null) {
-            spec = spec.and((root, query, cb) ->
-                    cb.greaterThanOrEqualTo(root.get("age"), filter.getMinAge()));
-        }
+    // Index of the first ID greater than the given one in an ascending list.
+    private static int insertionPoint(List<Long> ids, Long afterId) {
+        int position = Collections.binarySearch(ids, afterId);
+        return position >= 0 ? position + 1 : -position - 1;
+    }
 
-        if (filter.getMaxAge() != null) {
-            spec = spec.and((root, query, cb) ->
-                    cb.lessThanOrEqualTo(root.get("age"), filter.getMaxAge()));
-        }
+    public List<Pet> getPetsByUser(Long userId) {
+        return petRepository.findByOwnerId(userId);
+    }
 
-        if (filter.getLocation() != null) {
-            spec = spec.and((root, query, cb) ->
-                    cb.like(cb.lower(root.get("location")),
-                            "%" + filter.getLocation().toLowerCase() + "%"));
+    /**
+     * Loads the pets of many owners with one query, for resolving the pets of a list of users.
+     *
+     * @param ownerIds - the IDs of the owners.
+     * @return the pets of each owner ordered by ID, owners without pets are left out.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, List<Pet>> getPetsByOwnerIds(Collection<Long> ownerIds) {
+        if (ownerIds.isEmpty()) {
+            return Map.of();
         }
+        return petRepository.findByOwnerIdInOrderById(ownerIds).stream()
+                .collect(Collectors.groupingBy(pet -> pet.getOwner().getId()));
+    }
 
-        if (filter.getNameContains() != null) {
-            spec = spec.and((root, query, cb) ->
-                    cb.like(cb.lower(root.get("name")),
-                            "%" + filter.getNameContains().toLowerCase() + "%"));
+    /**
+     * Retrieves a page of the pets of one species ordered by ID, with the same cursors
+     * as {@link #getPetsAfter}. The search index answers it from its species postings,
+     * the database from the (species, id) index created in the V4 migration.
+     *
+     * @param species - the exact species.
+     * @param after - the end cursor of the previous page, or null for the first page.
+     * @param first - the page size, between 1 and {@value #MAX_PAGE_SIZE}.
+     * @return a connection with the pets on the page.
+     * @throws IllegalArgumentException if the species is blank, or the page size or cursor is invalid.
+     */
+    @Transactional(readOnly = true)
+    public Connection<Pet> getPetsBySpecies(String species, String after, int first) {
+        if (species == null || species.isBlank()) {
+            throw new IllegalArgumentException("Species cannot be empty");
         }
-
-        return spec;
+        return getPetsAfter(new PetFilter(species, null), after, first, false);
     }
 
+    private boolean isIndexSearchable(Pageable pageable) {
+        return petSearchIndex.isReady() && pageable.getSort().isUnsorted();
+    }
 
+    // Loads pets by primary key, keeping the order of the given IDs.
+    private List<Pet> loadInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Pet> byId = petRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Pet::getId, Function.identity()));
+
+        List<Pet> pets = new ArrayList<>(ids.size());
+        List<Long> stale = new ArrayList<>();
+        for (Long id : ids) {
+            Pet pet = byId.get(id);
+            if (pet != null) {
+                pets.add(pet);
+            } else {
+                stale.add(id);
+            }
+        }
+        petSearchIndex.evictStale(stale);
+        return pets;
+    }
 
-    @Cacheable(value = "petCache", key = "#id")
     @Transactional(readOnly = true)
     public Optional<Pet> getPetById(Long id) {
         logger.info("Retrieving pet by ID: {}", id);
@@ -122,6 +216,19 @@ public class PetService {
         return petRepository.findById(id);
     }
 
+    /**
+     * Read-only lookup of a pet, served from petCache. Concurrent misses on the same
+     * pet share one database read. Missing pets are not cached.
+     *
+     * @param id - the ID of the pet.
+     * @return the cached view of the pet, or empty if it does not exist.
+     */
+    @Cacheable(value = "petCache", key = "#id", sync = true)
+    @Transactional(readOnly = true)
+    public Optional<CachedPet> getCachedPet(Long id) {
+        return getPetById(id).map(CachedPet::of);
+    }
+
     @Transactional
     public Pet createPet(PetInputDTO petInput, String currentUsername) {
         logger.info("Creating new pet for user: {}", currentUsername);
@@ -140,7 +247,9 @@ public class PetService {
                 .orElseThrow(() -> new SecurityException("Invalid owner reference"));
         pet.setOwner(owner);
 
-        return petRepository.save(pet);
+        Pet saved = petRepository.save(pet);
+        petSearchIndex.index(saved);
+        return saved;
     }
 
 
@@ -179,7 +288,9 @@ public class PetService {
 
         applyPetUpdates(existingPet, petUpdate, currentUsername);
 
-        return petRepository.save(existingPet);
+        Pet saved = petRepository.save(existingPet);
+        petSearchIndex.index(saved);
+        return saved;
     }
 
     @CacheEvict(value = "petCache", key = "#id")
@@ -200,6 +311,7 @@ public class PetService {
         }
 
         petRepository.delete(pet);
+        petSearchIndex.remove(id);
     }
 
     @Transactional
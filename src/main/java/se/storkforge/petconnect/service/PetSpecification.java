@@ -13,15 +13,20 @@ public class PetSpecification {
     private static final String AGE = "age";
     private static final String LOCATION = "location";
     private static final String NAME = "name";
+    private static final String ID = "id";
+
+    private static final char LIKE_ESCAPE = '\\';
 
     /**
      * Creates a JPA Specification for filtering Pet entities.
+     * Substring filters are emitted as {@code lower(column) LIKE '%value%'}, which
+     * PostgreSQL answers from the pg_trgm GIN indexes created in the V2 migration.
      *
      * @param filter the criteria to filter pets by
      * @return a Specification that can be used with JpaSpecificationExecutor
      */
     public static Specification<Pet> filterPets(PetFilter filter) {
-        if (filter == null) {
+        if (filter == null || filter.isEmpty()) {
             return Specification.where(null);
         }
 
@@ -45,18 +50,45 @@ public class PetSpecification {
             }
 
             if (filter.getLocation() != null) {
-                predicates.add(criteriaBuilder.equal(root.get(LOCATION), filter.getLocation()));
+                predicates.add(criteriaBuilder.like(criteriaBuilder.lower(root.get(LOCATION)),
+                        containsPattern(filter.getLocation()), LIKE_ESCAPE));
             }
 
             if (filter.getNameContains() != null) {
                 String nameContains = filter.getNameContains().trim();
                 if (!nameContains.isEmpty()) {
                     predicates.add(criteriaBuilder.like(criteriaBuilder.lower(root.get(NAME)),
-                            "%" + nameContains.toLowerCase() + "%"));
+                            containsPattern(nameContains), LIKE_ESCAPE));
                 }
             }
 
             return predicates.isEmpty() ? criteriaBuilder.conjunction() : criteriaBuilder.and(predicates.toArray(new Predicate[0]));
         };
     }
-}
\ No newline at end of file
+
+    /**
+     * Restricts pets to those after the given ID, used as the keyset predicate
+     * for cursor pagination ordered by ID.
+     *
+     * @param afterId the last ID of the previous page, or null for the first page
+     * @return a Specification matching pets with a greater ID
+     */
+    public static Specification<Pet> idGreaterThan(Long afterId) {
+        if (afterId == null) {
+            return Specification.where(null);
+        }
+        return (root, query, criteriaBuilder) -> criteriaBuilder.greaterThan(root.get(ID), afterId);
+    }
+
+    /**
+     * Builds a lower-cased {@code %value%} pattern with LIKE wildcards in the value escaped,
+     * so user input such as "50%" is matched literally.
+     */
+    static String containsPattern(String value) {
+        String escaped = value.toLowerCase()
+                .replace(String.valueOf(LIKE_ESCAPE), String.valueOf(LIKE_ESCAPE) + LIKE_ESCAPE)
+                .replace("%", LIKE_ESCAPE + "%")
+                .replace("_", LIKE_ESCAPE + "_");
+        return "%" + escaped + "%";
+    }
+}
@@ -1,11 +1,13 @@
 package se.storkforge.petconnect.service;
 
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
+import se.storkforge.petconnect.dto.Connection;
 import se.storkforge.petconnect.dto.PostInputDTO;
 import se.storkforge.petconnect.dto.PostResponseDTO;
 import se.storkforge.petconnect.entity.Post;
@@ -13,24 +15,39 @@ import se.storkforge.petconnect.entity.User;
 import se.storkforge.petconnect.repository.PostRepository;
 import se.storkforge.petconnect.repository.UserRepository;
 import se.storkforge.petconnect.service.storageService.FileStorageService;
+import se.storkforge.petconnect.service.timelineService.PostTimelineStore;
+import se.storkforge.petconnect.util.CursorCodec;
 import se.storkforge.petconnect.util.OwnershipValidator;
+import se.storkforge.petconnect.util.TransactionHooks;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class PostService {
 
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final PostRepository postRepository;
     private final FileStorageService fileStorageService;
     private final OwnershipValidator ownershipValidator;
     private final UserRepository userRepository;
+    private final PostTimelineStore timelineStore;
 
     public PostService(PostRepository postRepository, FileStorageService fileStorageService,
-                       OwnershipValidator validator, UserRepository userRepository) {
+                       OwnershipValidator validator, UserRepository userRepository,
+                       PostTimelineStore timelineStore) {
         this.postRepository = postRepository;
         this.fileStorageService = fileStorageService;
         this.ownershipValidator = validator;
         this.userRepository = userRepository;
+        this.timelineStore = timelineStore;
     }
 
     /**
@@ -61,33 +78,163 @@ public class PostService {
         post.setAuthor(author);
         postRepository.save(post);
 
+        TransactionHooks.afterCommit(() ->
+                timelineStore.add(author.getUsername(), post.getId(), post.getCreatedAt()));
+
         return toDto(post);
     }
 
     /**
-     * Retrieves a paginated list of all posts from the database.
+     * Retrieves a paginated list of all posts from the database, newest first.
+     * Authors are fetched in the same query.
      *
-     * @param pageable Pagination and sorting information
+     * @param pageable Pagination information, at most {@value #MAX_PAGE_SIZE} posts per page
      * @return A list of PostResponseDTOs representing the posts
+     * @throws IllegalArgumentException if the page size is too large
      */
+    @Transactional(readOnly = true)
     public List<PostResponseDTO> getAllPosts(Pageable pageable) {
-        return postRepository.findAll(pageable)
+        if (pageable.isPaged() && pageable.getPageSize() > MAX_PAGE_SIZE)
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+
+        return postRepository.findAllOrderByCreatedAtDesc(pageable).stream()
                 .map(this::toDto)
                 .toList();
     }
 
     /**
-     * Retrieves all posts created by a specific user in reverse chronological order.
+     * Retrieves one page of the post feed, newest first, using keyset pagination.
+     * The cursor holds the (createdAt, id) of the last post on the previous page, so
+     * every page is a single range scan on the feed index no matter how deep it is.
+     *
+     * @param after    The end cursor of the previous page, or null for the first page
+     * @param size     The number of posts per page, between 1 and {@value #MAX_PAGE_SIZE}
+     * @return A connection with the posts on the page
+     * @throws IllegalArgumentException if the page size or cursor is invalid
+     */
+    @Transactional(readOnly = true)
+    public Connection<PostResponseDTO> getFeed(String after, int size) {
+        checkPageSize(size);
+
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<PostResponseDTO> posts;
+        if (after == null) {
+            posts = postRepository.findFeedPage(limit);
+        } else {
+            String[] keys = CursorCodec.decode(after, 2);
+            posts = postRepository.findFeedPageAfter(parseCreatedAt(keys[0]), parseId(keys[1]), limit);
+        }
+        return Connection.of(posts, size, PostService::cursorOf, after != null, null);
+    }
+
+    /**
+     * Retrieves one page of a user's posts, newest first, using keyset pagination
+     * on the author index. Cursors work like those of {@link #getFeed}.
+     *
+     * @param username The username of the author
+     * @param after    The end cursor of the previous page, or null for the first page
+     * @param size     The number of posts per page, between 1 and {@value #MAX_PAGE_SIZE}
+     * @return A connection with the posts on the page
+     * @throws IllegalArgumentException if the page size or cursor is invalid
+     */
+    @Transactional(readOnly = true)
+    public Connection<PostResponseDTO> getUserPostsAfter(String username, String after, int size) {
+        checkPageSize(size);
+
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<PostResponseDTO> posts;
+        if (after == null) {
+            posts = postRepository.findAuthorPage(username, limit);
+        } else {
+            String[] keys = CursorCodec.decode(after, 2);
+            posts = postRepository.findAuthorPageAfter(username, parseCreatedAt(keys[0]), parseId(keys[1]), limit);
+        }
+        return Connection.of(posts, size, PostService::cursorOf, after != null, null);
+    }
+
+    private static void checkPageSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE)
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+    }
+
+    static String cursorOf(PostResponseDTO post) {
+        return CursorCodec.encode(post.getCreatedAt(), post.getId());
+    }
+
+    private static LocalDateTime parseCreatedAt(String value) {
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    private static Long parseId(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * Retrieves a page of the posts created by a specific user in reverse chronological order.
+     *
+     * The newest posts of each author are kept in a Redis timeline, so pages within it
+     * cost one range read plus one batch load by ID. A missing timeline is rebuilt from
+     * the database, and pages older than the timeline capacity are read from the database.
+     * So are pages listing a post that no longer exists, which happens while a delete
+     * has committed but not yet reached the timeline.
      *
      * @param username The username of the user whose posts should be retrieved
+     * @param page     The page number, starting from 0
+     * @param size     The number of posts per page, between 1 and {@value #MAX_PAGE_SIZE}
      * @return A list of PostResponseDTOs representing the user's posts
      */
-    public List<PostResponseDTO> getUserPosts(String username) {
-        return postRepository.findByAuthorUsernameOrderByCreatedAtDesc(username).stream()
-                .map(this::toDto)
+    @Transactional(readOnly = true)
+    public List<PostResponseDTO> getUserPosts(String username, int page, int size) {
+        if (page < 0)
+            throw new IllegalArgumentException("Page number cannot be negative");
+        checkPageSize(size);
+
+        long offset = (long) page * size;
+        if (offset + size > timelineStore.capacity()) {
+            return toDtos(postRepository.findByAuthorUsernameOrderByCreatedAtDesc(username, PageRequest.of(page, size)));
+        }
+
+        Optional<List<Long>> ids = timelineStore.range(username, offset, size);
+        if (ids.isPresent()) {
+            List<Post> posts = loadInOrder(ids.get());
+            if (posts.size() == ids.get().size()) {
+                return toDtos(posts);
+            }
+            return toDtos(postRepository.findByAuthorUsernameOrderByCreatedAtDesc(username, PageRequest.of(page, size)));
+        }
+
+        // the version is read first, so the fill is dropped if a post is added or removed meanwhile
+        String version = timelineStore.version(username);
+        List<Post> newest = postRepository.findByAuthorUsernameOrderByCreatedAtDesc(
+                username, PageRequest.of(0, timelineStore.capacity()));
+        timelineStore.fill(username, version, newest);
+        return toDtos(newest.stream().skip(offset).limit(size).toList());
+    }
+
+    // Loads posts with their authors in one query, keeping the order of the given IDs.
+    private List<Post> loadInOrder(List<Long> ids) {
+        if (ids.isEmpty())
+            return List.of();
+        Map<Long, Post> byId = postRepository.findAllByIdWithAuthor(ids).stream()
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
                 .toList();
     }
 
+    private List<PostResponseDTO> toDtos(List<Post> posts) {
+        return posts.stream().map(this::toDto).toList();
+    }
+
     /**
      * Deletes a post if the current user is the owner of that post.
      *
@@ -102,6 +249,9 @@ public class PostService {
                 .orElseThrow(() -> new EntityNotFoundException("Post not found"));
         ownershipValidator.checkOwnership(post, currentUsername);
         postRepository.delete(post);
+
+        String author = post.getAuthor().getUsername();
+        TransactionHooks.afterCommit(() -> timelineStore.remove(author, postId));
     }
 
     private PostResponseDTO toDto(Post post) {
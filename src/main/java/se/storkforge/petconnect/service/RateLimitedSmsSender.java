@@ -0,0 +1,132 @@
+package se.storkforge.petconnect.service;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import se.storkforge.petconnect.util.TokenBucket;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SmsSender decorator that keeps traffic to the provider within its limits.
+ *
+ * Each sending number gets its own token bucket, since providers rate limit per
+ * sender. At most {@code max-concurrency} requests are in flight, and at most
+ * {@code max-queued} callers may wait for a slot. Callers beyond that, or callers
+ * that wait longer than {@code queue-timeout}, are rejected so that a burst
+ * fails fast instead of piling up threads. The outbox relay retries rejected jobs
+ * without counting the rejection as a failed attempt.
+ */
+@Primary
+@Component
+public class RateLimitedSmsSender implements SmsSender {
+
+    private final SmsSender delegate;
+    private final double ratePerSecond;
+    private final int burst;
+    private final Duration queueTimeout;
+
+    private final Semaphore inFlight;
+    private final Semaphore waiting;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong throttledNanos = new AtomicLong();
+
+    public RateLimitedSmsSender(@Qualifier("twilioSmsSender") SmsSender delegate,
+                                @Value("${petconnect.sms.rate-per-second:1}") double ratePerSecond,
+                                @Value("${petconnect.sms.burst:5}") int burst,
+                                @Value("${petconnect.sms.max-concurrency:4}") int maxConcurrency,
+                                @Value("${petconnect.sms.max-queued:100}") int maxQueued,
+                                @Value("${petconnect.sms.queue-timeout:30s}") Duration queueTimeout) {
+        this.delegate = delegate;
+        this.ratePerSecond = ratePerSecond;
+        this.burst = burst;
+        this.queueTimeout = queueTimeout;
+        this.inFlight = new Semaphore(maxConcurrency, true);
+        this.waiting = new Semaphore(maxConcurrency + maxQueued);
+    }
+
+    /**
+     * Sends the message once a token and a concurrency slot are available.
+     *
+     * @throws RejectedExecutionException if the queue is full or the wait times out.
+     */
+    @Override
+    public void send(String to, String from, String message) {
+        if (!waiting.tryAcquire()) {
+            rejected.incrementAndGet();
+            throw new RejectedExecutionException("SMS queue is full");
+        }
+        try {
+            long deadline = System.nanoTime() + queueTimeout.toNanos();
+            throttle(from, deadline);
+            acquireSlot(deadline);
+            try {
+                delegate.send(to, from, message);
+                sent.incrementAndGet();
+            } catch (RuntimeException e) {
+                failed.incrementAndGet();
+                throw e;
+            } finally {
+                inFlight.release();
+            }
+        } finally {
+            waiting.release();
+        }
+    }
+
+    private void throttle(String from, long deadline) {
+        // the token is only taken if it is valid before the deadline, so rejections do not grow the backlog
+        long wait = buckets.computeIfAbsent(String.valueOf(from), key -> new TokenBucket(ratePerSecond, burst))
+                .reserve(Math.max(0, deadline - System.nanoTime()));
+        if (wait < 0) {
+            rejected.incrementAndGet();
+            throw new RejectedExecutionException("SMS rate limit backlog exceeds the queue timeout");
+        }
+        if (wait == 0) {
+            return;
+        }
+        throttledNanos.addAndGet(wait);
+        try {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for SMS rate limit", e);
+        }
+    }
+
+    private void acquireSlot(long deadline) {
+        try {
+            if (!inFlight.tryAcquire(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                rejected.incrementAndGet();
+                throw new RejectedExecutionException("Timed out waiting for a free SMS slot");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for a free SMS slot", e);
+        }
+    }
+
+    /**
+     * @return counters since startup, served at /admin/sms/stats.
+     */
+    public Stats stats() {
+        return new Stats(sent.get(), failed.get(), rejected.get(),
+                inFlight.availablePermits(), waiting.availablePermits(),
+                Duration.ofNanos(throttledNanos.get()));
+    }
+
+    public record Stats(long sent, long failed, long rejected,
+                        int freeSlots, int freeQueueSpace, Duration timeThrottled) {
+    }
+}
@@ -2,8 +2,13 @@ package se.storkforge.petconnect.service;
 
 import com.twilio.rest.api.v2010.account.Message;
 import com.twilio.type.PhoneNumber;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
+/**
+ * Sends SMS through the Twilio API. Callers go through RateLimitedSmsSender.
+ */
+@Profile("!dev")
 @Component
 public class TwilioSmsSender implements SmsSender {
 
@@ -10,6 +10,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
+import se.storkforge.petconnect.cache.CachedUser;
 import se.storkforge.petconnect.entity.Role;
 import se.storkforge.petconnect.entity.User;
 import se.storkforge.petconnect.exception.UserNotFoundException;
@@ -18,11 +19,14 @@ import se.storkforge.petconnect.repository.UserRepository;
 import se.storkforge.petconnect.service.storageService.RestrictedFileStorageService;
 import se.storkforge.petconnect.security.Roles;
 
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.regex.Matcher;
+import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -64,11 +68,57 @@ public class UserService {
         }
     }
 
-    @Cacheable(value = "userCache", key = "#id")
+    // not cached, callers modify and save the returned entity
     public User getUserById(Long id) {
         return getUserByIdWithPets(id).orElseThrow(() -> new UserNotFoundException("User with id " + id + " not found"));
     }
 
+    /**
+     * Read-only lookup of a user, served from userCache. Concurrent misses on the
+     * same user share one database read.
+     *
+     * @param id - the ID of the user.
+     * @return the cached view of the user.
+     * @throws UserNotFoundException if no user has the ID.
+     */
+    @Cacheable(value = "userCache", key = "#id", sync = true)
+    @Transactional(readOnly = true)
+    public CachedUser getCachedUser(Long id) {
+        return userRepository.findById(id)
+                .map(CachedUser::of)
+                .orElseThrow(() -> new UserNotFoundException("User with id " + id + " not found"));
+    }
+
+    /**
+     * Loads many users with one query, for resolving the owners of a list of pets.
+     *
+     * @param ids - the IDs of the users.
+     * @return the users found, by ID. Unknown IDs are left out.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, User> getUsersByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return userRepository.findAllByIdWithRoles(ids).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+    }
+
+    /**
+     * Loads many users with one query, for resolving the authors of a list of posts.
+     *
+     * @param usernames - the usernames of the users.
+     * @return the users found, by username. Unknown usernames are left out.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, User> getUsersByUsernames(Collection<String> usernames) {
+        if (usernames.isEmpty()) {
+            return Map.of();
+        }
+        return userRepository.findAllByUsernameWithRoles(usernames).stream()
+                .collect(Collectors.toMap(User::getUsername, Function.identity()));
+    }
+
     public Optional<User> getUserByUsername(String username) {
         return userRepository.findByUsername(username);
     }
@@ -238,6 +288,7 @@ public class UserService {
         return List.of(); // Returnera en tom lista om rollen inte finns
     }
 
+    @CacheEvict(value = "userCache", key = "#userId")
     public void togglePremiumRole(Long userId) {
         User user = getOrElseThrow(userId);
         Role premiumRole = roleRepository.findByName("ROLE_PREMIUM")
@@ -277,7 +328,6 @@ public class UserService {
         return roleRepository.findByName(name).orElse(null);
     }
 
-    @Cacheable(value = "userCache", key = "#id")
     public Optional<User> getUserByIdWithPets(Long id) {
         return userRepository.findByIdWithPets(id);
     }
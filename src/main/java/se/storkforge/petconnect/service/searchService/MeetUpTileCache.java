@@ -0,0 +1,261 @@
+package se.storkforge.petconnect.service.searchService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import se.storkforge.petconnect.entity.MeetUp;
+import se.storkforge.petconnect.repository.MeetUpRepository;
+import se.storkforge.petconnect.util.GeoDistance;
+import se.storkforge.petconnect.util.Geohash;
+import se.storkforge.petconnect.util.TransactionHooks;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches meet-up search results per map tile and day.
+ *
+ * The map is split into geohash tiles and time into days. A search is answered by
+ * collecting the cells that cover its bounding box and time range, loading the
+ * missing cells with a single bounding box query, and filtering the merged entries
+ * by exact distance and time. Panning the map or moving the time range slightly
+ * reuses most cells instead of missing on an exact-coordinate key.
+ *
+ * The tile precision depends only on the radius: it is the finest level, between
+ * {@value #MIN_PRECISION} and {@value #MAX_PRECISION}, whose tiles are at least as
+ * large as the radius, so a search touches at most 3x3 tiles and nearby searches with
+ * the same radius share them. Writes evict the meet-up's cell at every precision.
+ * Searches that would need more than {@value #MAX_CELLS} cells are not cached.
+ *
+ * An eviction that lands while a search is loading the same cell supersedes that
+ * load: the search still uses its rows, but does not cache the cell, which could
+ * predate the write and would hide it until the cell expires.
+ */
+@Component
+public class MeetUpTileCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(MeetUpTileCache.class);
+
+    public static final String CACHE_NAME = "meetUpTileCache";
+
+    static final int MIN_PRECISION = 3;
+    static final int MAX_PRECISION = 6;
+    static final int MAX_CELLS = 64;
+
+    private final MeetUpRepository meetUpRepository;
+    private final CacheManager cacheManager;
+    private final boolean enabled;
+    private final Set<CellLoad> loading = ConcurrentHashMap.newKeySet();
+
+    public MeetUpTileCache(MeetUpRepository meetUpRepository,
+                           CacheManager cacheManager,
+                           @Value("${petconnect.meetups.tile-cache.enabled:true}") boolean enabled) {
+        this.meetUpRepository = meetUpRepository;
+        this.cacheManager = cacheManager;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Finds the meet-ups within the radius and time range, inclusive.
+     *
+     * @param longitude - the longitude of the center point.
+     * @param latitude - the latitude of the center point.
+     * @param radiusInKm - the search radius in kilometers.
+     * @param start - the start of the time range.
+     * @param end - the end of the time range.
+     * @return the IDs of matching meet-ups ordered by date, or empty if the
+     * search is too large to be answered from tiles.
+     */
+    public Optional<List<Long>> search(double longitude, double latitude, double radiusInKm,
+                                       LocalDateTime start, LocalDateTime end) {
+        if (!enabled || radiusInKm < 0) {
+            return Optional.empty();
+        }
+
+        double latDelta = GeoDistance.latitudeDelta(radiusInKm);
+        double lonDelta = GeoDistance.longitudeDelta(latitude, radiusInKm);
+        double minLat = latitude - latDelta, maxLat = latitude + latDelta;
+        double minLon = longitude - lonDelta, maxLon = longitude + lonDelta;
+
+        int precision = precisionFor(latDelta, lonDelta);
+        long days = ChronoUnit.DAYS.between(start.toLocalDate(), end.toLocalDate()) + 1;
+        if (precision < 0 || Geohash.coveringSize(minLat, minLon, maxLat, maxLon, precision) * days > MAX_CELLS) {
+            return Optional.empty();
+        }
+
+        List<String> tiles = Geohash.covering(minLat, minLon, maxLat, maxLon, precision);
+        List<LocalDate> buckets = start.toLocalDate().datesUntil(end.toLocalDate().plusDays(1)).toList();
+
+        List<TileEntry> entries = loadCells(tiles, buckets, precision);
+        List<Long> ids = entries.stream()
+                .filter(entry -> !entry.dateTime().isBefore(start) && !entry.dateTime().isAfter(end))
+                .filter(entry -> GeoDistance.haversineKm(latitude, longitude, entry.latitude(), entry.longitude()) <= radiusInKm)
+                .sorted(Comparator.comparing(TileEntry::dateTime).thenComparing(TileEntry::id))
+                .map(TileEntry::id)
+                .distinct()
+                .toList();
+        return Optional.of(ids);
+    }
+
+    /**
+     * Evicts the cells containing the meet-up, after commit when inside a transaction.
+     *
+     * @param meetUp - the created or changed meet-up.
+     */
+    public void evict(MeetUp meetUp) {
+        if (!enabled || meetUp.getLocation() == null || meetUp.getDateTime() == null) {
+            return;
+        }
+        double lat = meetUp.getLocation().getPosition().getLat();
+        double lon = meetUp.getLocation().getPosition().getLon();
+        LocalDate day = meetUp.getDateTime().toLocalDate();
+
+        TransactionHooks.afterCommit(() -> {
+            Cache cache = cache();
+            for (int precision = MIN_PRECISION; precision <= MAX_PRECISION; precision++) {
+                String key = key(Geohash.encode(lat, lon, precision), day);
+                loading.forEach(load -> load.supersede(key));
+                cache.evict(key);
+            }
+        });
+    }
+
+    private List<TileEntry> loadCells(List<String> tiles, List<LocalDate> buckets, int precision) {
+        Cache cache = cache();
+        List<TileEntry> entries = new ArrayList<>();
+        Set<String> missing = new LinkedHashSet<>();
+
+        for (String tile : tiles) {
+            for (LocalDate day : buckets) {
+                String key = key(tile, day);
+                Cell cell = cache.get(key, Cell.class);
+                if (cell != null) {
+                    entries.addAll(cell.entries());
+                } else {
+                    missing.add(key);
+                }
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            logger.debug("Loading {} of {} meet-up tile(s) from the database", missing.size(), tiles.size() * buckets.size());
+            entries.addAll(loadMissing(missing, tiles, buckets, precision, cache));
+        }
+        return entries;
+    }
+
+    // one bounding box query for all missing cells, then split the rows into cells
+    private List<TileEntry> loadMissing(Set<String> missing, List<String> tiles, List<LocalDate> buckets,
+                                        int precision, Cache cache) {
+        double minLat = 90, minLon = 180, maxLat = -90, maxLon = -180;
+        for (String tile : tiles) {
+            double[] bounds = Geohash.bounds(tile);
+            minLat = Math.min(minLat, bounds[0]);
+            minLon = Math.min(minLon, bounds[1]);
+            maxLat = Math.max(maxLat, bounds[2]);
+            maxLon = Math.max(maxLon, bounds[3]);
+        }
+
+        // registered before the query, so evictions of rows it may have missed are seen
+        CellLoad load = new CellLoad(missing);
+        loading.add(load);
+        List<MeetUp> meetUps;
+        try {
+            meetUps = meetUpRepository.findInBoundingBox(minLon, minLat, maxLon, maxLat,
+                    buckets.getFirst().atStartOfDay(), buckets.getLast().plusDays(1).atStartOfDay());
+        } catch (RuntimeException e) {
+            loading.remove(load);
+            throw e;
+        }
+
+        Map<String, List<TileEntry>> loaded = new HashMap<>();
+        missing.forEach(key -> loaded.put(key, new ArrayList<>()));
+        for (MeetUp meetUp : meetUps) {
+            TileEntry entry = TileEntry.of(meetUp);
+            List<TileEntry> cell = loaded.get(key(Geohash.encode(entry.latitude(), entry.longitude(), precision),
+                    entry.dateTime().toLocalDate()));
+            if (cell != null) {
+                cell.add(entry);
+            }
+        }
+
+        List<TileEntry> entries = new ArrayList<>();
+        try {
+            loaded.forEach((key, cellEntries) -> {
+                load.putUnlessSuperseded(key, () -> cache.put(key, new Cell(cellEntries)));
+                entries.addAll(cellEntries);
+            });
+        } finally {
+            loading.remove(load);
+        }
+        return entries;
+    }
+
+    private int precisionFor(double latDelta, double lonDelta) {
+        for (int precision = MAX_PRECISION; precision >= MIN_PRECISION; precision--) {
+            if (Geohash.tileHeight(precision) >= latDelta && Geohash.tileWidth(precision) >= lonDelta) {
+                return precision;
+            }
+        }
+        return -1;
+    }
+
+    static String key(String tile, LocalDate day) {
+        return tile + ":" + day;
+    }
+
+    private Cache cache() {
+        return Objects.requireNonNull(cacheManager.getCache(CACHE_NAME), "Cache " + CACHE_NAME + " is not configured");
+    }
+
+    // the cells one search is loading and those evicted since it started
+    private static final class CellLoad {
+
+        private final Set<String> keys;
+        private final Set<String> superseded = new HashSet<>();
+
+        CellLoad(Set<String> keys) {
+            this.keys = keys;
+        }
+
+        synchronized void supersede(String key) {
+            if (keys.contains(key)) {
+                superseded.add(key);
+            }
+        }
+
+        // under the lock, so an eviction lands either before the check or after the put
+        synchronized void putUnlessSuperseded(String key, Runnable put) {
+            if (!superseded.contains(key)) {
+                put.run();
+            }
+        }
+    }
+
+    /**
+     * Cached content of one tile and day.
+     */
+    public record Cell(List<TileEntry> entries) {
+
+        public static final int VERSION = 1;
+    }
+
+    /**
+     * The fields of a meet-up needed to filter a search exactly.
+     */
+    public record TileEntry(Long id, double latitude, double longitude, LocalDateTime dateTime) {
+
+        static TileEntry of(MeetUp meetUp) {
+            return new TileEntry(meetUp.getId(),
+                    meetUp.getLocation().getPosition().getLat(),
+                    meetUp.getLocation().getPosition().getLon(),
+                    meetUp.getDateTime());
+        }
+    }
+}
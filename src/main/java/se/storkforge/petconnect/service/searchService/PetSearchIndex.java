@@ -0,0 +1,444 @@
+package se.storkforge.petconnect.service.searchService;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import se.storkforge.petconnect.cache.TwoTierCacheManager;
+import se.storkforge.petconnect.entity.Pet;
+import se.storkforge.petconnect.repository.PetRepository;
+import se.storkforge.petconnect.service.PetFilter;
+import se.storkforge.petconnect.util.TransactionHooks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory inverted index over the searchable pet attributes.
+ *
+ * Name and location are indexed as n-grams (length 1 to {@value #GRAM_SIZE}) so that
+ * "contains" filters can be answered from posting lists instead of a leading-wildcard
+ * LIKE scan. Species and availability are exact-match postings and age is kept in a
+ * sorted map for range lookups. Every candidate is verified against the stored document,
+ * so the postings only have to narrow the search, never decide it.
+ *
+ * The index is built once the application is ready and kept in sync by PetService.
+ * Changes are announced to the other nodes on the cache invalidation channel as
+ * {@code node, }{@value #MESSAGE_NAME}{@code , ids} lines, and each node reloads the
+ * announced pets from the database. A scheduled rebuild bounds how stale a node can
+ * get if an announcement is lost. Until it is ready (or when disabled) callers are
+ * expected to fall back to the database.
+ */
+@Component
+public class PetSearchIndex implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(PetSearchIndex.class);
+
+    static final int GRAM_SIZE = 3;
+    static final String MESSAGE_NAME = "petSearchIndex";
+
+    private final PetRepository petRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer cacheInvalidationListener;
+    private final boolean enabled;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, PetDocument> documents = new HashMap<>();
+    private final Map<String, Set<Long>> nameGrams = new HashMap<>();
+    private final Map<String, Set<Long>> locationGrams = new HashMap<>();
+    private final Map<String, Set<Long>> speciesPostings = new HashMap<>();
+    private final Map<Boolean, Set<Long>> availablePostings = new HashMap<>();
+    private final NavigableMap<Integer, Set<Long>> agePostings = new TreeMap<>();
+
+    // changes applied while a rebuild reads the database, replayed on top of its result
+    private List<Runnable> replay;
+
+    private volatile boolean ready;
+
+    public PetSearchIndex(PetRepository petRepository,
+                          StringRedisTemplate redisTemplate,
+                          RedisMessageListenerContainer cacheInvalidationListener,
+                          @Value("${petconnect.search.pet-index.enabled:true}") boolean enabled) {
+        this.petRepository = petRepository;
+        this.redisTemplate = redisTemplate;
+        this.cacheInvalidationListener = cacheInvalidationListener;
+        this.enabled = enabled;
+    }
+
+    @PostConstruct
+    void subscribe() {
+        if (enabled) {
+            cacheInvalidationListener.addMessageListener(this, new ChannelTopic(TwoTierCacheManager.CHANNEL));
+        }
+    }
+
+    /**
+     * Loads every pet into the index. Runs after startup data initialization and
+     * then periodically to pick up changes whose announcement did not arrive.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${petconnect.search.pet-index.refresh-interval:10m}",
+            initialDelayString = "${petconnect.search.pet-index.refresh-interval:10m}")
+    public void rebuild() {
+        if (!enabled) {
+            logger.info("Pet search index is disabled, pet searches will use the database");
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            replay = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<Pet> pets;
+        try {
+            pets = petRepository.findAll();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                replay = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            clear();
+            pets.forEach(pet -> add(PetDocument.of(pet)));
+            List<Runnable> pending = replay;
+            replay = null;
+            pending.forEach(Runnable::run);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Pet search index built with {} pets", pets.size());
+    }
+
+    /**
+     * @return true if the index has been built and can answer queries.
+     */
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    /**
+     * Adds or replaces a pet in the index. When called inside a transaction the
+     * change is applied after commit so rolled back writes never become visible.
+     *
+     * @param pet - the saved pet, must have an ID.
+     */
+    public void index(Pet pet) {
+        indexAll(pet != null ? List.of(pet) : List.of());
+    }
+
+    /**
+     * Adds or replaces many pets with one announcement to the other nodes, after
+     * commit when inside a transaction.
+     *
+     * @param pets - the saved pets, pets without an ID are skipped.
+     */
+    public void indexAll(Collection<Pet> pets) {
+        if (!enabled) {
+            return;
+        }
+        List<PetDocument> documents = pets.stream()
+                .filter(pet -> pet.getId() != null)
+                .map(PetDocument::of)
+                .toList();
+        if (documents.isEmpty()) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> {
+            apply(() -> documents.forEach(this::upsert0));
+            publish(documents.stream().map(PetDocument::id).toList());
+        });
+    }
+
+    /**
+     * Removes a pet from the index, after commit when inside a transaction.
+     *
+     * @param id - the ID of the removed pet.
+     */
+    public void remove(Long id) {
+        if (!enabled || id == null) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> {
+            removeNow(List.of(id));
+            publish(List.of(id));
+        });
+    }
+
+    // Reloads the pets another node announced, the database decides whether they still exist.
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\n", 3);
+        if (parts.length < 3 || parts[0].equals(nodeId) || !parts[1].equals(MESSAGE_NAME)) {
+            return;
+        }
+        List<Long> ids;
+        try {
+            ids = Arrays.stream(parts[2].split(",")).map(Long::valueOf).toList();
+        } catch (NumberFormatException e) {
+            logger.warn("Ignoring malformed pet index announcement: {}", parts[2]);
+            return;
+        }
+
+        List<PetDocument> found = petRepository.findAllById(ids).stream().map(PetDocument::of).toList();
+        Set<Long> missing = new HashSet<>(ids);
+        found.forEach(document -> missing.remove(document.id()));
+        apply(() -> {
+            found.forEach(this::upsert0);
+            missing.forEach(this::remove0);
+        });
+    }
+
+    /**
+     * Drops IDs that turned out to no longer exist in the database, e.g. pets
+     * removed through a cascading user delete.
+     *
+     * @param ids - the stale pet IDs.
+     */
+    public void evictStale(Collection<Long> ids) {
+        if (!ids.isEmpty()) {
+            logger.debug("Evicting {} stale pet(s) from search index", ids.size());
+            removeNow(ids);
+        }
+    }
+
+    /**
+     * Finds the IDs of all pets matching the filter, in ascending ID order.
+     *
+     * @param filter - the filter criteria, may be null or empty.
+     * @return the matching pet IDs.
+     */
+    public List<Long> search(PetFilter filter) {
+        lock.readLock().lock();
+        try {
+            Collection<Long> candidates = candidates(filter);
+            List<Long> result = new ArrayList<>();
+            for (Long id : candidates) {
+                PetDocument document = documents.get(id);
+                if (document != null && document.matches(filter)) {
+                    result.add(id);
+                }
+            }
+            Collections.sort(result);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of indexed pets.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Picks the smallest posting list that applies to the filter.
+    private Collection<Long> candidates(PetFilter filter) {
+        if (filter == null || filter.isEmpty()) {
+            return documents.keySet();
+        }
+
+        List<Collection<Long>> postings = new ArrayList<>();
+        if (filter.getSpecies() != null) {
+            postings.add(speciesPostings.getOrDefault(filter.getSpecies(), Set.of()));
+        }
+        if (filter.getAvailable() != null) {
+            postings.add(availablePostings.getOrDefault(filter.getAvailable(), Set.of()));
+        }
+        if (filter.getNameContains() != null) {
+            postings.add(gramPostings(nameGrams, filter.getNameContains()));
+        }
+        if (filter.getLocation() != null) {
+            postings.add(gramPostings(locationGrams, filter.getLocation()));
+        }
+        if (filter.getMinAge() != null || filter.getMaxAge() != null) {
+            postings.add(agePostings(filter.getMinAge(), filter.getMaxAge()));
+        }
+
+        return postings.stream()
+                .min(Comparator.comparingInt(Collection::size))
+                .orElse(documents.keySet());
+    }
+
+    private Collection<Long> gramPostings(Map<String, Set<Long>> grams, String query) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) {
+            return documents.keySet();
+        }
+        if (normalized.length() <= GRAM_SIZE) {
+            return grams.getOrDefault(normalized, Set.of());
+        }
+        Set<Long> smallest = null;
+        for (int i = 0; i + GRAM_SIZE <= normalized.length(); i++) {
+            Set<Long> posting = grams.getOrDefault(normalized.substring(i, i + GRAM_SIZE), Set.of());
+            if (smallest == null || posting.size() < smallest.size()) {
+                smallest = posting;
+            }
+        }
+        return smallest;
+    }
+
+    private Collection<Long> agePostings(Integer minAge, Integer maxAge) {
+        int from = minAge != null ? minAge : Integer.MIN_VALUE;
+        int to = maxAge != null ? maxAge : Integer.MAX_VALUE;
+        if (from > to) {
+            return Set.of();
+        }
+        List<Long> ids = new ArrayList<>();
+        agePostings.subMap(from, true, to, true).values().forEach(ids::addAll);
+        return ids;
+    }
+
+    private void add(PetDocument document) {
+        documents.put(document.id(), document);
+        grams(document.name()).forEach(gram -> posting(nameGrams, gram).add(document.id()));
+        grams(document.location()).forEach(gram -> posting(locationGrams, gram).add(document.id()));
+        if (document.species() != null) {
+            posting(speciesPostings, document.species()).add(document.id());
+        }
+        posting(availablePostings, document.available()).add(document.id());
+        posting(agePostings, document.age()).add(document.id());
+    }
+
+    private void removeNow(Collection<Long> ids) {
+        List<Long> removed = List.copyOf(ids);
+        apply(() -> removed.forEach(this::remove0));
+    }
+
+    private void apply(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+            if (replay != null) {
+                replay.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void upsert0(PetDocument document) {
+        remove0(document.id());
+        add(document);
+    }
+
+    private void publish(List<Long> ids) {
+        String message = nodeId + "\n" + MESSAGE_NAME + "\n"
+                + ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+        try {
+            redisTemplate.convertAndSend(TwoTierCacheManager.CHANNEL, message);
+        } catch (RuntimeException e) {
+            logger.warn("Could not announce pet index change of {}, other nodes pick it up on their next rebuild", ids, e);
+        }
+    }
+
+    private void remove0(Long id) {
+        PetDocument document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        grams(document.name()).forEach(gram -> unlink(nameGrams, gram, id));
+        grams(document.location()).forEach(gram -> unlink(locationGrams, gram, id));
+        if (document.species() != null) {
+            unlink(speciesPostings, document.species(), id);
+        }
+        unlink(availablePostings, document.available(), id);
+        unlink(agePostings, document.age(), id);
+    }
+
+    private void clear() {
+        documents.clear();
+        nameGrams.clear();
+        locationGrams.clear();
+        speciesPostings.clear();
+        availablePostings.clear();
+        agePostings.clear();
+    }
+
+    private static <K> Set<Long> posting(Map<K, Set<Long>> postings, K key) {
+        return postings.computeIfAbsent(key, k -> new HashSet<>());
+    }
+
+    private static <K> void unlink(Map<K, Set<Long>> postings, K key, Long id) {
+        Set<Long> posting = postings.get(key);
+        if (posting != null && posting.remove(id) && posting.isEmpty()) {
+            postings.remove(key);
+        }
+    }
+
+    static Set<String> grams(String value) {
+        if (value == null) {
+            return Set.of();
+        }
+        String normalized = normalize(value);
+        Set<String> grams = new HashSet<>();
+        for (int length = 1; length <= GRAM_SIZE; length++) {
+            for (int i = 0; i + length <= normalized.length(); i++) {
+                grams.add(normalized.substring(i, i + length));
+            }
+        }
+        return grams;
+    }
+
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Immutable snapshot of the indexed attributes of a pet.
+     */
+    private record PetDocument(Long id, String name, String species, String location, int age, boolean available) {
+
+        static PetDocument of(Pet pet) {
+            return new PetDocument(pet.getId(), pet.getName(), pet.getSpecies(), pet.getLocation(),
+                    pet.getAge(), pet.isAvailable());
+        }
+
+        boolean matches(PetFilter filter) {
+            if (filter == null) {
+                return true;
+            }
+            return (filter.getSpecies() == null || filter.getSpecies().equals(species))
+                    && (filter.getAvailable() == null || filter.getAvailable() == available)
+                    && (filter.getMinAge() == null || age >= filter.getMinAge())
+                    && (filter.getMaxAge() == null || age <= filter.getMaxAge())
+                    && contains(location, filter.getLocation())
+                    && contains(name, filter.getNameContains());
+        }
+
+        private static boolean contains(String value, String query) {
+            if (query == null) {
+                return true;
+            }
+            return value != null && normalize(value).contains(normalize(query));
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package se.storkforge.petconnect.service.searchService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import se.storkforge.petconnect.dto.MeetUpSummary;
+import se.storkforge.petconnect.entity.MeetUp;
+import se.storkforge.petconnect.repository.MeetUpRepository;
+import se.storkforge.petconnect.util.GeoDistance;
+import se.storkforge.petconnect.util.StrTree;
+import se.storkforge.petconnect.util.TransactionHooks;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory R-tree of the meet-ups in the next {@code horizon}.
+ *
+ * Most searches look at the coming weeks, a small set compared with the whole
+ * meet_up history, so they are answered here without touching the database.
+ * The tree is STR packed and immutable. Changes made through MeetUpService go to a
+ * small overlay that is searched alongside it, and the tree is repacked once the
+ * overlay grows past {@value #REPACK_THRESHOLD} entries. A scheduled reload moves
+ * the horizon forward and picks up changes made outside this node.
+ *
+ * Searches starting before the last reload or ending after the horizon are not
+ * covered, callers fall back to the tile cache or the database.
+ */
+@Component
+public class UpcomingMeetUpIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(UpcomingMeetUpIndex.class);
+
+    static final int REPACK_THRESHOLD = 256;
+
+    private final MeetUpRepository meetUpRepository;
+    private final boolean enabled;
+    private final Duration horizon;
+    private final Clock clock;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, MeetUpSummary> entries = new HashMap<>();
+    private final Map<Long, MeetUpSummary> overlay = new HashMap<>();
+    private final Set<Long> removed = new HashSet<>();
+    private StrTree<MeetUpSummary> tree = StrTree.build(List.of(), MeetUpSummary::latitude, MeetUpSummary::longitude);
+
+    // changes applied while a reload reads the database, replayed on top of its result
+    private List<Runnable> replay;
+
+    private volatile LocalDateTime coveredFrom;
+    private volatile LocalDateTime coveredUntil;
+
+    public UpcomingMeetUpIndex(MeetUpRepository meetUpRepository,
+                               @Value("${petconnect.meetups.upcoming-index.enabled:true}") boolean enabled,
+                               @Value("${petconnect.meetups.upcoming-index.horizon:28d}") Duration horizon) {
+        this(meetUpRepository, enabled, horizon, Clock.systemDefaultZone());
+    }
+
+    UpcomingMeetUpIndex(MeetUpRepository meetUpRepository, boolean enabled, Duration horizon, Clock clock) {
+        this.meetUpRepository = meetUpRepository;
+        this.enabled = enabled;
+        this.horizon = horizon;
+        this.clock = clock;
+    }
+
+    /**
+     * Reloads the meet-ups between now and the horizon.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${petconnect.meetups.upcoming-index.refresh-interval:10m}",
+            initialDelayString = "${petconnect.meetups.upcoming-index.refresh-interval:10m}")
+    public void reload() {
+        if (!enabled) {
+            return;
+        }
+
+        LocalDateTime from = LocalDateTime.now(clock);
+        LocalDateTime until = from.plus(horizon);
+
+        lock.writeLock().lock();
+        try {
+            replay = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<MeetUpSummary> loaded;
+        try {
+            loaded = meetUpRepository.findSummariesBetween(from, until);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                replay = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            loaded.forEach(summary -> entries.put(summary.id(), summary));
+            coveredFrom = from;
+            coveredUntil = until;
+            repack();
+            List<Runnable> pending = replay;
+            replay = null;
+            pending.forEach(Runnable::run);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.debug("Upcoming meet-up index reloaded with {} meet-ups until {}", loaded.size(), until);
+    }
+
+    /**
+     * @return true if the index holds every meet-up in the time range.
+     */
+    public boolean covers(LocalDateTime start, LocalDateTime end) {
+        LocalDateTime from = coveredFrom;
+        LocalDateTime until = coveredUntil;
+        return enabled && from != null && !start.isBefore(from) && !end.isAfter(until);
+    }
+
+    /**
+     * Finds the meet-ups within the radius and time range, inclusive.
+     *
+     * @return the matching meet-ups ordered by date, or empty if the time range
+     * is outside the indexed window.
+     */
+    public Optional<List<MeetUpSummary>> search(double longitude, double latitude, double radiusInKm,
+                                                LocalDateTime start, LocalDateTime end) {
+        if (!covers(start, end)) {
+            return Optional.empty();
+        }
+
+        double latDelta = GeoDistance.latitudeDelta(radiusInKm);
+        double lonDelta = GeoDistance.longitudeDelta(latitude, radiusInKm);
+        List<MeetUpSummary> result = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            tree.search(latitude - latDelta, longitude - lonDelta, latitude + latDelta, longitude + lonDelta, summary -> {
+                if (!removed.contains(summary.id()) && !overlay.containsKey(summary.id())) {
+                    result.add(summary);
+                }
+            });
+            result.addAll(overlay.values());
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return Optional.of(result.stream()
+                .filter(summary -> !summary.dateTime().isBefore(start) && !summary.dateTime().isAfter(end))
+                .filter(summary -> GeoDistance.haversineKm(latitude, longitude, summary.latitude(), summary.longitude()) <= radiusInKm)
+                .sorted(Comparator.comparing(MeetUpSummary::dateTime).thenComparing(MeetUpSummary::id))
+                .toList());
+    }
+
+    /**
+     * Adds or replaces a meet-up, after commit when inside a transaction.
+     * Meet-ups outside the indexed window are dropped from the index.
+     *
+     * @param meetUp - the saved meet-up, with its participants loaded.
+     */
+    public void upsert(MeetUp meetUp) {
+        if (!enabled || meetUp.getId() == null || meetUp.getLocation() == null || meetUp.getDateTime() == null) {
+            return;
+        }
+        MeetUpSummary summary = new MeetUpSummary(meetUp.getId(), meetUp.getLocation(), meetUp.getDateTime(),
+                meetUp.getStatus(), meetUp.getParticipants().size());
+        TransactionHooks.afterCommit(() -> apply(() -> upsert0(summary)));
+    }
+
+    /**
+     * Removes a meet-up, after commit when inside a transaction.
+     *
+     * @param id - the ID of the removed meet-up.
+     */
+    public void remove(Long id) {
+        if (!enabled || id == null) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> apply(() -> remove0(id)));
+    }
+
+    /**
+     * @return the number of indexed meet-ups.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+            if (replay != null) {
+                replay.add(change);
+            }
+            if (overlay.size() + removed.size() > REPACK_THRESHOLD) {
+                repack();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void upsert0(MeetUpSummary summary) {
+        if (coveredFrom == null || summary.dateTime().isBefore(coveredFrom) || summary.dateTime().isAfter(coveredUntil)) {
+            remove0(summary.id());
+            return;
+        }
+        entries.put(summary.id(), summary);
+        overlay.put(summary.id(), summary);
+        removed.remove(summary.id());
+    }
+
+    private void remove0(Long id) {
+        if (entries.remove(id) != null) {
+            overlay.remove(id);
+            removed.add(id);
+        }
+    }
+
+    private void repack() {
+        tree = StrTree.build(entries.values(), MeetUpSummary::latitude, MeetUpSummary::longitude);
+        overlay.clear();
+        removed.clear();
+    }
+}
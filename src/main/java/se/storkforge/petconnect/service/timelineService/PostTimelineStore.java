@@ -0,0 +1,196 @@
+package se.storkforge.petconnect.service.timelineService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import se.storkforge.petconnect.entity.Post;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * Per-author post timelines kept in Redis as capped sorted sets of post IDs,
+ * scored by creation time. Posts are fanned out on write by PostService, so a
+ * profile page only has to read one range of IDs and load those posts.
+ *
+ * A timeline that is not in Redis (new author, expired, flushed) is reported as
+ * missing and rebuilt by the caller from the database. Writes never create a
+ * timeline, otherwise a single new post would look like a complete history.
+ * Removing a post drops the timeline instead of shrinking it, so a cached timeline
+ * always holds either the author's newest {@code capacity} posts or all of them.
+ *
+ * Every add and remove bumps a per-author version. A rebuild reads the version
+ * before querying the database and is only written if the version is unchanged and
+ * no timeline exists, so a post created or deleted during the rebuild is never lost
+ * or resurrected by a stale snapshot.
+ * Redis errors are logged and treated as a missing timeline.
+ */
+@Component
+public class PostTimelineStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostTimelineStore.class);
+
+    static final String KEY_PREFIX = "timeline:posts:";
+    static final String VERSION_KEY_PREFIX = "timeline:version:";
+
+    // Bumps the version, then adds the post to an existing timeline, trims it to capacity and refreshes its TTL.
+    private static final RedisScript<Long> ADD_IF_PRESENT = new DefaultRedisScript<>("""
+            redis.call('INCR', KEYS[2])
+            redis.call('PEXPIRE', KEYS[2], ARGV[4])
+            if redis.call('EXISTS', KEYS[1]) == 1 then
+                redis.call('ZADD', KEYS[1], ARGV[1], ARGV[2])
+                redis.call('ZREMRANGEBYRANK', KEYS[1], 0, -(tonumber(ARGV[3]) + 1))
+                redis.call('PEXPIRE', KEYS[1], ARGV[4])
+                return 1
+            end
+            return 0
+            """, Long.class);
+
+    // Bumps the version and drops the timeline, the next read rebuilds it.
+    private static final RedisScript<Long> REMOVE = new DefaultRedisScript<>("""
+            redis.call('INCR', KEYS[2])
+            redis.call('PEXPIRE', KEYS[2], ARGV[1])
+            return redis.call('DEL', KEYS[1])
+            """, Long.class);
+
+    // Writes a rebuilt timeline only if none exists and no post was added or removed since ARGV[1] was read.
+    private static final RedisScript<Long> FILL_IF_UNCHANGED = new DefaultRedisScript<>("""
+            local version = redis.call('GET', KEYS[2]) or ''
+            if version ~= ARGV[1] or redis.call('EXISTS', KEYS[1]) == 1 then
+                return 0
+            end
+            redis.call('ZADD', KEYS[1], unpack(ARGV, 3))
+            redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final int capacity;
+    private final Duration ttl;
+
+    public PostTimelineStore(StringRedisTemplate redisTemplate,
+                             @Value("${petconnect.timeline.capacity:500}") int capacity,
+                             @Value("${petconnect.timeline.ttl:7d}") Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.capacity = capacity;
+        this.ttl = ttl;
+    }
+
+    /**
+     * @return the maximum number of posts kept per author.
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Adds a new post to its author's timeline if the timeline is cached.
+     */
+    public void add(String username, Long postId, LocalDateTime createdAt) {
+        try {
+            redisTemplate.execute(ADD_IF_PRESENT, List.of(key(username), versionKey(username)),
+                    String.valueOf(score(createdAt)), String.valueOf(postId),
+                    String.valueOf(capacity), String.valueOf(ttl.toMillis()));
+        } catch (DataAccessException e) {
+            logger.warn("Failed to add post {} to timeline of {}", postId, username, e);
+        }
+    }
+
+    /**
+     * Drops the author's timeline after one of their posts was removed.
+     */
+    public void remove(String username, Long postId) {
+        try {
+            redisTemplate.execute(REMOVE, List.of(key(username), versionKey(username)), String.valueOf(ttl.toMillis()));
+        } catch (DataAccessException e) {
+            logger.warn("Failed to remove post {} from timeline of {}", postId, username, e);
+        }
+    }
+
+    /**
+     * Reads a range of post IDs, newest first.
+     *
+     * @param username - the author.
+     * @param offset - the number of posts to skip.
+     * @param size - the number of posts to return.
+     * @return the post IDs, or empty if the timeline is not cached.
+     */
+    public Optional<List<Long>> range(String username, long offset, int size) {
+        try {
+            String key = key(username);
+            Set<String> ids = redisTemplate.opsForZSet().reverseRange(key, offset, offset + size - 1);
+            if ((ids == null || ids.isEmpty()) && !Boolean.TRUE.equals(redisTemplate.hasKey(key))) {
+                return Optional.empty();
+            }
+            return Optional.of(ids == null ? List.of() : ids.stream().map(Long::valueOf).toList());
+        } catch (DataAccessException e) {
+            logger.warn("Failed to read timeline of {}", username, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Reads the author's timeline version, to be passed to {@link #fill} after
+     * loading the posts.
+     *
+     * @return the version, or null if Redis is unavailable.
+     */
+    public String version(String username) {
+        try {
+            String version = redisTemplate.opsForValue().get(versionKey(username));
+            return version != null ? version : "";
+        } catch (DataAccessException e) {
+            logger.warn("Failed to read timeline version of {}", username, e);
+            return null;
+        }
+    }
+
+    /**
+     * Stores a rebuilt timeline. Nothing is written if the timeline already exists
+     * or a post of the author was added or removed after the version was read.
+     *
+     * @param username - the author.
+     * @param version - the version read before loading the posts.
+     * @param newestPosts - the newest {@link #capacity()} posts of the author.
+     */
+    public void fill(String username, String version, List<Post> newestPosts) {
+        if (newestPosts.isEmpty() || version == null) {
+            return;
+        }
+        List<String> args = new ArrayList<>(2 + newestPosts.size() * 2);
+        args.add(version);
+        args.add(String.valueOf(ttl.toMillis()));
+        for (Post post : newestPosts) {
+            args.add(String.valueOf(score(post.getCreatedAt())));
+            args.add(String.valueOf(post.getId()));
+        }
+        try {
+            Long written = redisTemplate.execute(FILL_IF_UNCHANGED, List.of(key(username), versionKey(username)),
+                    args.toArray());
+            if (!Long.valueOf(1).equals(written)) {
+                logger.debug("Skipped filling timeline of {}, it changed during the rebuild", username);
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Failed to fill timeline of {}", username, e);
+        }
+    }
+
+    private static String key(String username) {
+        return KEY_PREFIX + username;
+    }
+
+    private static String versionKey(String username) {
+        return VERSION_KEY_PREFIX + username;
+    }
+
+    private static long score(LocalDateTime createdAt) {
+        return (createdAt != null ? createdAt : LocalDateTime.now()).toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
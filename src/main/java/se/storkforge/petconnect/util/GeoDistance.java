@@ -0,0 +1,44 @@
+package se.storkforge.petconnect.util;
+
+/**
+ * Great-circle distances on a spherical earth.
+ */
+public class GeoDistance {
+
+    public static final double EARTH_RADIUS_KM = 6371.0;
+
+    private GeoDistance() {
+    }
+
+    /**
+     * @return the Haversine distance between two points, in kilometers.
+     */
+    public static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
+                Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) *
+                        Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+        return EARTH_RADIUS_KM * c;
+    }
+
+    /**
+     * @return the latitude span, in degrees, of a circle with the given radius.
+     */
+    public static double latitudeDelta(double radiusKm) {
+        return Math.toDegrees(radiusKm / EARTH_RADIUS_KM);
+    }
+
+    /**
+     * @return the longitude span, in degrees, of a circle with the given radius
+     * at the given latitude. Returns 180 near the poles.
+     */
+    public static double longitudeDelta(double latitude, double radiusKm) {
+        double cos = Math.cos(Math.toRadians(latitude));
+        if (cos < 1e-6) {
+            return 180;
+        }
+        return Math.min(180, Math.toDegrees(radiusKm / (EARTH_RADIUS_KM * cos)));
+    }
+}
@@ -0,0 +1,149 @@
+package se.storkforge.petconnect.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal geohash implementation for tiling the map into cache cells.
+ *
+ * A geohash of precision p splits the world into a grid of 5p bits, interleaving
+ * longitude and latitude bits (longitude first). Every tile is a lat/lon rectangle.
+ */
+public class Geohash {
+
+    private static final String BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+
+    private Geohash() {
+    }
+
+    /**
+     * @param latitude - latitude in degrees.
+     * @param longitude - longitude in degrees.
+     * @param precision - number of characters, 1 to 12.
+     * @return the geohash of the tile containing the point.
+     */
+    public static String encode(double latitude, double longitude, int precision) {
+        if (precision < 1 || precision > 12)
+            throw new IllegalArgumentException("Precision must be between 1 and 12");
+
+        double minLat = -90, maxLat = 90, minLon = -180, maxLon = 180;
+        StringBuilder hash = new StringBuilder(precision);
+        boolean lonBit = true;
+        int bits = 0;
+        int value = 0;
+
+        while (hash.length() < precision) {
+            if (lonBit) {
+                double mid = (minLon + maxLon) / 2;
+                if (longitude >= mid) {
+                    value = (value << 1) | 1;
+                    minLon = mid;
+                } else {
+                    value <<= 1;
+                    maxLon = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (latitude >= mid) {
+                    value = (value << 1) | 1;
+                    minLat = mid;
+                } else {
+                    value <<= 1;
+                    maxLat = mid;
+                }
+            }
+            lonBit = !lonBit;
+            if (++bits == 5) {
+                hash.append(BASE32.charAt(value));
+                bits = 0;
+                value = 0;
+            }
+        }
+        return hash.toString();
+    }
+
+    /**
+     * @param hash - a geohash.
+     * @return the tile's bounds as {minLat, minLon, maxLat, maxLon}.
+     */
+    public static double[] bounds(String hash) {
+        double minLat = -90, maxLat = 90, minLon = -180, maxLon = 180;
+        boolean lonBit = true;
+        for (char c : hash.toCharArray()) {
+            int value = BASE32.indexOf(c);
+            if (value < 0)
+                throw new IllegalArgumentException("Invalid geohash: " + hash);
+            for (int bit = 4; bit >= 0; bit--) {
+                boolean set = ((value >> bit) & 1) == 1;
+                if (lonBit) {
+                    double mid = (minLon + maxLon) / 2;
+                    if (set) minLon = mid; else maxLon = mid;
+                } else {
+                    double mid = (minLat + maxLat) / 2;
+                    if (set) minLat = mid; else maxLat = mid;
+                }
+                lonBit = !lonBit;
+            }
+        }
+        return new double[]{minLat, minLon, maxLat, maxLon};
+    }
+
+    /**
+     * @return the height of a tile of the given precision, in degrees of latitude.
+     */
+    public static double tileHeight(int precision) {
+        return 180.0 / (1L << (5 * precision / 2));
+    }
+
+    /**
+     * @return the width of a tile of the given precision, in degrees of longitude.
+     */
+    public static double tileWidth(int precision) {
+        return 360.0 / (1L << (5 * precision - 5 * precision / 2));
+    }
+
+    /**
+     * Lists the tiles that together cover a bounding box. The box is clamped to
+     * valid coordinates, boxes crossing the antimeridian are not split.
+     *
+     * @return the geohashes of all tiles intersecting the box.
+     */
+    public static List<String> covering(double minLat, double minLon, double maxLat, double maxLon, int precision) {
+        double height = tileHeight(precision);
+        double width = tileWidth(precision);
+
+        int fromRow = row(clamp(minLat, -90, 90), height, -90);
+        int toRow = row(clamp(maxLat, -90, 90), height, -90);
+        int fromCol = row(clamp(minLon, -180, 180), width, -180);
+        int toCol = row(clamp(maxLon, -180, 180), width, -180);
+
+        List<String> tiles = new ArrayList<>();
+        for (int r = fromRow; r <= toRow; r++) {
+            for (int c = fromCol; c <= toCol; c++) {
+                tiles.add(encode(-90 + (r + 0.5) * height, -180 + (c + 0.5) * width, precision));
+            }
+        }
+        return tiles;
+    }
+
+    /**
+     * Counts the tiles {@link #covering} would return without building them.
+     */
+    public static long coveringSize(double minLat, double minLon, double maxLat, double maxLon, int precision) {
+        double height = tileHeight(precision);
+        double width = tileWidth(precision);
+        long rows = row(clamp(maxLat, -90, 90), height, -90) - row(clamp(minLat, -90, 90), height, -90) + 1L;
+        long cols = row(clamp(maxLon, -180, 180), width, -180) - row(clamp(minLon, -180, 180), width, -180) + 1L;
+        return rows * cols;
+    }
+
+    // index of the grid cell containing value, the upper edge belongs to the last cell
+    private static int row(double value, double size, double origin) {
+        int last = (int) Math.round((-2 * origin) / size) - 1;
+        return Math.min((int) Math.floor((value - origin) / size), last);
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
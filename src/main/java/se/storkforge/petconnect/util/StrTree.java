@@ -0,0 +1,164 @@
+package se.storkforge.petconnect.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Immutable R-tree over points, bulk loaded with Sort-Tile-Recursive packing.
+ *
+ * STR sorts the points into vertical slices by longitude and then into runs by
+ * latitude, which gives full, barely overlapping nodes. The tree cannot be
+ * modified after it is built; callers rebuild it when enough changes pile up.
+ *
+ * @param <T> the type of the indexed items.
+ */
+public class StrTree<T> {
+
+    static final int NODE_CAPACITY = 16;
+
+    private final Node<T> root;
+    private final int size;
+
+    private StrTree(Node<T> root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Builds a tree over the items.
+     *
+     * @param items - the items to index.
+     * @param latitude - extracts the latitude of an item.
+     * @param longitude - extracts the longitude of an item.
+     * @return the packed tree.
+     */
+    public static <T> StrTree<T> build(Collection<T> items, ToDoubleFunction<T> latitude, ToDoubleFunction<T> longitude) {
+        if (items.isEmpty()) {
+            return new StrTree<>(null, 0);
+        }
+
+        List<Node<T>> level = new ArrayList<>();
+        for (List<T> run : pack(new ArrayList<>(items), latitude, longitude)) {
+            level.add(Node.leaf(run, latitude, longitude));
+        }
+        while (level.size() > 1) {
+            List<Node<T>> parents = new ArrayList<>();
+            for (List<Node<T>> run : pack(level, Node::centerLat, Node::centerLon)) {
+                parents.add(Node.branch(run));
+            }
+            level = parents;
+        }
+        return new StrTree<>(level.getFirst(), items.size());
+    }
+
+    // splits the elements into runs of at most NODE_CAPACITY, slicing by longitude then latitude
+    private static <E> List<List<E>> pack(List<E> elements, ToDoubleFunction<E> latitude, ToDoubleFunction<E> longitude) {
+        int nodeCount = (elements.size() + NODE_CAPACITY - 1) / NODE_CAPACITY;
+        int sliceCount = (int) Math.ceil(Math.sqrt(nodeCount));
+        int sliceSize = sliceCount * NODE_CAPACITY;
+
+        elements.sort(Comparator.comparingDouble(longitude));
+        List<List<E>> runs = new ArrayList<>(nodeCount);
+        for (int sliceStart = 0; sliceStart < elements.size(); sliceStart += sliceSize) {
+            List<E> slice = new ArrayList<>(elements.subList(sliceStart, Math.min(sliceStart + sliceSize, elements.size())));
+            slice.sort(Comparator.comparingDouble(latitude));
+            for (int runStart = 0; runStart < slice.size(); runStart += NODE_CAPACITY) {
+                runs.add(slice.subList(runStart, Math.min(runStart + NODE_CAPACITY, slice.size())));
+            }
+        }
+        return runs;
+    }
+
+    /**
+     * Visits every item inside the bounding box, edges included.
+     */
+    public void search(double minLat, double minLon, double maxLat, double maxLon, Consumer<T> visitor) {
+        if (root != null) {
+            root.search(minLat, minLon, maxLat, maxLon, visitor);
+        }
+    }
+
+    /**
+     * @return the number of indexed items.
+     */
+    public int size() {
+        return size;
+    }
+
+    private static final class Node<T> {
+        private final double minLat, minLon, maxLat, maxLon;
+        private final List<Node<T>> children;
+        private final List<T> items;
+        private final double[] itemLats;
+        private final double[] itemLons;
+
+        private Node(double minLat, double minLon, double maxLat, double maxLon,
+                     List<Node<T>> children, List<T> items, double[] itemLats, double[] itemLons) {
+            this.minLat = minLat;
+            this.minLon = minLon;
+            this.maxLat = maxLat;
+            this.maxLon = maxLon;
+            this.children = children;
+            this.items = items;
+            this.itemLats = itemLats;
+            this.itemLons = itemLons;
+        }
+
+        static <T> Node<T> leaf(List<T> run, ToDoubleFunction<T> latitude, ToDoubleFunction<T> longitude) {
+            double[] lats = new double[run.size()];
+            double[] lons = new double[run.size()];
+            double minLat = Double.POSITIVE_INFINITY, minLon = Double.POSITIVE_INFINITY;
+            double maxLat = Double.NEGATIVE_INFINITY, maxLon = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < run.size(); i++) {
+                lats[i] = latitude.applyAsDouble(run.get(i));
+                lons[i] = longitude.applyAsDouble(run.get(i));
+                minLat = Math.min(minLat, lats[i]);
+                maxLat = Math.max(maxLat, lats[i]);
+                minLon = Math.min(minLon, lons[i]);
+                maxLon = Math.max(maxLon, lons[i]);
+            }
+            return new Node<>(minLat, minLon, maxLat, maxLon, null, List.copyOf(run), lats, lons);
+        }
+
+        static <T> Node<T> branch(List<Node<T>> run) {
+            double minLat = Double.POSITIVE_INFINITY, minLon = Double.POSITIVE_INFINITY;
+            double maxLat = Double.NEGATIVE_INFINITY, maxLon = Double.NEGATIVE_INFINITY;
+            for (Node<T> child : run) {
+                minLat = Math.min(minLat, child.minLat);
+                maxLat = Math.max(maxLat, child.maxLat);
+                minLon = Math.min(minLon, child.minLon);
+                maxLon = Math.max(maxLon, child.maxLon);
+            }
+            return new Node<>(minLat, minLon, maxLat, maxLon, List.copyOf(run), null, null, null);
+        }
+
+        double centerLat() {
+            return (minLat + maxLat) / 2;
+        }
+
+        double centerLon() {
+            return (minLon + maxLon) / 2;
+        }
+
+        void search(double qMinLat, double qMinLon, double qMaxLat, double qMaxLon, Consumer<T> visitor) {
+            if (qMinLat > maxLat || qMaxLat < minLat || qMinLon > maxLon || qMaxLon < minLon) {
+                return;
+            }
+            if (items != null) {
+                for (int i = 0; i < items.size(); i++) {
+                    if (itemLats[i] >= qMinLat && itemLats[i] <= qMaxLat && itemLons[i] >= qMinLon && itemLons[i] <= qMaxLon) {
+                        visitor.accept(items.get(i));
+                    }
+                }
+                return;
+            }
+            for (Node<T> child : children) {
+                child.search(qMinLat, qMinLon, qMaxLat, qMaxLon, visitor);
+            }
+        }
+    }
+}
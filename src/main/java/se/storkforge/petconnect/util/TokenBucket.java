@@ -0,0 +1,99 @@
+package se.storkforge.petconnect.util;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Thread-safe token bucket. Tokens refill continuously at a fixed rate up to
+ * the burst capacity.
+ *
+ * {@link #reserve()} always takes a token, possibly ahead of time, and tells the
+ * caller how long to wait before using it. Callers are therefore served in
+ * arrival order and the long-run rate never exceeds the configured one.
+ * {@link #reserve(long)} does the same but leaves the bucket untouched when the
+ * wait would be longer than the caller is willing to wait.
+ */
+public class TokenBucket {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final double capacity;
+    private final double nanosPerToken;
+    private final LongSupplier clock;
+
+    private double tokens;
+    private long lastRefill;
+
+    /**
+     * @param ratePerSecond - tokens added per second, must be positive.
+     * @param burst - maximum number of tokens that can be saved up.
+     */
+    public TokenBucket(double ratePerSecond, int burst) {
+        this(ratePerSecond, burst, System::nanoTime);
+    }
+
+    TokenBucket(double ratePerSecond, int burst, LongSupplier clock) {
+        if (ratePerSecond <= 0)
+            throw new IllegalArgumentException("Rate must be positive");
+        if (burst < 1)
+            throw new IllegalArgumentException("Burst must be at least 1");
+
+        this.capacity = burst;
+        this.nanosPerToken = NANOS_PER_SECOND / ratePerSecond;
+        this.clock = clock;
+        this.tokens = burst;
+        this.lastRefill = clock.getAsLong();
+    }
+
+    /**
+     * Takes one token.
+     *
+     * @return nanoseconds the caller has to wait before the token is valid, 0 if it can proceed now.
+     */
+    public synchronized long reserve() {
+        refill();
+        tokens -= 1;
+        return waitUntilValid();
+    }
+
+    /**
+     * Takes one token if it becomes valid within the given time. Otherwise no token
+     * is taken, so rejected callers do not push the backlog further out.
+     *
+     * @param maxWaitNanos - the longest the caller is willing to wait.
+     * @return nanoseconds the caller has to wait before the token is valid, or -1 if no token was taken.
+     */
+    public synchronized long reserve(long maxWaitNanos) {
+        refill();
+        tokens -= 1;
+        long wait = waitUntilValid();
+        if (wait > maxWaitNanos) {
+            tokens += 1;
+            return -1;
+        }
+        return wait;
+    }
+
+    /**
+     * Takes one token only if it is available right now.
+     *
+     * @return true if a token was taken.
+     */
+    public synchronized boolean tryAcquire() {
+        refill();
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    private long waitUntilValid() {
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens * nanosPerToken);
+    }
+
+    private void refill() {
+        long now = clock.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) / nanosPerToken);
+        lastRefill = now;
+    }
+}
@@ -0,0 +1,5 @@
+-- H2 has no pg_trgm, keep the version in step with plain indexes so the
+-- same queries run in tests.
+CREATE INDEX IF NOT EXISTS idx_pet_name ON pet (name);
+
+CREATE INDEX IF NOT EXISTS idx_pet_location ON pet (location);
@@ -0,0 +1,11 @@
+-- H2 has no PostGIS, so only the table and the time index are created here.
+CREATE TABLE IF NOT EXISTS meet_up
+(
+    id        BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    date_time TIMESTAMP(6),
+    location  GEOMETRY(POINT, 4326),
+    status    VARCHAR(255),
+    CONSTRAINT meet_up_pkey PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_meet_up_date_time ON meet_up (date_time);
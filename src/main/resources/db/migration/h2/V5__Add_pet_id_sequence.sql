@@ -0,0 +1,2 @@
+-- Same sequence as on PostgreSQL. H2 databases start empty, so the first block starts at 1.
+CREATE SEQUENCE IF NOT EXISTS pet_id_seq START WITH 50 INCREMENT BY 50;
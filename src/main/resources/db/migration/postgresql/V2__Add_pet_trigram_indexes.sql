@@ -0,0 +1,9 @@
+-- Trigram indexes backing the substring filters in PetSpecification.
+-- lower(column) LIKE '%value%' can use these, a plain B-tree index cannot.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_pet_name_trgm
+    ON pet USING gin (lower(name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_pet_location_trgm
+    ON pet USING gin (lower(location) gin_trgm_ops);
@@ -0,0 +1,27 @@
+-- Spatial and time indexes for the meet-up searches in MeetUpRepository.
+CREATE EXTENSION IF NOT EXISTS postgis;
+
+-- meet_up is otherwise created by Hibernate, which runs after Flyway.
+-- Create it here on a fresh database so the indexes below have a table to go on.
+CREATE TABLE IF NOT EXISTS meet_up
+(
+    id        BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    date_time TIMESTAMP(6),
+    location  geometry(Point, 4326),
+    status    VARCHAR(255),
+    CONSTRAINT meet_up_pkey PRIMARY KEY (id)
+);
+
+-- ST_DWithin on geography takes the radius in meters. The queries cast
+-- location::geography exactly like this expression so the index is used.
+CREATE INDEX IF NOT EXISTS idx_meet_up_location_geog
+    ON meet_up USING gist ((location::geography));
+
+-- Bounding box lookups (location && envelope) for the tile cache stay on geometry.
+CREATE INDEX IF NOT EXISTS idx_meet_up_location
+    ON meet_up USING gist (location);
+
+-- B-tree rather than BRIN: meet-ups are planned for arbitrary future dates,
+-- so date_time does not follow the physical row order BRIN relies on.
+CREATE INDEX IF NOT EXISTS idx_meet_up_date_time
+    ON meet_up (date_time);
@@ -0,0 +1,3 @@
+-- Species lookups page by ID within one species (getPetsBySpecies and the
+-- species filter), the composite index serves both the match and the order.
+CREATE INDEX IF NOT EXISTS idx_pet_species_id ON pet (species, id);
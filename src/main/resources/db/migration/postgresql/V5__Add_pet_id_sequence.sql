@@ -0,0 +1,7 @@
+-- Pet IDs come from this sequence instead of the identity column, so Hibernate can
+-- batch inserts. The pooled optimizer hands out the 50 IDs up to each value it reads,
+-- so the increment must match allocationSize on Pet.
+CREATE SEQUENCE IF NOT EXISTS pet_id_seq INCREMENT BY 50;
+
+-- The first value read is the top of the first block, which then starts right after the existing pets.
+SELECT setval('pet_id_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM pet), false);
@@ -0,0 +1,73 @@
+package se.storkforge.petconnect.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.redis.serializer.SerializationException;
+import se.storkforge.petconnect.dto.MeetUpSummary;
+import se.storkforge.petconnect.entity.Pet;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheValueCodecTest {
+
+    private final CacheValueCodec codec = new CacheValueCodec()
+            .register("pet", CachedPet.VERSION, CachedPet.class)
+            .register("participant", CachedParticipant.VERSION, CachedParticipant.class)
+            .register("meetUpSummary", MeetUpSummary.VERSION, MeetUpSummary.class);
+
+    @Test
+    void roundTrip_shouldRestoreRecord() {
+        CachedPet pet = new CachedPet(1L, "Buddy", "Dog", true, 3, "Gothenburg", null, 7L);
+
+        byte[] bytes = codec.serialize(pet);
+
+        assertTrue(new String(bytes, StandardCharsets.UTF_8).startsWith("pet@1\n"));
+        assertEquals(pet, codec.deserialize(bytes));
+    }
+
+    @Test
+    void roundTrip_shouldRestoreListsAndDates() {
+        List<MeetUpSummary> summaries = List.of(
+                new MeetUpSummary(1L, 57.7, 11.97, LocalDateTime.of(2025, 4, 14, 12, 0), "PLANNED", 2),
+                new MeetUpSummary(2L, 57.8, 11.98, LocalDateTime.of(2025, 4, 15, 9, 30), "PLANNED", 0));
+
+        assertEquals(summaries, codec.deserialize(codec.serialize(summaries)));
+        assertEquals(List.of(), codec.deserialize(codec.serialize(List.of())));
+    }
+
+    @Test
+    void deserialize_otherVersion_shouldBeAMiss() {
+        byte[] bytes = codec.serialize(new CachedParticipant(1L, "user", "user@example.com"));
+
+        CacheValueCodec bumped = new CacheValueCodec().register("participant", 2, CachedParticipant.class);
+
+        assertNull(bumped.deserialize(bytes));
+    }
+
+    @Test
+    void deserialize_unknownOrCorruptValue_shouldBeAMiss() {
+        assertNull(codec.deserialize("owner@1\n{}".getBytes(StandardCharsets.UTF_8)));
+        assertNull(codec.deserialize("pet@1\n{not json".getBytes(StandardCharsets.UTF_8)));
+        assertNull(codec.deserialize(new byte[]{(byte) 0xac, (byte) 0xed, 0, 5}));
+    }
+
+    @Test
+    void roundTrip_shouldKeepCachedNulls() {
+        assertSame(NullValue.INSTANCE, codec.deserialize(codec.serialize(NullValue.INSTANCE)));
+    }
+
+    @Test
+    void serialize_entity_shouldBeRejected() {
+        assertThrows(SerializationException.class, () -> codec.serialize(new Pet()));
+        assertThrows(SerializationException.class, () -> codec.serialize(List.of(new Pet())));
+    }
+
+    @Test
+    void register_duplicateName_shouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> codec.register("pet", 1, CachedUser.class));
+    }
+}
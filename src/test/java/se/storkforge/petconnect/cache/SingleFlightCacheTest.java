@@ -0,0 +1,202 @@
+package se.storkforge.petconnect.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightCacheTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong();
+    private final ConcurrentMapCache delegate = new ConcurrentMapCache("petCache", false);
+
+    private SingleFlightCache cache(double beta, double random) {
+        return new SingleFlightCache(delegate, new LoadPolicy(Duration.ofSeconds(10), beta), Runnable::run,
+                clock::get, () -> random);
+    }
+
+    @Test
+    void get_concurrentMisses_shouldRunLoaderOnce() throws Exception {
+        SingleFlightCache cache = cache(0, 0.5);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> cache.get(1L, () -> {
+            loads.incrementAndGet();
+            started.countDown();
+            release.await();
+            return "Buddy";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> cache.get(1L, () -> {
+            loads.incrementAndGet();
+            return "Max";
+        }));
+        Thread.sleep(50);
+        release.countDown();
+
+        assertEquals("Buddy", first.get(5, TimeUnit.SECONDS));
+        assertEquals("Buddy", second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.loadCount());
+    }
+
+    @Test
+    void get_loaderFails_shouldThrowAndCacheNothing() {
+        SingleFlightCache cache = cache(0, 0.5);
+
+        Cache.ValueRetrievalException e = assertThrows(Cache.ValueRetrievalException.class,
+                () -> cache.get(1L, () -> { throw new Exception("database down"); }));
+
+        assertEquals("database down", e.getCause().getMessage());
+        assertNull(delegate.get(1L));
+        assertEquals("Buddy", cache.get(1L, () -> "Buddy"));
+    }
+
+    @Test
+    void get_nullResult_shouldNotBeStoredWhenDelegateRejectsNulls() {
+        SingleFlightCache cache = cache(0, 0.5);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertNull(cache.get(1L, () -> { loads.incrementAndGet(); return null; }));
+        assertNull(cache.get(1L, () -> { loads.incrementAndGet(); return null; }));
+
+        assertEquals(2, loads.get());
+        assertNull(delegate.get(1L));
+    }
+
+    @Test
+    void get_hitCloseToExpiry_shouldRefreshEarly() {
+        SingleFlightCache cache = cache(1.0, 0.5);
+        // the load takes one second and expires ten seconds after it ends
+        cache.get(1L, () -> { clock.addAndGet(SECOND); return "Buddy"; });
+
+        clock.set(5 * SECOND);
+        assertEquals("Buddy", cache.get(1L, () -> fail("Refreshed too early")));
+        assertEquals(0, cache.earlyRefreshCount());
+
+        // 10.5s + 1s * -ln(0.5) passes the expiry at 11s
+        clock.set(10 * SECOND + SECOND / 2);
+        assertEquals("Buddy", cache.get(1L, () -> "Max"));
+
+        assertEquals(1, cache.earlyRefreshCount());
+        assertEquals(2, cache.loadCount());
+        assertEquals("Max", delegate.get(1L).get());
+    }
+
+    @Test
+    void get_earlyRefreshDisabled_shouldKeepEntryUntilItExpires() {
+        SingleFlightCache cache = cache(0, 0.5);
+        cache.get(1L, () -> { clock.addAndGet(SECOND); return "Buddy"; });
+
+        clock.set(10 * SECOND + SECOND / 2);
+
+        assertEquals("Buddy", cache.get(1L, () -> fail("Early refresh is disabled")));
+        assertEquals(0, cache.earlyRefreshCount());
+    }
+
+    @Test
+    void evict_shouldForgetLoadSoEntryIsNotRefreshed() {
+        SingleFlightCache cache = cache(1.0, 0.5);
+        cache.get(1L, () -> { clock.addAndGet(SECOND); return "Buddy"; });
+
+        cache.evict(1L);
+        delegate.put(1L, "Max");
+        clock.set(10 * SECOND + SECOND / 2);
+
+        assertEquals("Max", cache.get(1L, () -> fail("Entries not loaded here are not refreshed")));
+    }
+
+    @Test
+    void evict_duringLoad_shouldKeepLoadedValueOutOfCache() throws Exception {
+        SingleFlightCache cache = cache(0, 0.5);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> load = CompletableFuture.supplyAsync(() -> cache.get(1L, () -> {
+            started.countDown();
+            release.await();
+            return "Buddy";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        cache.evict(1L);
+        release.countDown();
+
+        assertEquals("Buddy", load.get(5, TimeUnit.SECONDS));
+        assertNull(delegate.get(1L));
+        assertEquals("Max", cache.get(1L, () -> "Max"));
+    }
+
+    @Test
+    void put_duringEarlyRefresh_shouldNotBeOverwritten() {
+        AtomicReference<Runnable> refresh = new AtomicReference<>();
+        SingleFlightCache cache = new SingleFlightCache(delegate, new LoadPolicy(Duration.ofSeconds(10), 1.0),
+                refresh::set, clock::get, () -> 0.5);
+        cache.get(1L, () -> { clock.addAndGet(SECOND); return "Buddy"; });
+        clock.set(10 * SECOND + SECOND / 2);
+        cache.get(1L, () -> "Stale");
+
+        cache.put(1L, "Max");
+        refresh.get().run();
+
+        assertEquals(1, cache.earlyRefreshCount());
+        assertEquals("Max", delegate.get(1L).get());
+    }
+
+    @Test
+    void get_miss_shouldLookUpDelegateOnce() {
+        CountingCache counting = new CountingCache();
+        SingleFlightCache cache = new SingleFlightCache(counting, new LoadPolicy(Duration.ofSeconds(10), 0),
+                Runnable::run, clock::get, () -> 0.5);
+
+        assertEquals("Buddy", cache.get(1L, () -> "Buddy"));
+
+        assertEquals(1, counting.lookups.get());
+    }
+
+    @Test
+    void get_flightFinishedAfterMiss_shouldUseStoredValue() {
+        CountingCache counting = new CountingCache();
+        SingleFlightCache cache = new SingleFlightCache(counting, new LoadPolicy(Duration.ofSeconds(10), 0),
+                Runnable::run, clock::get, () -> 0.5);
+        // another caller loads and stores the key between this caller's miss and its flight
+        counting.afterFirstLookup = () -> cache.get(1L, () -> "Buddy");
+
+        assertEquals("Buddy", cache.get(1L, () -> fail("The stored value should be used")));
+        assertEquals(1, cache.loadCount());
+    }
+
+    private static class CountingCache extends ConcurrentMapCache {
+
+        private final AtomicInteger lookups = new AtomicInteger();
+        private Runnable afterFirstLookup;
+
+        CountingCache() {
+            super("petCache", false);
+        }
+
+        @Override
+        public ValueWrapper get(Object key) {
+            lookups.incrementAndGet();
+            ValueWrapper wrapper = super.get(key);
+            Runnable hook = afterFirstLookup;
+            afterFirstLookup = null;
+            if (hook != null) {
+                hook.run();
+            }
+            return wrapper;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package se.storkforge.petconnect.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TwoTierCacheTest {
+
+    private ConcurrentMapCacheManager remote;
+    private StringRedisTemplate redisTemplate;
+    private TwoTierCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        remote = new ConcurrentMapCacheManager("petCache");
+        redisTemplate = mock(StringRedisTemplate.class);
+        cacheManager = new TwoTierCacheManager(remote, redisTemplate,
+                name -> new NearCachePolicy(100, Duration.ofMinutes(1)));
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(TwoTierCacheManager.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void get_remoteHit_shouldBeServedFromNearCacheAfterwards() {
+        CachedPet pet = new CachedPet(1L, "Buddy", "Dog", true, 3, null, null, null);
+        remote.getCache("petCache").put(1L, pet);
+        Cache cache = cacheManager.getCache("petCache");
+
+        assertSame(pet, cache.get(1L).get());
+        remote.getCache("petCache").clear();
+
+        assertSame(pet, cache.get(1L, CachedPet.class));
+    }
+
+    @Test
+    void get_withLoader_shouldLoadOnceAndKeepNearCopy() {
+        Cache cache = cacheManager.getCache("petCache");
+
+        assertEquals("Buddy", cache.get(1L, () -> "Buddy"));
+        assertEquals("Buddy", cache.get(1L, () -> fail("Loader should not run again")));
+        assertEquals("Buddy", remote.getCache("petCache").get(1L).get());
+    }
+
+    @Test
+    void evict_shouldClearBothTiersAndNotifyOtherNodes() {
+        Cache cache = cacheManager.getCache("petCache");
+        cache.put(1L, "Buddy");
+
+        cache.evict(1L);
+
+        assertNull(cache.get(1L));
+        assertNull(remote.getCache("petCache").get(1L));
+        verify(redisTemplate, times(2)).convertAndSend(TwoTierCacheManager.CHANNEL,
+                cacheManager.nodeId() + "\npetCache\n1");
+    }
+
+    @Test
+    void onMessage_fromOtherNode_shouldDropNearEntry() {
+        Cache cache = cacheManager.getCache("petCache");
+        cache.put(1L, "Buddy");
+        remote.getCache("petCache").put(1L, "Max");
+
+        cacheManager.onMessage(message("other-node\npetCache\n1"), null);
+
+        assertEquals("Max", cache.get(1L).get());
+    }
+
+    @Test
+    void onMessage_clearFromOtherNode_shouldDropAllNearEntries() {
+        Cache cache = cacheManager.getCache("petCache");
+        cache.put(1L, "Buddy");
+        cache.put(2L, "Max");
+        remote.getCache("petCache").clear();
+
+        cacheManager.onMessage(message("other-node\npetCache"), null);
+
+        assertNull(cache.get(1L));
+        assertNull(cache.get(2L));
+    }
+
+    @Test
+    void onMessage_ownMessage_shouldBeIgnored() {
+        Cache cache = cacheManager.getCache("petCache");
+        cache.put(1L, "Buddy");
+        remote.getCache("petCache").clear();
+
+        cacheManager.onMessage(message(cacheManager.nodeId() + "\npetCache\n1"), null);
+
+        assertEquals("Buddy", cache.get(1L).get());
+    }
+
+    @Test
+    void publishFailure_shouldNotFailTheWrite() {
+        doThrow(new IllegalStateException("Redis down")).when(redisTemplate).convertAndSend(eq(TwoTierCacheManager.CHANNEL), anyString());
+        Cache cache = cacheManager.getCache("petCache");
+
+        assertDoesNotThrow(() -> cache.evict(1L));
+    }
+
+    @Test
+    void counters_shouldTrackNearAndRemoteLookups() {
+        Cache cache = cacheManager.getCache("petCache");
+        cache.put(1L, "Buddy");
+        remote.getCache("petCache").put(2L, "Max");
+
+        cache.get(1L);
+        cache.get(2L);
+        cache.get(2L);
+        cache.get(3L);
+
+        CacheCounters counters = CacheCounters.of(cache);
+        assertEquals("petCache", counters.name());
+        assertEquals(2, counters.nearHits());
+        assertEquals(2, counters.nearMisses());
+        assertEquals(2, counters.nearSize());
+        assertEquals(0, counters.redisHits(), "only a RedisCache keeps remote statistics");
+        assertEquals(0.5, counters.hitRatio(), 0.0001);
+    }
+
+    @Test
+    void cachedNull_shouldBeServedFromNearCache() {
+        Cache cache = cacheManager.getCache("petCache");
+        cache.put(1L, null);
+        remote.getCache("petCache").clear();
+
+        assertNotNull(cache.get(1L));
+        assertNull(cache.get(1L).get());
+        assertNull(cache.get(1L, String.class));
+    }
+
+    @Test
+    void getCache_withoutNearEntries_shouldReturnRemoteCache() {
+        TwoTierCacheManager remoteOnly = new TwoTierCacheManager(remote, redisTemplate,
+                name -> new NearCachePolicy(0, Duration.ofMinutes(1)));
+
+        assertSame(remote.getCache("petCache"), remoteOnly.getCache("petCache"));
+    }
+}
@@ -0,0 +1,49 @@
+package se.storkforge.petconnect.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachePropertiesTest {
+
+    private static CacheProperties bind(Map<String, String> properties) {
+        return new Binder(new MapConfigurationPropertySource(properties))
+                .bindOrCreate("petconnect.cache", CacheProperties.class);
+    }
+
+    @Test
+    void policyFor_shouldOverrideDefaultsFieldByField() {
+        CacheProperties properties = bind(Map.of(
+                "petconnect.cache.defaults.ttl", "10m",
+                "petconnect.cache.defaults.near-max-size", "1000",
+                "petconnect.cache.caches[petCache].ttl", "30m",
+                "petconnect.cache.caches[petCache].cache-nulls", "true",
+                "petconnect.cache.caches[petCache].early-refresh-beta", "0"));
+
+        CacheProperties.Policy pet = properties.policyFor("petCache");
+        assertEquals(Duration.ofMinutes(30), pet.ttl());
+        assertEquals(1000L, pet.nearMaxSize());
+        assertEquals(Duration.ofSeconds(60), pet.nearTtl());
+        assertTrue(pet.cacheNulls());
+        assertEquals(0.0, pet.earlyRefreshBeta());
+
+        CacheProperties.Policy user = properties.policyFor("userCache");
+        assertEquals(Duration.ofMinutes(10), user.ttl());
+        assertFalse(user.cacheNulls());
+        assertEquals(1.0, user.earlyRefreshBeta());
+    }
+
+    @Test
+    void withoutProperties_shouldUseBuiltInDefaults() {
+        CacheProperties properties = bind(Map.of());
+
+        assertTrue(properties.nearEnabled());
+        assertEquals(new CacheProperties.Policy(Duration.ofMinutes(10), 10_000L, Duration.ofSeconds(60), false, null, 1.0),
+                properties.policyFor("petCache"));
+    }
+}
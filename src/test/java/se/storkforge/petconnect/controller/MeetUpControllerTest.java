@@ -16,7 +16,9 @@ import org.springframework.http.MediaType;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import se.storkforge.petconnect.cache.CachedParticipant;
 import se.storkforge.petconnect.dto.MeetUpRequestDTO;
+import se.storkforge.petconnect.dto.MeetUpSummary;
 import se.storkforge.petconnect.entity.MeetUp;
 import se.storkforge.petconnect.entity.User;
 import se.storkforge.petconnect.service.MeetUpService;
@@ -111,7 +113,8 @@ class MeetUpControllerTest {
         // Given
         LocalDateTime start = LocalDateTime.now().minusDays(1);
         LocalDateTime end = LocalDateTime.now().plusDays(2);
-        List<MeetUp> expectedMeetups = Collections.singletonList(testMeetUp);
+        List<MeetUpSummary> expectedMeetups = Collections.singletonList(new MeetUpSummary(
+                1L, testLatitude, testLongitude, testMeetUp.getDateTime(), "PLANNED", 2));
 
         when(meetUpService.searchMeetUps(
                 eq(testLongitude),
@@ -134,7 +137,9 @@ class MeetUpControllerTest {
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].longitude").value(testLongitude))
                 .andExpect(jsonPath("$[0].latitude").value(testLatitude))
-                .andExpect(jsonPath("$[0].status").value("PLANNED"));
+                .andExpect(jsonPath("$[0].status").value("PLANNED"))
+                .andExpect(jsonPath("$[0].participantCount").value(2))
+                .andExpect(jsonPath("$[0].participants").doesNotExist());
 
         verify(meetUpService).searchMeetUps(
                 eq(testLongitude),
@@ -207,15 +212,9 @@ class MeetUpControllerTest {
     @Test
     void testGetParticipants_shouldReturnListOfUsers() throws Exception {
         // Given
-        User user1 = new User();
-        user1.setId(1L);
-        user1.setEmail("user1@example.com");  // Använd email istället för username
-
-        User user2 = new User();
-        user2.setId(2L);
-        user2.setEmail("user2@example.com");
-
-        Set<User> participants = new HashSet<>(Arrays.asList(user1, user2));
+        List<CachedParticipant> participants = List.of(
+                new CachedParticipant(1L, "user1", "user1@example.com"),
+                new CachedParticipant(2L, "user2", "user2@example.com"));
         when(meetUpService.getParticipants(1L)).thenReturn(participants);
 
         // When & Then
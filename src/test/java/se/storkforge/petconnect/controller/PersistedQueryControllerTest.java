@@ -0,0 +1,123 @@
+package se.storkforge.petconnect.controller;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.graphql.GraphQlAutoConfiguration;
+import org.springframework.boot.autoconfigure.graphql.servlet.GraphQlWebMvcAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.graphql.server.WebGraphQlHandler;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import reactor.core.publisher.Mono;
+import se.storkforge.petconnect.config.GraphQlConfig;
+import se.storkforge.petconnect.graphql.PersistedQuery;
+import se.storkforge.petconnect.graphql.PersistedQueryStore;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// runs with Boot's GraphQL routes, which answer a plain GET /graphql with 405
+@SpringBootTest(classes = {GraphQlConfig.class, PersistedQueryController.class})
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, HttpMessageConvertersAutoConfiguration.class,
+        WebMvcAutoConfiguration.class, GraphQlAutoConfiguration.class, GraphQlWebMvcAutoConfiguration.class})
+@AutoConfigureMockMvc
+class PersistedQueryControllerTest {
+
+    private static final String QUERY = "{ getPetById(id: 1) { name } }";
+    private static final String HASH = PersistedQueryStore.sha256(QUERY);
+    private static final String EXTENSIONS = "{\"persistedQuery\":{\"version\":1,\"sha256Hash\":\"" + HASH + "\"}}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private WebGraphQlHandler graphQlHandler;
+
+    @MockitoBean
+    private PersistedQueryStore store;
+
+    @Test
+    void getPersistedQuery_shouldRunThroughWebGraphQlHandler() throws Exception {
+        when(store.find(HASH)).thenReturn(Optional.of(new PersistedQuery(QUERY, true)));
+        WebGraphQlResponse graphQlResponse = mock(WebGraphQlResponse.class);
+        when(graphQlResponse.getErrors()).thenReturn(List.of());
+        when(graphQlResponse.toMap()).thenReturn(Map.of("data", Map.of("getPetById", Map.of("name", "Buddy"))));
+        when(graphQlHandler.handleRequest(any())).thenReturn(Mono.just(graphQlResponse));
+
+        perform(get("/graphql")
+                .param("extensions", EXTENSIONS)
+                .param("variables", "{\"id\":1}")
+                .header("Authorization", "Bearer token"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=60, public"))
+                .andExpect(jsonPath("$.data.getPetById.name").value("Buddy"));
+
+        ArgumentCaptor<WebGraphQlRequest> captor = ArgumentCaptor.forClass(WebGraphQlRequest.class);
+        verify(graphQlHandler).handleRequest(captor.capture());
+        WebGraphQlRequest request = captor.getValue();
+        assertEquals(QUERY, request.getDocument());
+        assertEquals(Map.of("id", 1), request.getVariables());
+        assertFalse(request.getExtensions().containsKey("persistedQuery"));
+        assertEquals("Bearer token", request.getHeaders().getFirst("Authorization"));
+    }
+
+    @Test
+    void getPersistedQuery_unknownHash_shouldAskForRegistration() throws Exception {
+        when(store.find(HASH)).thenReturn(Optional.empty());
+
+        perform(get("/graphql").param("extensions", EXTENSIONS))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-store"))
+                .andExpect(jsonPath("$.errors[0].message").value("PersistedQueryNotFound"));
+        verifyNoInteractions(graphQlHandler);
+    }
+
+    @Test
+    void getPersistedQuery_withMalformedExtensions_shouldReturnBadRequest() throws Exception {
+        perform(get("/graphql").param("extensions", "{not json"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[0].extensions.code").value("BAD_REQUEST"));
+        verifyNoInteractions(store, graphQlHandler);
+    }
+
+    @Test
+    void getPersistedQuery_withMalformedVariables_shouldReturnBadRequest() throws Exception {
+        perform(get("/graphql").param("extensions", EXTENSIONS).param("variables", "[1,"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[0].extensions.code").value("BAD_REQUEST"));
+        verifyNoInteractions(store, graphQlHandler);
+    }
+
+    @Test
+    void getWithoutExtensions_shouldStillBeRejectedByBoot() throws Exception {
+        mockMvc.perform(get("/graphql").param("query", QUERY))
+                .andExpect(status().isMethodNotAllowed());
+        verifyNoInteractions(store, graphQlHandler);
+    }
+
+    // responses from the GraphQL handler are written asynchronously
+    private ResultActions perform(RequestBuilder request) throws Exception {
+        ResultActions actions = mockMvc.perform(request);
+        MvcResult result = actions.andReturn();
+        return result.getRequest().isAsyncStarted() ? mockMvc.perform(asyncDispatch(result)) : actions;
+    }
+}
@@ -18,14 +18,22 @@ import org.springframework.security.core.Authentication;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.multipart.MultipartFile;
+import se.storkforge.petconnect.cache.CachedPet;
+import se.storkforge.petconnect.dto.Connection;
+import se.storkforge.petconnect.dto.PetImportResult;
 import se.storkforge.petconnect.dto.PetInputDTO;
 import se.storkforge.petconnect.dto.PetUpdateInputDTO;
 import se.storkforge.petconnect.entity.Pet;
 import se.storkforge.petconnect.entity.User;
 import se.storkforge.petconnect.exception.PetNotFoundException;
+import se.storkforge.petconnect.service.PetExportService;
+import se.storkforge.petconnect.service.PetFileFormat;
 import se.storkforge.petconnect.service.PetFilter;
+import se.storkforge.petconnect.service.PetImportService;
 import se.storkforge.petconnect.service.PetService;
+import se.storkforge.petconnect.util.CursorCodec;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
 
@@ -45,6 +53,8 @@ public class PetControllerIntegrationTest {
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Mock private PetService petService;
+    @Mock private PetExportService petExportService;
+    @Mock private PetImportService petImportService;
     @Mock private Authentication authentication;
     @InjectMocks private PetController petController;
 
@@ -99,15 +109,32 @@ public class PetControllerIntegrationTest {
         assertNull(capturedFilter.getNameContains());
     }
 
+    @Test
+    void testScrollPets() throws Exception {
+        Connection<Pet> connection = Connection.of(List.of(testPet), 10,
+                pet -> CursorCodec.encodeId(pet.getId()), false, null);
+        when(petService.getPetsAfter(any(PetFilter.class), isNull(), eq(10), eq(false)))
+                .thenReturn(connection);
+
+        mockMvc.perform(get("/pets/scroll")
+                        .param("species", "Dog")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.edges[0].node.name").value("Buddy"))
+                .andExpect(jsonPath("$.pageInfo.hasNextPage").value(false))
+                .andExpect(jsonPath("$.pageInfo.endCursor").value(CursorCodec.encodeId(testPetId)));
+    }
+
     @Test
     void testGetPetById() throws Exception {
-        when(petService.getPetById(testPetId)).thenReturn(Optional.of(testPet));
+        when(petService.getCachedPet(testPetId)).thenReturn(Optional.of(CachedPet.of(testPet)));
 
         mockMvc.perform(get("/pets/{id}", testPetId)
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.name").value("Buddy"));
+                .andExpect(jsonPath("$.name").value("Buddy"))
+                .andExpect(jsonPath("$.ownerId").value(1));
     }
 
     @Test
@@ -128,6 +155,21 @@ public class PetControllerIntegrationTest {
                 .andExpect(jsonPath("$.name").value("Buddy"));
     }
 
+    @Test
+    void testImportPets() throws Exception {
+        when(authentication.getName()).thenReturn(testUsername);
+        when(petImportService.importPets(eq(PetFileFormat.CSV), any(InputStream.class), eq(testUsername)))
+                .thenReturn(new PetImportResult(1, 1, List.of(new PetImportResult.RowError(3, "Pet name cannot be empty"))));
+
+        mockMvc.perform(post("/pets/import")
+                        .contentType("text/csv; charset=UTF-8")
+                        .content("name,species\nBuddy,Dog\n,Dog\n")
+                        .principal(authentication))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(3));
+    }
+
     @Test
     void testUpdatePet() throws Exception {
         when(authentication.getName()).thenReturn(testUsername);
@@ -184,7 +226,7 @@ public class PetControllerIntegrationTest {
 
     @Test
     void testGetPetById_NotFound() throws Exception {
-        when(petService.getPetById(testPetId)).thenReturn(Optional.empty());
+        when(petService.getCachedPet(testPetId)).thenReturn(Optional.empty());
 
         mockMvc.perform(get("/pets/{id}", testPetId))
                 .andExpect(status().isNotFound());
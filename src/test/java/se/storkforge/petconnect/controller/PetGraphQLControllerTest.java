@@ -0,0 +1,64 @@
+package se.storkforge.petconnect.controller;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import se.storkforge.petconnect.entity.Pet;
+import se.storkforge.petconnect.entity.User;
+import se.storkforge.petconnect.service.PetService;
+import se.storkforge.petconnect.service.UserService;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PetGraphQLControllerTest {
+
+    @Mock
+    private PetService petService;
+
+    @Mock
+    private UserService userService;
+
+    @InjectMocks
+    private PetGraphQLController controller;
+
+    private static User user(Long id, String username) {
+        User user = new User(username, username + "@example.com", "password");
+        user.setId(id);
+        return user;
+    }
+
+    private static Pet pet(Long id, User owner) {
+        Pet pet = new Pet();
+        pet.setId(id);
+        pet.setName("Pet " + id);
+        pet.setOwner(owner);
+        return pet;
+    }
+
+    @Test
+    void owner_shouldLoadOwnersOfAllPetsInOneCall() {
+        User alice = user(1L, "alice");
+        User bob = user(2L, "bob");
+        Pet first = pet(10L, alice);
+        Pet second = pet(11L, alice);
+        Pet third = pet(12L, bob);
+        Pet stray = pet(13L, null);
+        when(userService.getUsersByIds(Set.of(1L, 2L))).thenReturn(Map.of(1L, alice, 2L, bob));
+
+        Map<Pet, User> owners = controller.owner(List.of(first, second, third, stray));
+
+        assertSame(alice, owners.get(first));
+        assertSame(alice, owners.get(second));
+        assertSame(bob, owners.get(third));
+        assertFalse(owners.containsKey(stray));
+        verify(userService, times(1)).getUsersByIds(any());
+    }
+}
@@ -29,8 +29,10 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import org.springframework.web.multipart.MultipartFile;
+import se.storkforge.petconnect.dto.Connection;
 import se.storkforge.petconnect.dto.PostInputDTO;
 import se.storkforge.petconnect.dto.PostResponseDTO;
+import se.storkforge.petconnect.exception.GlobalExceptionHandler;
 import se.storkforge.petconnect.service.PostService;
 
 class PostControllerTest {
@@ -83,12 +85,48 @@ class PostControllerTest {
         ;
     }
 
+    @Test
+    void testGetFeed() throws Exception {
+        Connection<PostResponseDTO> feed = Connection.of(List.of(testPost), 10, post -> "cursor-1", false, null);
+
+        when(postService.getFeed(null, 10)).thenReturn(feed);
+
+        mockMvc.perform(get("/api/posts/feed")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.edges[0].node.content", is("This is a test post")))
+                .andExpect(jsonPath("$.edges[0].cursor", is("cursor-1")))
+                .andExpect(jsonPath("$.pageInfo.hasNextPage", is(false)));
+    }
+
+    @Test
+    void testGetFeedWithInvalidCursorReturnsBadRequest() throws Exception {
+        when(postService.getFeed("tampered", 10)).thenThrow(new IllegalArgumentException("Invalid cursor"));
+        MockMvc globalAdvice = MockMvcBuilders.standaloneSetup(new PostController(postService))
+                .setControllerAdvice(new GlobalExceptionHandler()).build();
+
+        globalAdvice.perform(get("/api/posts/feed")
+                        .param("after", "tampered")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Invalid cursor"));
+    }
+
+    @Test
+    void testGetFeedWithTooLargePageReturnsBadRequest() throws Exception {
+        when(postService.getFeed(null, 500)).thenThrow(new IllegalArgumentException("Page size must be between 1 and 100"));
+
+        mockMvc.perform(get("/api/posts/feed")
+                        .param("size", "500"))
+                .andExpect(status().isBadRequest());
+    }
+
 
     @Test
     void testGetUserPosts() throws Exception {
         List<PostResponseDTO> posts = Arrays.asList(testPost);
 
-        when(postService.getUserPosts("testuser")).thenReturn(posts);
+        when(postService.getUserPosts("testuser", 0, 10)).thenReturn(posts);
 
         mockMvc.perform(get("/api/posts/user/testuser")
                         .accept(MediaType.APPLICATION_JSON))
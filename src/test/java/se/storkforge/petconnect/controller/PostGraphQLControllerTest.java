@@ -0,0 +1,56 @@
+package se.storkforge.petconnect.controller;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import se.storkforge.petconnect.dto.PostResponseDTO;
+import se.storkforge.petconnect.entity.User;
+import se.storkforge.petconnect.service.PostService;
+import se.storkforge.petconnect.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PostGraphQLControllerTest {
+
+    @Mock
+    private PostService postService;
+
+    @Mock
+    private UserService userService;
+
+    @InjectMocks
+    private PostGraphQLController controller;
+
+    @Test
+    void author_shouldLoadAuthorsOfAllPostsInOneCall() {
+        User alice = new User("alice", "alice@example.com", "password");
+        LocalDateTime now = LocalDateTime.now();
+        PostResponseDTO first = new PostResponseDTO(1L, "Hello", null, "alice", now);
+        PostResponseDTO second = new PostResponseDTO(2L, "Again", null, "alice", now);
+        PostResponseDTO orphan = new PostResponseDTO(3L, "Gone", null, "deleted", now);
+        when(userService.getUsersByUsernames(Set.of("alice", "deleted"))).thenReturn(Map.of("alice", alice));
+
+        Map<PostResponseDTO, User> authors = controller.author(List.of(first, second, orphan));
+
+        assertSame(alice, authors.get(first));
+        assertSame(alice, authors.get(second));
+        assertFalse(authors.containsKey(orphan));
+        verify(userService, times(1)).getUsersByUsernames(any());
+    }
+
+    @Test
+    void postsConnection_withoutFirst_shouldUseDefaultPageSize() {
+        controller.postsConnection(null, null);
+
+        verify(postService).getFeed(null, 10);
+    }
+}
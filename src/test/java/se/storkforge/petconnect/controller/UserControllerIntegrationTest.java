@@ -9,6 +9,7 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import se.storkforge.petconnect.cache.CachedUser;
 import se.storkforge.petconnect.entity.User;
 import se.storkforge.petconnect.exception.UserNotFoundException;
 import se.storkforge.petconnect.service.UserService;
@@ -82,19 +83,20 @@ public class UserControllerIntegrationTest {
 
     @Test
     void testGetUserByIdEndpoint() throws Exception {
-        when(userService.getUserById(1L)).thenReturn(testUser);
+        when(userService.getCachedUser(1L)).thenReturn(CachedUser.of(testUser));
 
         mockMvc.perform(get("/api/users/1")
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.username", is("testuser")))
-                .andExpect(jsonPath("$.email", is("test@example.com")));
+                .andExpect(jsonPath("$.email", is("test@example.com")))
+                .andExpect(jsonPath("$.password").doesNotExist());
     }
 
     @Test
     void testGetUserByIdNotFound() throws Exception {
-        when(userService.getUserById(1L)).thenThrow(new UserNotFoundException("Not found"));
+        when(userService.getCachedUser(1L)).thenThrow(new UserNotFoundException("Not found"));
 
         mockMvc.perform(get("/api/users/1"))
                 .andExpect(status().isNotFound());
@@ -0,0 +1,42 @@
+package se.storkforge.petconnect.graphql;
+
+import graphql.ExecutionInput;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.parser.Parser;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParsedDocumentCacheTest {
+
+    private final ParsedDocumentCache cache = new ParsedDocumentCache(10);
+
+    @Test
+    void sameQuery_shouldBeParsedOnce() throws Exception {
+        AtomicInteger parses = new AtomicInteger();
+        ExecutionInput input = ExecutionInput.newExecutionInput("{ getPetById(id: 1) { name } }").build();
+
+        PreparsedDocumentEntry first = cache.getDocumentAsync(input, in -> {
+            parses.incrementAndGet();
+            return new PreparsedDocumentEntry(Parser.parse(in.getQuery()));
+        }).get();
+        PreparsedDocumentEntry second = cache.getDocumentAsync(input, in -> fail("Should be cached")).get();
+
+        assertSame(first, second);
+        assertEquals(1, parses.get());
+    }
+
+    @Test
+    void invalidQuery_shouldNotBeKept() throws Exception {
+        ExecutionInput input = ExecutionInput.newExecutionInput("{ nope").build();
+
+        PreparsedDocumentEntry entry = cache.getDocumentAsync(input, in ->
+                new PreparsedDocumentEntry(GraphqlErrorBuilder.newError().message("Invalid syntax").build())).get();
+
+        assertTrue(entry.hasErrors());
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,76 @@
+package se.storkforge.petconnect.graphql;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class PersistedQueryStoreTest {
+
+    private static final String QUERY = "{ getPetById(id: 1) { name } }";
+
+    private StringRedisTemplate redisTemplate;
+    private ValueOperations<String, String> values;
+    private PersistedQueryStore store;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        values = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        store = new PersistedQueryStore(redisTemplate, 100, Duration.ofDays(7));
+    }
+
+    @Test
+    void sha256_shouldMatchApqClients() {
+        assertEquals("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855", PersistedQueryStore.sha256(""));
+    }
+
+    @Test
+    void register_shouldStoreLocallyAndInRedis() {
+        String hash = PersistedQueryStore.sha256(QUERY);
+
+        PersistedQuery registered = store.register(hash, QUERY);
+
+        assertTrue(registered.readOnly());
+        verify(values).set(PersistedQueryStore.KEY_PREFIX + hash, QUERY, Duration.ofDays(7));
+        assertEquals(Optional.of(registered), store.find(hash));
+        verify(values, never()).get(anyString());
+    }
+
+    @Test
+    void register_withWrongHash_shouldBeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> store.register(PersistedQueryStore.sha256("{ other }"), QUERY));
+        verifyNoInteractions(values);
+    }
+
+    @Test
+    void find_registeredOnOtherNode_shouldBeReadFromRedis() {
+        String mutation = "mutation { deletePet(id: 1) }";
+        String hash = PersistedQueryStore.sha256(mutation);
+        when(values.get(PersistedQueryStore.KEY_PREFIX + hash)).thenReturn(mutation);
+
+        PersistedQuery found = store.find(hash).orElseThrow();
+
+        assertEquals(mutation, found.document());
+        assertFalse(found.readOnly());
+        store.find(hash);
+        verify(values, times(1)).get(anyString());
+    }
+
+    @Test
+    void find_whenRedisFails_shouldReportNotFound() {
+        when(values.get(anyString())).thenThrow(new RedisConnectionFailureException("down"));
+
+        assertTrue(store.find(PersistedQueryStore.sha256(QUERY)).isEmpty());
+    }
+}
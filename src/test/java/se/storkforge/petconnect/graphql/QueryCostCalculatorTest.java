@@ -0,0 +1,81 @@
+package se.storkforge.petconnect.graphql;
+
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.analysis.MaxQueryDepthInstrumentation;
+import graphql.execution.instrumentation.ChainedInstrumentation;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.SchemaParser;
+import graphql.schema.idl.UnExecutableSchemaGenerator;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryCostCalculatorTest {
+
+    private static GraphQL graphQL;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        String sdl;
+        try (InputStream in = new ClassPathResource("graphql/schema.graphqls").getInputStream()) {
+            sdl = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        GraphQLSchema schema = UnExecutableSchemaGenerator.makeUnExecutableSchema(new SchemaParser().parse(sdl));
+        graphQL = GraphQL.newGraphQL(schema)
+                .instrumentation(new ChainedInstrumentation(List.of(
+                        new MaxQueryComplexityInstrumentation(2000, new QueryCostCalculator(100)),
+                        new MaxQueryDepthInstrumentation(15))))
+                .build();
+    }
+
+    private static boolean rejected(String query, String limit) {
+        ExecutionResult result = graphQL.execute(query);
+        return result.getErrors().stream().anyMatch(error -> error.getMessage().contains(limit));
+    }
+
+    @Test
+    void pageOfPetsWithOwners_shouldBeAccepted() {
+        assertFalse(rejected("{ getAllPets(page: 0, size: 100) { content { id name owner { username } } } }", "complexity"));
+    }
+
+    @Test
+    void hugePageSize_shouldBeRejected() {
+        assertTrue(rejected("{ getAllPets(page: 0, size: 100000) { content { id name } } }", "complexity"));
+        assertTrue(rejected("{ getAllUsers(page: 0, size: 5000) { content { id } } }", "complexity"));
+    }
+
+    @Test
+    void nestedUnboundedLists_shouldMultiply() {
+        // 100 pets, each with an owner whose up to 100 pets are listed
+        assertTrue(rejected("{ getAllPets(page: 0, size: 100) { content { owner { pets { id } } } } }", "complexity"));
+        assertFalse(rejected("{ getAllPets(page: 0, size: 5) { content { owner { pets { id } } } } }", "complexity"));
+    }
+
+    @Test
+    void connectionEdges_shouldUseFirstOfConnection() {
+        assertFalse(rejected("{ petsConnection(first: 50) { edges { node { id owner { id } } } } }", "complexity"));
+        assertTrue(rejected("{ petsConnection(first: 5000) { edges { node { id } } } }", "complexity"));
+    }
+
+    @Test
+    void deepQuery_shouldBeRejected() {
+        // introspection is free, so only the depth limit applies
+        String query = "{ __schema { types { fields { type" + " { ofType".repeat(14) + " { name }" + " }".repeat(14)
+                + " } } } }";
+        assertTrue(rejected(query, "depth"));
+    }
+
+    @Test
+    void introspection_shouldBeFree() {
+        assertFalse(rejected("{ __schema { types { name fields { name type { name ofType { name } } } } } }", "complexity"));
+    }
+}
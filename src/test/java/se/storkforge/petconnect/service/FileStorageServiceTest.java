@@ -11,6 +11,7 @@ import org.springframework.test.util.ReflectionTestUtils;
 import se.storkforge.petconnect.entity.Pet;
 import se.storkforge.petconnect.entity.User;
 import se.storkforge.petconnect.repository.PetRepository;
+import se.storkforge.petconnect.service.searchService.PetSearchIndex;
 import se.storkforge.petconnect.service.storageService.RestrictedFileStorageService;
 import se.storkforge.petconnect.util.OwnershipValidator;
 import se.storkforge.petconnect.util.PetOwnershipHelper;
@@ -45,6 +46,9 @@ class FileStorageServiceTest {
     @Mock
     private OwnershipValidator ownershipValidator; // Mock OwnershipValidator
 
+    @Mock
+    private PetSearchIndex petSearchIndex;
+
     @BeforeEach
     void setUp() throws IOException {
         // Create test owner user
@@ -81,7 +85,8 @@ class FileStorageServiceTest {
                 fileStorageService,
                 userService,
                 petOwnershipHelper,
-                ownershipValidator
+                ownershipValidator,
+                petSearchIndex
         );
 
         // Ensure directory exists
@@ -5,9 +5,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import se.storkforge.petconnect.dto.MailDeliveryStatus;
 
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -20,6 +30,15 @@ class MailServiceTest {
     @InjectMocks
     private MailService mailService;
 
+    private static SimpleMailMessage message(String to) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom("noreply@petconnect.se");
+        message.setTo(to);
+        message.setSubject("MeetUp Reminder");
+        message.setText("Don't forget the meet-up!");
+        return message;
+    }
+
     @Test
     void sendMeetUpNotification_validEmail_shouldSendMail() {
 
@@ -29,4 +48,62 @@ class MailServiceTest {
 
         verify(mailSender, times(1)).send(any(SimpleMailMessage.class));
     }
+
+    @Test
+    void sendBulk_shouldSendOneCallPerBatch() {
+        ReflectionTestUtils.setField(mailService, "batchSize", 2);
+
+        List<MailDeliveryStatus> statuses = mailService.sendBulk(List.of(
+                message("a@example.com"), message("b@example.com"), message("c@example.com")));
+
+        verify(mailSender, times(2)).send(any(SimpleMailMessage[].class));
+        assertEquals(3, statuses.size());
+        assertTrue(statuses.stream().allMatch(MailDeliveryStatus::sent));
+    }
+
+    @Test
+    void sendBulk_failedMessage_shouldOnlyFailThatRecipient() {
+        ReflectionTestUtils.setField(mailService, "batchSize", 10);
+        SimpleMailMessage rejected = message("b@example.com");
+        doThrow(new MailSendException(Map.of(rejected, new RuntimeException("550 Mailbox unavailable"))))
+                .when(mailSender).send(any(SimpleMailMessage[].class));
+
+        List<MailDeliveryStatus> statuses = mailService.sendBulk(List.of(message("a@example.com"), rejected));
+
+        assertEquals(MailDeliveryStatus.sent("a@example.com"), statuses.get(0));
+        assertEquals(MailDeliveryStatus.failed("b@example.com", "550 Mailbox unavailable"), statuses.get(1));
+    }
+
+    @Test
+    void sendBulk_connectionFailure_shouldFailWholeBatch() {
+        ReflectionTestUtils.setField(mailService, "batchSize", 10);
+        doThrow(new MailAuthenticationException("Bad credentials"))
+                .when(mailSender).send(any(SimpleMailMessage[].class));
+
+        List<MailDeliveryStatus> statuses = mailService.sendBulk(List.of(message("a@example.com"), message("b@example.com")));
+
+        assertTrue(statuses.stream().noneMatch(MailDeliveryStatus::sent));
+    }
+
+    @Test
+    void sendBulk_againstSmtpSink_shouldReuseConnectionPerBatch() throws Exception {
+        try (SmtpSink sink = new SmtpSink()) {
+            JavaMailSenderImpl smtp = new JavaMailSenderImpl();
+            smtp.setHost("127.0.0.1");
+            smtp.setPort(sink.port());
+            ReflectionTestUtils.setField(mailService, "mailSender", smtp);
+            ReflectionTestUtils.setField(mailService, "batchSize", 5);
+
+            List<SimpleMailMessage> messages = IntStream.range(0, 10)
+                    .mapToObj(i -> message((i == 3 ? "reject" : "user") + i + "@example.com"))
+                    .toList();
+
+            List<MailDeliveryStatus> statuses = mailService.sendBulk(messages);
+
+            assertEquals(2, sink.connections());
+            assertEquals(9, sink.recipients().size());
+            assertFalse(statuses.get(3).sent());
+            assertEquals(9, statuses.stream().filter(MailDeliveryStatus::sent).count());
+        }
+    }
 }
@@ -8,10 +8,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import se.storkforge.petconnect.cache.CachedParticipant;
+import se.storkforge.petconnect.dto.MeetUpSummary;
 import se.storkforge.petconnect.entity.MeetUp;
 import se.storkforge.petconnect.entity.User;
+import se.storkforge.petconnect.exception.UserOverbookedException;
 import se.storkforge.petconnect.repository.MeetUpRepository;
 import se.storkforge.petconnect.repository.UserRepository;
+import se.storkforge.petconnect.service.searchService.MeetUpTileCache;
+import se.storkforge.petconnect.service.searchService.UpcomingMeetUpIndex;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -19,7 +24,9 @@ import java.util.*;
 import static org.geolatte.geom.crs.CoordinateReferenceSystems.WGS84;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,6 +38,10 @@ class MeetUpServiceTest {
     private UserRepository userRepository;
     @Mock
     private NotificationService notificationService;
+    @Mock
+    private MeetUpTileCache meetUpTileCache;
+    @Mock
+    private UpcomingMeetUpIndex upcomingMeetUpIndex;
 
     @InjectMocks
     private MeetUpService meetUpService;
@@ -44,6 +55,17 @@ class MeetUpServiceTest {
         return meetUp;
     }
 
+    private MeetUpRepository.MeetUpSummaryRow row(MeetUpSummary summary) {
+        return new MeetUpRepository.MeetUpSummaryRow() {
+            public Long getId() { return summary.id(); }
+            public double getLatitude() { return summary.latitude(); }
+            public double getLongitude() { return summary.longitude(); }
+            public LocalDateTime getDateTime() { return summary.dateTime(); }
+            public String getStatus() { return summary.status(); }
+            public int getParticipantCount() { return summary.participantCount(); }
+        };
+    }
+
     @Test
     void searchMeetUps_validCriteria_shouldReturnMeetUps() {
         double testLongitude = 11.97;
@@ -56,23 +78,19 @@ class MeetUpServiceTest {
 
         LocalDateTime endDate = now.plusDays(2);
 
-        Point<G2D> location = DSL.point(WGS84, new G2D(testLongitude, testLatitude));
-
-        MeetUp inRangeMeetUp = createMeetUp(location, inRangeDate, List.of());
+        MeetUpSummary inRangeMeetUp = new MeetUpSummary(1L, testLatitude, testLongitude, inRangeDate, "PLANNED", 2);
 
-        // ✅ Updated to match the new repository method
-        when(meetUpRepository.findMeetUpsNearAndWithinTime(
+        when(meetUpRepository.findSummariesNearAndWithinTime(
                 eq(testLongitude), eq(testLatitude), eq(radiusInKm * 1000), eq(now), eq(endDate)
-        )).thenReturn(List.of(inRangeMeetUp));
+        )).thenReturn(List.of(row(inRangeMeetUp)));
 
-        List<MeetUp> result = meetUpService.searchMeetUps(
+        List<MeetUpSummary> result = meetUpService.searchMeetUps(
                 testLongitude, testLatitude, radiusInKm, now, endDate
         );
 
-        assertNotNull(result);
-        assertFalse(result.isEmpty());
-        assertTrue(result.stream().anyMatch(m -> m.getDateTime().equals(inRangeDate)));
-        assertTrue(result.stream().noneMatch(m -> m.getDateTime().equals(outOfRangeDate)));
+        assertEquals(List.of(inRangeMeetUp), result);
+        assertTrue(result.stream().noneMatch(m -> m.dateTime().equals(outOfRangeDate)));
+        verify(meetUpRepository, never()).findAllById(any());
     }
 
 
@@ -80,7 +98,8 @@ class MeetUpServiceTest {
     void isUserAvailable_userAvailable_shouldReturnTrue() {
         // Arrange
         User user = new User();
-        user.setMeetUps(new HashSet<>());
+        user.setId(1L);
+        when(meetUpRepository.findBusyUserIds(eq(List.of(1L)), any(), any())).thenReturn(List.of());
 
         // Act
         boolean result = meetUpService.isUserAvailable(user, LocalDateTime.now());
@@ -92,20 +111,35 @@ class MeetUpServiceTest {
     @Test
     void isUserAvailable_userNotAvailable_shouldReturnFalse() {
         User user = new User();
-        HashSet<MeetUp> existingMeetUps = new HashSet<>();
+        user.setId(1L);
         LocalDateTime meetUpTime = LocalDateTime.now();
 
-        Point<G2D> point = DSL.point(WGS84, new G2D(11.97, 57.70));
-
-        MeetUp existingMeetUp = createMeetUp(point, meetUpTime, new ArrayList<>());
-        existingMeetUps.add(existingMeetUp);
-        user.setMeetUps(existingMeetUps);
+        when(meetUpRepository.findBusyUserIds(List.of(1L), meetUpTime.minusMinutes(30), meetUpTime.plusMinutes(30)))
+                .thenReturn(List.of(1L));
 
         boolean result = meetUpService.isUserAvailable(user, meetUpTime);
 
         assertFalse(result);
     }
 
+    @Test
+    void planMeetUp_busyParticipant_shouldThrowWithSingleQuery() {
+        LocalDateTime dateTime = LocalDateTime.now().plusDays(1);
+        User user1 = new User();
+        user1.setId(1L);
+        User user2 = new User();
+        user2.setId(2L);
+        List<Long> participantIds = List.of(1L, 2L);
+
+        when(userRepository.findAllById(participantIds)).thenReturn(List.of(user1, user2));
+        when(meetUpRepository.findBusyUserIds(eq(participantIds), any(), any())).thenReturn(List.of(2L));
+
+        assertThrows(UserOverbookedException.class,
+                () -> meetUpService.planMeetUp(57.70, 11.97, dateTime, participantIds));
+        verify(meetUpRepository).findBusyUserIds(eq(participantIds), any(), any());
+        verify(meetUpRepository, never()).save(any());
+    }
+
     @Test
     void planMeetUp_validMeetUp_shouldSaveMeetUp() {
         // Arrange
@@ -157,6 +191,7 @@ class MeetUpServiceTest {
         // Assert
         assertTrue(updated.getParticipants().contains(user));
         verify(meetUpRepository).save(meetUp);
+        verify(upcomingMeetUpIndex).upsert(meetUp);
     }
 
     @Test
@@ -179,21 +214,23 @@ class MeetUpServiceTest {
 
     @Test
     void getParticipants_validMeetUpId_shouldReturnParticipants() {
-        User user1 = new User();
-        user1.setId(1L);
-        User user2 = new User();
-        user2.setId(2L);
-        Point<G2D> point = DSL.point(WGS84, new G2D(11.97, 57.70));
-        Set<User> participants = new HashSet<>(List.of(user1, user2));
-        MeetUp meetUp = createMeetUp(point, LocalDateTime.now().plusDays(1), new ArrayList<>());
-        meetUp.setParticipants(participants);
+        List<CachedParticipant> participants = List.of(
+                new CachedParticipant(1L, "user1", "user1@example.com"),
+                new CachedParticipant(2L, "user2", "user2@example.com"));
+        when(meetUpRepository.findParticipants(1L)).thenReturn(participants);
 
-        when(meetUpRepository.findById(anyLong())).thenReturn(Optional.of(meetUp));
+        List<CachedParticipant> result = meetUpService.getParticipants(1L);
+
+        assertEquals(participants, result);
+        verify(meetUpRepository, never()).findById(anyLong());
+    }
 
-        Set<User> result = meetUpService.getParticipants(1L);
+    @Test
+    void getParticipants_unknownMeetUp_shouldThrowException() {
+        when(meetUpRepository.findParticipants(99L)).thenReturn(List.of());
+        when(meetUpRepository.existsById(99L)).thenReturn(false);
 
-        assertEquals(2, result.size());
-        assertTrue(result.contains(user1));
+        assertThrows(NoSuchElementException.class, () -> meetUpService.getParticipants(99L));
     }
 
     @Test
@@ -224,16 +261,47 @@ class MeetUpServiceTest {
         LocalDateTime start = LocalDateTime.of(2025, 4, 14, 12, 0);
         LocalDateTime end = start.plusDays(1);
 
-        when(meetUpRepository.findMeetUpsNearAndWithinTime(
+        when(meetUpRepository.findSummariesNearAndWithinTime(
                 anyDouble(), anyDouble(), anyDouble(), any(), any())
         ).thenReturn(Collections.emptyList());
 
-        List<MeetUp> result = meetUpService.searchMeetUps(longitude, latitude, radiusInKm, start, end);
+        List<MeetUpSummary> result = meetUpService.searchMeetUps(longitude, latitude, radiusInKm, start, end);
 
         assertNotNull(result);
         assertTrue(result.isEmpty(), "Expected no meetups within range");
     }
 
+    @Test
+    void searchMeetUps_servedFromTileCache_shouldLoadSummariesInOrder() {
+        LocalDateTime start = LocalDateTime.of(2025, 4, 14, 12, 0);
+        LocalDateTime end = start.plusDays(1);
+        MeetUpSummary first = new MeetUpSummary(1L, 57.70, 11.97, start.plusHours(1), "PLANNED", 0);
+        MeetUpSummary second = new MeetUpSummary(2L, 57.70, 11.97, start.plusHours(2), "PLANNED", 3);
+
+        when(meetUpTileCache.search(11.97, 57.70, 5.0, start, end)).thenReturn(Optional.of(List.of(1L, 2L)));
+        when(meetUpRepository.findSummariesByIds(List.of(1L, 2L))).thenReturn(List.of(second, first));
+
+        List<MeetUpSummary> result = meetUpService.searchMeetUps(11.97, 57.70, 5.0, start, end);
+
+        assertEquals(List.of(first, second), result);
+        verify(meetUpRepository, never()).findSummariesNearAndWithinTime(anyDouble(), anyDouble(), anyDouble(), any(), any());
+    }
+
+    @Test
+    void searchMeetUps_servedFromUpcomingIndex_shouldNotQueryDatabase() {
+        LocalDateTime start = LocalDateTime.of(2025, 4, 14, 12, 0);
+        LocalDateTime end = start.plusDays(1);
+        List<MeetUpSummary> upcoming = List.of(new MeetUpSummary(1L, 57.70, 11.97, start.plusHours(1), "PLANNED", 0));
+
+        when(upcomingMeetUpIndex.search(11.97, 57.70, 5.0, start, end)).thenReturn(Optional.of(upcoming));
+
+        List<MeetUpSummary> result = meetUpService.searchMeetUps(11.97, 57.70, 5.0, start, end);
+
+        assertEquals(upcoming, result);
+        verify(meetUpTileCache, never()).search(anyDouble(), anyDouble(), anyDouble(), any(), any());
+        verifyNoInteractions(meetUpRepository);
+    }
+
     @Test
     void searchMeetUps_invalidDateRange_shouldThrowException() {
         double longitude = 11.97;
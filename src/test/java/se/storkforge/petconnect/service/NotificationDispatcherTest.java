@@ -0,0 +1,289 @@
+package se.storkforge.petconnect.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import se.storkforge.petconnect.dto.MailDeliveryStatus;
+import se.storkforge.petconnect.entity.NotificationChannel;
+import se.storkforge.petconnect.entity.NotificationJob;
+import se.storkforge.petconnect.entity.NotificationJobStatus;
+import se.storkforge.petconnect.repository.NotificationJobRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class NotificationDispatcherTest {
+
+    private NotificationJobRepository jobRepository;
+    private MailService mailService;
+    private SmsService smsService;
+    private NotificationDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        jobRepository = mock(NotificationJobRepository.class);
+        mailService = mock(MailService.class);
+        smsService = mock(SmsService.class);
+        dispatcher = new NotificationDispatcher(jobRepository, mailService, smsService,
+                mock(PlatformTransactionManager.class), 3, Duration.ofSeconds(30), Duration.ofMinutes(5), 10, 2, 1);
+        when(jobRepository.renewLease(anyLong(), anyLong(), anyString(), any())).thenReturn(1);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        dispatcher.shutdown();
+    }
+
+    private NotificationJob job(Long id, NotificationChannel channel, String recipient) {
+        NotificationJob job = new NotificationJob(channel, recipient, "Subject", "Body");
+        job.setId(id);
+        when(jobRepository.findById(id)).thenReturn(Optional.of(job));
+        return job;
+    }
+
+    private NotificationJob claimedJob(Long id, NotificationChannel channel, String recipient) {
+        NotificationJob job = job(id, channel, recipient);
+        job.setStatus(NotificationJobStatus.IN_PROGRESS);
+        job.setLockedBy(dispatcher.nodeId());
+        return job;
+    }
+
+    @Test
+    void enqueue_withoutTransaction_shouldPersistAndDeliver() {
+        when(jobRepository.save(any(NotificationJob.class))).thenAnswer(invocation -> {
+            NotificationJob saved = invocation.getArgument(0);
+            if (saved.getId() == null) {
+                saved.setId(1L);
+                when(jobRepository.findById(1L)).thenReturn(Optional.of(saved));
+            }
+            return saved;
+        });
+        when(jobRepository.claim(eq(1L), anyString(), any())).thenAnswer(invocation -> {
+            NotificationJob saved = jobRepository.findById(1L).orElseThrow();
+            saved.setStatus(NotificationJobStatus.IN_PROGRESS);
+            saved.setLockedBy(invocation.getArgument(1));
+            return 1;
+        });
+
+        NotificationJob job = dispatcher.enqueue(NotificationChannel.EMAIL, "test@example.com", "Subject", "Body");
+
+        verify(mailService, timeout(1000)).sendMeetUpNotification("test@example.com", "Subject", "Body");
+        verify(jobRepository, timeout(1000).times(2)).save(job);
+        assertEquals(NotificationJobStatus.SENT, job.getStatus());
+        assertNull(job.getLockedBy());
+    }
+
+    @Test
+    void dispatch_jobClaimedElsewhere_shouldNotSend() {
+        job(6L, NotificationChannel.EMAIL, "test@example.com");
+        when(jobRepository.claim(eq(6L), anyString(), any())).thenReturn(0);
+
+        dispatcher.dispatch(6L);
+
+        verify(jobRepository, timeout(1000)).claim(eq(6L), anyString(), any());
+        verify(jobRepository, never()).findById(6L);
+        verifyNoInteractions(mailService);
+    }
+
+    @Test
+    void relayDueJobs_shouldClaimLockedJobsAndDeliver() {
+        NotificationJob job = job(7L, NotificationChannel.SMS, "+46762373333");
+        when(jobRepository.lockDueJobs(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(job));
+        when(jobRepository.markClaimed(anyCollection(), anyString(), any())).thenAnswer(invocation -> {
+            job.setStatus(NotificationJobStatus.IN_PROGRESS);
+            job.setLockedBy(invocation.getArgument(1));
+            return 1;
+        });
+
+        dispatcher.relayDueJobs();
+
+        verify(jobRepository).releaseExpiredLeases(any());
+        verify(jobRepository).markClaimed(eq(List.of(7L)), eq(dispatcher.nodeId()), any());
+        verify(smsService, timeout(1000)).sendSms("+46762373333", "Body");
+        verify(jobRepository, timeout(1000)).save(job);
+        verify(jobRepository, never()).claim(anyLong(), anyString(), any());
+    }
+
+    @Test
+    void relayDueJobs_emails_shouldBeSentAsOneBulkCall() {
+        NotificationJob first = job(9L, NotificationChannel.EMAIL, "a@example.com");
+        NotificationJob second = job(10L, NotificationChannel.EMAIL, "reject@example.com");
+        List<NotificationJob> jobs = List.of(first, second);
+        when(jobRepository.lockDueJobs(any(LocalDateTime.class), any(Pageable.class))).thenReturn(jobs);
+        when(jobRepository.markClaimed(anyCollection(), anyString(), any())).thenAnswer(invocation -> {
+            jobs.forEach(job -> {
+                job.setStatus(NotificationJobStatus.IN_PROGRESS);
+                job.setLockedBy(invocation.getArgument(1));
+            });
+            return jobs.size();
+        });
+        when(jobRepository.findAllById(List.of(9L, 10L))).thenReturn(jobs);
+        when(mailService.sendBulk(anyList())).thenReturn(List.of(
+                MailDeliveryStatus.sent("a@example.com"),
+                MailDeliveryStatus.failed("reject@example.com", "550 Mailbox unavailable")));
+
+        dispatcher.relayDueJobs();
+
+        verify(jobRepository, timeout(1000)).save(first);
+        verify(jobRepository, timeout(1000)).save(second);
+        verify(mailService).sendBulk(anyList());
+        verify(mailService, never()).sendMeetUpNotification(any(), any(), any());
+        assertEquals(NotificationJobStatus.SENT, first.getStatus());
+        assertEquals(NotificationJobStatus.PENDING, second.getStatus());
+        assertEquals("550 Mailbox unavailable", second.getLastError());
+    }
+
+    @Test
+    void deliver_leaseHeldByOtherNode_shouldSkip() {
+        NotificationJob job = job(8L, NotificationChannel.EMAIL, "test@example.com");
+        job.setStatus(NotificationJobStatus.IN_PROGRESS);
+        job.setLockedBy("other-node");
+
+        dispatcher.deliver(8L);
+
+        verifyNoInteractions(mailService);
+        verify(jobRepository, never()).save(any());
+    }
+
+    @Test
+    void enqueue_blankRecipient_shouldThrow() {
+        assertThrows(IllegalArgumentException.class,
+                () -> dispatcher.enqueue(NotificationChannel.SMS, " ", null, "Body"));
+        verifyNoInteractions(jobRepository);
+    }
+
+    @Test
+    void deliver_sms_shouldMarkSent() {
+        NotificationJob job = claimedJob(2L, NotificationChannel.SMS, "+46762373333");
+
+        dispatcher.deliver(2L);
+
+        verify(smsService).sendSms("+46762373333", "Body");
+        assertEquals(NotificationJobStatus.SENT, job.getStatus());
+        assertEquals(1, job.getAttempts());
+        assertNotNull(job.getSentAt());
+    }
+
+    @Test
+    void deliver_failure_shouldScheduleRetryWithBackoff() {
+        NotificationJob job = claimedJob(3L, NotificationChannel.EMAIL, "test@example.com");
+        doThrow(new RuntimeException("SMTP down"))
+                .when(mailService).sendMeetUpNotification(any(), any(), any());
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.deliver(3L);
+
+        assertEquals(NotificationJobStatus.PENDING, job.getStatus());
+        assertEquals(1, job.getAttempts());
+        assertEquals("SMTP down", job.getLastError());
+        assertFalse(job.getNextAttemptAt().isBefore(before.plusSeconds(30)));
+        verify(jobRepository).save(job);
+    }
+
+    @Test
+    void deliver_lastAttemptFails_shouldMarkFailed() {
+        NotificationJob job = claimedJob(4L, NotificationChannel.SMS, "+46762373333");
+        job.setAttempts(2);
+        doThrow(new RuntimeException("Twilio down")).when(smsService).sendSms(any(), any());
+
+        dispatcher.deliver(4L);
+
+        assertEquals(NotificationJobStatus.FAILED, job.getStatus());
+        assertEquals(3, job.getAttempts());
+    }
+
+    @Test
+    void deliver_throttled_shouldRescheduleWithoutUsingAnAttempt() {
+        NotificationJob job = claimedJob(6L, NotificationChannel.SMS, "+46762373333");
+        job.setAttempts(2);
+        doThrow(new RuntimeException("Failed to send SMS notification",
+                new RejectedExecutionException("SMS queue is full"))).when(smsService).sendSms(any(), any());
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.deliver(6L);
+
+        assertEquals(NotificationJobStatus.PENDING, job.getStatus());
+        assertEquals(2, job.getAttempts());
+        assertNull(job.getLockedBy());
+        assertFalse(job.getNextAttemptAt().isBefore(before.plusSeconds(30)));
+        verify(jobRepository).save(job);
+    }
+
+    @Test
+    void deliver_alreadySent_shouldSkip() {
+        NotificationJob job = job(5L, NotificationChannel.EMAIL, "test@example.com");
+        job.setStatus(NotificationJobStatus.SENT);
+
+        dispatcher.deliver(5L);
+
+        verifyNoInteractions(mailService);
+        verify(jobRepository, never()).save(any());
+    }
+
+    @Test
+    void deliver_leaseLostWhileWaitingForPermit_shouldNotSend() throws Exception {
+        NotificationJob busy = claimedJob(11L, NotificationChannel.SMS, "+46700000001");
+        NotificationJob waiting = claimedJob(12L, NotificationChannel.SMS, "+46700000002");
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch finishSend = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            sending.countDown();
+            finishSend.await();
+            return null;
+        }).when(smsService).sendSms(eq("+46700000001"), any());
+
+        // the only SMS permit is held by the first job, so the second one waits for it
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> dispatcher.deliver(11L));
+        assertTrue(sending.await(1, TimeUnit.SECONDS));
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() -> dispatcher.deliver(12L));
+        Thread.sleep(100);
+        verify(jobRepository, never()).renewLease(eq(12L), anyLong(), anyString(), any());
+
+        // meanwhile the lease expires and the relay releases the job to another node
+        when(jobRepository.renewLease(eq(12L), anyLong(), anyString(), any())).thenReturn(0);
+        finishSend.countDown();
+        first.get(1, TimeUnit.SECONDS);
+        second.get(1, TimeUnit.SECONDS);
+
+        verify(smsService, never()).sendSms(eq("+46700000002"), any());
+        verify(jobRepository, never()).save(waiting);
+        verify(jobRepository).save(busy);
+        assertEquals(NotificationJobStatus.IN_PROGRESS, waiting.getStatus());
+    }
+
+    @Test
+    void deliver_leaseLostDuringSend_shouldNotOverwriteResult() {
+        NotificationJob job = claimedJob(13L, NotificationChannel.SMS, "+46762373333");
+        when(jobRepository.save(job)).thenThrow(new OptimisticLockingFailureException("stale"));
+
+        assertDoesNotThrow(() -> dispatcher.deliver(13L));
+
+        verify(smsService).sendSms("+46762373333", "Body");
+        verify(jobRepository).renewLease(eq(13L), eq(0L), eq(dispatcher.nodeId()), any());
+    }
+
+    @Test
+    void backoff_shouldDoubleAndCap() {
+        assertEquals(Duration.ofSeconds(30), dispatcher.backoff(1));
+        assertEquals(Duration.ofSeconds(60), dispatcher.backoff(2));
+        assertEquals(Duration.ofHours(1), dispatcher.backoff(30));
+    }
+}
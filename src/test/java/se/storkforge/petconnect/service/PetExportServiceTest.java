@@ -0,0 +1,82 @@
+package se.storkforge.petconnect.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import se.storkforge.petconnect.dto.PetExportRow;
+import se.storkforge.petconnect.repository.PetRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PetExportServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private PetRepository petRepository;
+    private PetExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        petRepository = mock(PetRepository.class);
+        exportService = new PetExportService(petRepository, objectMapper);
+    }
+
+    @Test
+    void ndjsonWritesOneObjectPerLine() throws Exception {
+        when(petRepository.streamExportRows()).thenReturn(Stream.of(
+                new PetExportRow(1L, "Buddy", "Dog", true, 3, "Stockholm", 7L),
+                new PetExportRow(2L, "Misse", "Cat", false, 5, null, null)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = exportService.export(PetFileFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, count);
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(1L, first.get("id").asLong());
+        assertEquals("Buddy", first.get("name").asText());
+        assertEquals(7L, first.get("ownerId").asLong());
+        assertTrue(objectMapper.readTree(lines[1]).get("ownerId").isNull());
+    }
+
+    @Test
+    void csvWritesHeaderAndQuotesSpecialCharacters() {
+        when(petRepository.streamExportRows()).thenReturn(Stream.of(
+                new PetExportRow(1L, "Buddy, Jr.", "Dog", true, 3, "Say \"hi\"", 7L),
+                new PetExportRow(2L, "Misse", "Cat", false, 5, null, null)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(PetFileFormat.CSV, out);
+
+        assertEquals(PetExportService.CSV_HEADER + "\n"
+                        + "1,\"Buddy, Jr.\",Dog,true,3,\"Say \"\"hi\"\"\",7\n"
+                        + "2,Misse,Cat,false,5,,\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void closesTheCursorWhenDone() {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(petRepository.streamExportRows()).thenReturn(Stream.<PetExportRow>empty().onClose(() -> closed.set(true)));
+
+        long count = exportService.export(PetFileFormat.CSV, new ByteArrayOutputStream());
+
+        assertEquals(0, count);
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void csvFieldQuotesLineBreaks() {
+        assertEquals("plain", PetExportService.csvField("plain"));
+        assertEquals("\"two\nlines\"", PetExportService.csvField("two\nlines"));
+        assertEquals("", PetExportService.csvField(null));
+    }
+}
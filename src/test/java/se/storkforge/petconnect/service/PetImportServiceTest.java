@@ -0,0 +1,243 @@
+package se.storkforge.petconnect.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import se.storkforge.petconnect.dto.PetImportResult;
+import se.storkforge.petconnect.entity.Pet;
+import se.storkforge.petconnect.entity.Role;
+import se.storkforge.petconnect.entity.User;
+import se.storkforge.petconnect.repository.PetRepository;
+import se.storkforge.petconnect.service.searchService.PetSearchIndex;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+public class PetImportServiceTest {
+
+    private static final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    private PetRepository petRepository;
+    private UserService userService;
+    private PetSearchIndex petSearchIndex;
+    private EntityManager entityManager;
+    private User currentUser;
+    private final List<List<Pet>> savedChunks = new ArrayList<>();
+    // what the persistence context would hold: saved pets stay managed until it is cleared
+    private final List<Pet> managed = new ArrayList<>();
+    private int mostManaged;
+
+    @BeforeEach
+    void setUp() {
+        petRepository = mock(PetRepository.class);
+        userService = mock(UserService.class);
+        petSearchIndex = mock(PetSearchIndex.class);
+        entityManager = mock(EntityManager.class);
+        doAnswer(invocation -> {
+            managed.clear();
+            return null;
+        }).when(entityManager).clear();
+
+        currentUser = new User("shelter", "shelter@example.com", "password");
+        currentUser.setId(1L);
+        when(userService.getUserByUsername("shelter")).thenReturn(Optional.of(currentUser));
+        when(userService.getUsersByIds(anyCollection())).thenReturn(Map.of());
+        when(petRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<Pet> pets = new ArrayList<>(invocation.getArgument(0));
+            savedChunks.add(pets);
+            managed.addAll(pets);
+            mostManaged = Math.max(mostManaged, managed.size());
+            return pets;
+        });
+    }
+
+    private PetImportService service(int chunkSize, int maxErrors) {
+        return new PetImportService(petRepository, userService, petSearchIndex,
+                mock(PlatformTransactionManager.class), entityManager, validator, new ObjectMapper(), chunkSize, maxErrors);
+    }
+
+    private static ByteArrayInputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void csvRowsAreSavedInChunksOwnedByTheCurrentUser() {
+        String csv = """
+                name,species,available,age,location
+                Buddy,Dog,true,3,Stockholm
+                Misse,Cat,false,5,
+                Polly,Bird,true,1,"Malmö, Sweden"
+                """;
+
+        PetImportResult result = service(2, 10).importPets(PetFileFormat.CSV, input(csv), "shelter");
+
+        assertEquals(3, result.imported());
+        assertEquals(0, result.failed());
+        assertEquals(2, savedChunks.size());
+        assertEquals(2, savedChunks.get(0).size());
+        Pet polly = savedChunks.get(1).getFirst();
+        assertEquals("Malmö, Sweden", polly.getLocation());
+        assertSame(currentUser, polly.getOwner());
+        assertNull(savedChunks.get(0).get(1).getLocation());
+        verify(petSearchIndex, times(2)).indexAll(any());
+    }
+
+    @Test
+    void persistenceContextIsClearedAfterEachChunk() {
+        StringBuilder csv = new StringBuilder("name,species\n");
+        for (int i = 0; i < 7; i++) {
+            csv.append("Pet").append(i).append(",Dog\n");
+        }
+
+        PetImportResult result = service(3, 10).importPets(PetFileFormat.CSV, input(csv.toString()), "shelter");
+
+        assertEquals(7, result.imported());
+        assertEquals(3, savedChunks.size());
+        assertTrue(managed.isEmpty());
+        assertEquals(3, mostManaged);
+        InOrder inOrder = inOrder(petRepository, entityManager);
+        for (int i = 0; i < 3; i++) {
+            inOrder.verify(petRepository).saveAll(any());
+            inOrder.verify(entityManager).flush();
+            inOrder.verify(entityManager).clear();
+        }
+    }
+
+    @Test
+    void invalidRowsAreReportedWithTheirLineAndSkipped() {
+        String csv = """
+                name,species,available,age
+                Buddy,Dog,true,3
+                ,Dog,true,3
+                Rex,Elephant,true,3
+                Max,Dog,maybe,3
+                B,Dog,true,3
+                Fido,Dog,true,old
+                """;
+
+        PetImportResult result = service(100, 10).importPets(PetFileFormat.CSV, input(csv), "shelter");
+
+        assertEquals(1, result.imported());
+        assertEquals(5, result.failed());
+        assertEquals(List.of(3L, 4L, 5L, 6L, 7L),
+                result.errors().stream().map(PetImportResult.RowError::line).toList());
+        assertEquals("Pet name cannot be empty", result.errors().get(0).message());
+        assertEquals("Name must be between 2 and 50 characters", result.errors().get(3).message());
+    }
+
+    @Test
+    void ndjsonAcceptsExportedRowsAndReportsBrokenLines() {
+        String ndjson = """
+                {"id":7,"name":"Buddy","species":"Dog","available":true,"age":3,"location":null,"ownerId":null}
+                {"name":"Misse",
+
+                {"name":"Polly","species":"Bird","age":-1}
+                """;
+
+        PetImportResult result = service(100, 10).importPets(PetFileFormat.NDJSON, input(ndjson), "shelter");
+
+        assertEquals(1, result.imported());
+        assertEquals(2, result.failed());
+        assertEquals(2L, result.errors().get(0).line());
+        assertTrue(result.errors().get(0).message().startsWith("Invalid JSON"));
+        assertEquals(new PetImportResult.RowError(4, "Pet age cannot be negative"), result.errors().get(1));
+        assertNull(savedChunks.getFirst().getFirst().getId());
+    }
+
+    @Test
+    void ownersAreResolvedInOneQueryPerChunk() {
+        currentUser.setRoles(Set.of(new Role("ROLE_ADMIN")));
+        User owner = new User("owner", "owner@example.com", "password");
+        owner.setId(2L);
+        when(userService.getUsersByIds(Set.of(2L, 3L))).thenReturn(Map.of(2L, owner));
+        String csv = """
+                name,species,ownerId
+                Buddy,Dog,2
+                Misse,Cat,3
+                Polly,Bird,2
+                """;
+
+        PetImportResult result = service(100, 10).importPets(PetFileFormat.CSV, input(csv), "shelter");
+
+        assertEquals(2, result.imported());
+        assertEquals(List.of(new PetImportResult.RowError(3, "Owner not found: 3")), result.errors());
+        assertTrue(savedChunks.getFirst().stream().allMatch(pet -> pet.getOwner() == owner));
+        verify(userService, times(1)).getUsersByIds(anyCollection());
+    }
+
+    @Test
+    void onlyAdminsCanImportForOtherUsers() {
+        String csv = """
+                name,species,ownerId
+                Buddy,Dog,1
+                Misse,Cat,2
+                """;
+
+        PetImportResult result = service(100, 10).importPets(PetFileFormat.CSV, input(csv), "shelter");
+
+        assertEquals(1, result.imported());
+        assertEquals(List.of(new PetImportResult.RowError(3, "You can only import pets you own")), result.errors());
+    }
+
+    @Test
+    void failedChunkIsReportedAndTheImportContinues() {
+        when(petRepository.saveAll(any()))
+                .thenThrow(new DataIntegrityViolationException("boom"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        String csv = """
+                name,species
+                Buddy,Dog
+                Misse,Cat
+                Polly,Bird
+                """;
+
+        PetImportResult result = service(2, 10).importPets(PetFileFormat.CSV, input(csv), "shelter");
+
+        assertEquals(1, result.imported());
+        assertEquals(2, result.failed());
+        assertEquals(List.of(2L, 3L), result.errors().stream().map(PetImportResult.RowError::line).toList());
+    }
+
+    @Test
+    void errorListIsCappedButFailuresAreCounted() {
+        StringBuilder csv = new StringBuilder("name,species\n");
+        for (int i = 0; i < 5; i++) {
+            csv.append(",Dog\n");
+        }
+
+        PetImportResult result = service(100, 2).importPets(PetFileFormat.CSV, input(csv.toString()), "shelter");
+
+        assertEquals(5, result.failed());
+        assertEquals(2, result.errors().size());
+    }
+
+    @Test
+    void csvWithoutRequiredColumnsIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service(100, 10).importPets(PetFileFormat.CSV, input("foo,bar\n1,2\n"), "shelter"));
+    }
+
+    @Test
+    void unknownUserIsRejected() {
+        when(userService.getUserByUsername("ghost")).thenReturn(Optional.empty());
+
+        assertThrows(SecurityException.class,
+                () -> service(100, 10).importPets(PetFileFormat.CSV, input("name,species\n"), "ghost"));
+    }
+}
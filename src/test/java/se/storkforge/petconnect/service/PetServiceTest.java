@@ -11,16 +11,21 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import se.storkforge.petconnect.cache.CachedPet;
+import se.storkforge.petconnect.dto.Connection;
 import se.storkforge.petconnect.dto.PetInputDTO;
 import se.storkforge.petconnect.dto.PetUpdateInputDTO;
 import se.storkforge.petconnect.entity.Pet;
 import se.storkforge.petconnect.entity.User;
 import se.storkforge.petconnect.exception.PetNotFoundException;
 import se.storkforge.petconnect.repository.PetRepository;
+import se.storkforge.petconnect.service.searchService.PetSearchIndex;
+import se.storkforge.petconnect.util.CursorCodec;
 import se.storkforge.petconnect.util.OwnershipValidator; // Import OwnershipValidator
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -40,6 +45,9 @@ public class PetServiceTest {
     @Mock
     private OwnershipValidator ownershipValidator;
 
+    @Mock
+    private PetSearchIndex petSearchIndex;
+
     @InjectMocks
     private PetService petService;
 
@@ -135,6 +143,17 @@ public class PetServiceTest {
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    void testGetCachedPet_ShouldReferenceOwnerById() {
+        when(petRepository.findById(1L)).thenReturn(Optional.of(testPet));
+
+        Optional<CachedPet> result = petService.getCachedPet(1L);
+
+        assertTrue(result.isPresent());
+        assertEquals("Buddy", result.get().name());
+        assertEquals(testPet.getOwner().getId(), result.get().ownerId());
+    }
+
     @Test
     void testGetAllPetsWithMultipleFilters() {
         List<Pet> pets = Collections.singletonList(testPet);
@@ -156,6 +175,74 @@ public class PetServiceTest {
         assertTrue(result.getContent().getFirst().isAvailable());
     }
 
+    @Test
+    void testGetAllPetsFromSearchIndex() {
+        Pet secondPet = new Pet();
+        secondPet.setId(2L);
+        petFilter.setNameContains("bud");
+
+        when(petSearchIndex.isReady()).thenReturn(true);
+        when(petSearchIndex.search(petFilter)).thenReturn(List.of(1L, 2L, 3L));
+        when(petRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(secondPet, testPet));
+
+        Page<Pet> result = petService.getAllPets(PageRequest.of(0, 2), petFilter);
+
+        assertEquals(List.of(testPet, secondPet), result.getContent());
+        assertEquals(3, result.getTotalElements());
+        verify(petRepository, never()).findAll(ArgumentMatchers.<Specification<Pet>>any(), any(Pageable.class));
+    }
+
+    @Test
+    void testGetPetsAfterSeeksPastCursor() {
+        Pet secondPet = new Pet();
+        secondPet.setId(2L);
+
+        when(petSearchIndex.isReady()).thenReturn(true);
+        when(petSearchIndex.search(petFilter)).thenReturn(List.of(1L, 2L, 3L, 4L));
+        when(petRepository.findAllById(List.of(2L, 3L))).thenReturn(List.of(secondPet));
+
+        Connection<Pet> result = petService.getPetsAfter(petFilter, CursorCodec.encodeId(1L), 1, false);
+
+        assertEquals(List.of(secondPet), result.nodes());
+        assertTrue(result.pageInfo().hasPreviousPage());
+        assertEquals(CursorCodec.encodeId(2L), result.pageInfo().endCursor());
+        assertNull(result.totalCount());
+    }
+
+    @Test
+    void testGetPetsAfterRejectsOversizedPage() {
+        assertThrows(IllegalArgumentException.class,
+                () -> petService.getPetsAfter(petFilter, null, PetService.MAX_PAGE_SIZE + 1, false));
+    }
+
+    @Test
+    void testGetPetsBySpeciesUsesSpeciesFilterWithCursor() {
+        Pet secondPet = new Pet();
+        secondPet.setId(5L);
+
+        when(petSearchIndex.isReady()).thenReturn(true);
+        when(petSearchIndex.search(ArgumentMatchers.argThat(filter -> filter != null && "Dog".equals(filter.getSpecies()))))
+                .thenReturn(List.of(1L, 5L, 9L));
+        when(petRepository.findAllById(List.of(5L, 9L))).thenReturn(List.of(secondPet));
+
+        Connection<Pet> result = petService.getPetsBySpecies("Dog", CursorCodec.encodeId(1L), 1);
+
+        assertEquals(List.of(secondPet), result.nodes());
+        assertEquals(CursorCodec.encodeId(5L), result.pageInfo().endCursor());
+    }
+
+    @Test
+    void testGetPetsBySpeciesRejectsBlankSpecies() {
+        assertThrows(IllegalArgumentException.class, () -> petService.getPetsBySpecies(" ", null, 10));
+    }
+
+    @Test
+    void testGetAllPetsRejectsOversizedPage() {
+        assertThrows(IllegalArgumentException.class,
+                () -> petService.getAllPets(PageRequest.of(0, PetService.MAX_PAGE_SIZE + 1), null));
+        verifyNoInteractions(petRepository);
+    }
+
     @Test
     void testCreatePet() {
         testPetInputDTO.setOwnerId(testUser.getId());
@@ -237,4 +324,21 @@ public class PetServiceTest {
         verify(ownershipValidator).validateOwnership(any(Pet.class), eq(nonOwnerUsername));
         verifyNoMoreInteractions(petRepository);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getPetsByOwnerIds_shouldGroupPetsOfAllOwnersFromOneQuery() {
+        User otherUser = new User("otherUser", "other@example.com", "password");
+        otherUser.setId(2L);
+        Pet otherPet = new Pet();
+        otherPet.setId(2L);
+        otherPet.setOwner(otherUser);
+        when(petRepository.findByOwnerIdInOrderById(List.of(1L, 2L, 3L))).thenReturn(List.of(testPet, otherPet));
+
+        Map<Long, List<Pet>> result = petService.getPetsByOwnerIds(List.of(1L, 2L, 3L));
+
+        assertEquals(List.of(testPet), result.get(1L));
+        assertEquals(List.of(otherPet), result.get(2L));
+        assertFalse(result.containsKey(3L));
+        verify(petRepository, times(1)).findByOwnerIdInOrderById(any());
+    }
+}
@@ -3,11 +3,11 @@ package se.storkforge.petconnect.service;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.multipart.MultipartFile;
+import se.storkforge.petconnect.dto.Connection;
 import se.storkforge.petconnect.dto.PostInputDTO;
 import se.storkforge.petconnect.dto.PostResponseDTO;
 import se.storkforge.petconnect.entity.Post;
@@ -15,13 +15,18 @@ import se.storkforge.petconnect.entity.User;
 import se.storkforge.petconnect.repository.PostRepository;
 import se.storkforge.petconnect.repository.UserRepository;
 import se.storkforge.petconnect.service.storageService.FileStorageService;
+import se.storkforge.petconnect.service.timelineService.PostTimelineStore;
+import se.storkforge.petconnect.util.CursorCodec;
 import se.storkforge.petconnect.util.OwnershipValidator;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 class PostServiceTest {
@@ -31,6 +36,7 @@ class PostServiceTest {
     private FileStorageService fileStorageService;
     private OwnershipValidator ownershipValidator;
     private UserRepository userRepository;
+    private PostTimelineStore timelineStore;
 
     @BeforeEach
     void setUp() {
@@ -38,7 +44,10 @@ class PostServiceTest {
         fileStorageService = mock(FileStorageService.class);
         ownershipValidator = mock(OwnershipValidator.class);
         userRepository = mock(UserRepository.class);
-        postService = new PostService(postRepository, fileStorageService, ownershipValidator, userRepository);
+        timelineStore = mock(PostTimelineStore.class);
+        when(timelineStore.capacity()).thenReturn(500);
+        postService = new PostService(postRepository, fileStorageService, ownershipValidator, userRepository,
+                timelineStore);
     }
 
     @Test
@@ -78,15 +87,62 @@ class PostServiceTest {
         post.setContent("Test content");
         post.setAuthor(user);
 
-        when(postRepository.findByAuthorUsernameOrderByCreatedAtDesc("testuser"))
-                .thenReturn(List.of(post));
+        when(timelineStore.range("testuser", 0, 10)).thenReturn(Optional.of(List.of(1L)));
+        when(postRepository.findAllByIdWithAuthor(List.of(1L))).thenReturn(List.of(post));
 
-        List<PostResponseDTO> dtos = postService.getUserPosts("testuser");
+        List<PostResponseDTO> dtos = postService.getUserPosts("testuser", 0, 10);
 
         assertEquals(1, dtos.size());
         assertEquals("Test content", dtos.get(0).getContent());
     }
 
+    @Test
+    void getUserPosts_missingTimeline_shouldRebuildFromDatabase() {
+        User user = new User();
+        user.setUsername("testuser");
+        List<Post> posts = List.of(
+                feedPost(3L, LocalDateTime.of(2025, 5, 3, 0, 0), user),
+                feedPost(2L, LocalDateTime.of(2025, 5, 2, 0, 0), user),
+                feedPost(1L, LocalDateTime.of(2025, 5, 1, 0, 0), user));
+
+        when(timelineStore.range("testuser", 2, 2)).thenReturn(Optional.empty());
+        when(timelineStore.version("testuser")).thenReturn("4");
+        when(postRepository.findByAuthorUsernameOrderByCreatedAtDesc("testuser", PageRequest.of(0, 500)))
+                .thenReturn(posts);
+
+        List<PostResponseDTO> dtos = postService.getUserPosts("testuser", 1, 2);
+
+        verify(timelineStore).fill("testuser", "4", posts);
+        assertEquals(1, dtos.size());
+        assertEquals(1L, dtos.get(0).getId());
+    }
+
+    @Test
+    void getUserPosts_timelineListsDeletedPost_shouldReadDatabase() {
+        User user = new User();
+        user.setUsername("testuser");
+        Post remaining = feedPost(2L, LocalDateTime.of(2025, 5, 2, 0, 0), user);
+        Post older = feedPost(1L, LocalDateTime.of(2025, 5, 1, 0, 0), user);
+
+        when(timelineStore.range("testuser", 0, 2)).thenReturn(Optional.of(List.of(3L, 2L)));
+        when(postRepository.findAllByIdWithAuthor(List.of(3L, 2L))).thenReturn(List.of(remaining));
+        when(postRepository.findByAuthorUsernameOrderByCreatedAtDesc("testuser", PageRequest.of(0, 2)))
+                .thenReturn(List.of(remaining, older));
+
+        List<PostResponseDTO> dtos = postService.getUserPosts("testuser", 0, 2);
+
+        assertEquals(List.of(2L, 1L), dtos.stream().map(PostResponseDTO::getId).toList());
+    }
+
+    @Test
+    void getUserPosts_beyondTimelineCapacity_shouldReadDatabase() {
+        when(postRepository.findByAuthorUsernameOrderByCreatedAtDesc("testuser", PageRequest.of(50, 10)))
+                .thenReturn(List.of());
+
+        assertTrue(postService.getUserPosts("testuser", 50, 10).isEmpty());
+        verify(timelineStore, never()).range(anyString(), anyLong(), anyInt());
+    }
+
     @Test
     void deletePost_shouldCallRepositoryDelete() {
         User user = new User();
@@ -101,6 +157,7 @@ class PostServiceTest {
 
         verify(ownershipValidator).checkOwnership(post, "testuser");
         verify(postRepository).delete(post);
+        verify(timelineStore).remove("testuser", 1L);
     }
 
     @Test
@@ -124,8 +181,8 @@ class PostServiceTest {
         post.setContent("Some post");
         post.setAuthor(user);
 
-        when(postRepository.findAll(any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(post)));
+        when(postRepository.findAllOrderByCreatedAtDesc(any(Pageable.class)))
+                .thenReturn(List.of(post));
 
         List<PostResponseDTO> dtos = postService.getAllPosts(PageRequest.of(0, 10));
 
@@ -133,4 +190,60 @@ class PostServiceTest {
         assertEquals("Some post", dtos.get(0).getContent());
     }
 
+    @Test
+    void getFeed_shouldSeekPastCursorAndReportNextPage() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 5, 1, 12, 0);
+        List<PostResponseDTO> posts = List.of(
+                feedRow(9L, createdAt),
+                feedRow(8L, createdAt),
+                feedRow(7L, createdAt.minusMinutes(1)));
+
+        when(postRepository.findFeedPageAfter(createdAt, 10L, PageRequest.of(0, 3)))
+                .thenReturn(posts);
+
+        Connection<PostResponseDTO> feed = postService.getFeed(CursorCodec.encode(createdAt, 10L), 2);
+
+        assertEquals(2, feed.edges().size());
+        assertTrue(feed.pageInfo().hasNextPage());
+        assertTrue(feed.pageInfo().hasPreviousPage());
+        assertEquals(CursorCodec.encode(createdAt, 8L), feed.pageInfo().endCursor());
+    }
+
+    @Test
+    void getUserPostsAfter_firstPage_shouldUseAuthorKeysetQuery() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 5, 1, 12, 0);
+        when(postRepository.findAuthorPage("user", PageRequest.of(0, 3)))
+                .thenReturn(List.of(feedRow(9L, createdAt), feedRow(8L, createdAt)));
+
+        Connection<PostResponseDTO> page = postService.getUserPostsAfter("user", null, 2);
+
+        assertEquals(2, page.edges().size());
+        assertFalse(page.pageInfo().hasNextPage());
+        assertFalse(page.pageInfo().hasPreviousPage());
+        verify(postRepository, never()).findByAuthorUsernameOrderByCreatedAtDesc(any(), any());
+    }
+
+    @Test
+    void getAllPosts_shouldRejectTooLargePage() {
+        assertThrows(IllegalArgumentException.class,
+                () -> postService.getAllPosts(PageRequest.of(0, PostService.MAX_PAGE_SIZE + 1)));
+        verifyNoInteractions(postRepository);
+    }
+
+    @Test
+    void getFeed_shouldRejectMalformedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> postService.getFeed(CursorCodec.encode("yesterday", 1L), 10));
+    }
+
+    private Post feedPost(Long id, LocalDateTime createdAt, User author) {
+        Post post = new Post("Post " + id, null, author);
+        post.setId(id);
+        post.setCreatedAt(createdAt);
+        return post;
+    }
+
+    private PostResponseDTO feedRow(Long id, LocalDateTime createdAt) {
+        return new PostResponseDTO(id, "Post " + id, null, "user", createdAt);
+    }
+
 }
@@ -0,0 +1,123 @@
+package se.storkforge.petconnect.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RateLimitedSmsSenderTest {
+
+    private static final String FROM = "+1234567890";
+
+    @Test
+    void send_shouldDelegateAndCount() {
+        SmsSender delegate = mock(SmsSender.class);
+        RateLimitedSmsSender sender = new RateLimitedSmsSender(delegate, 100, 10, 2, 10, Duration.ofSeconds(1));
+
+        sender.send("+46762373333", FROM, "Hello");
+
+        verify(delegate).send("+46762373333", FROM, "Hello");
+        assertEquals(1, sender.stats().sent());
+        assertEquals(2, sender.stats().freeSlots());
+    }
+
+    @Test
+    void send_delegateFails_shouldCountAndRethrow() {
+        SmsSender delegate = mock(SmsSender.class);
+        doThrow(new RuntimeException("Twilio down")).when(delegate).send(any(), any(), any());
+        RateLimitedSmsSender sender = new RateLimitedSmsSender(delegate, 100, 10, 2, 10, Duration.ofSeconds(1));
+
+        assertThrows(RuntimeException.class, () -> sender.send("+46762373333", FROM, "Hello"));
+        assertEquals(1, sender.stats().failed());
+        assertEquals(2, sender.stats().freeSlots());
+    }
+
+    @Test
+    void send_overRate_shouldThrottle() {
+        SmsSender delegate = mock(SmsSender.class);
+        RateLimitedSmsSender sender = new RateLimitedSmsSender(delegate, 50, 1, 2, 10, Duration.ofSeconds(1));
+
+        for (int i = 0; i < 3; i++) {
+            sender.send("+46762373333", FROM, "Hello " + i);
+        }
+
+        verify(delegate, times(3)).send(any(), eq(FROM), any());
+        assertTrue(sender.stats().timeThrottled().toMillis() >= 30);
+    }
+
+    @Test
+    void send_backlogLongerThanTimeout_shouldReject() {
+        SmsSender delegate = mock(SmsSender.class);
+        RateLimitedSmsSender sender = new RateLimitedSmsSender(delegate, 1, 1, 2, 10, Duration.ofMillis(100));
+
+        sender.send("+46762373333", FROM, "First");
+
+        assertThrows(RejectedExecutionException.class, () -> sender.send("+46762373333", FROM, "Second"));
+        assertEquals(1, sender.stats().rejected());
+    }
+
+    @Test
+    void send_rejectedCalls_shouldNotDelayLaterSends() throws InterruptedException {
+        SmsSender delegate = mock(SmsSender.class);
+        RateLimitedSmsSender sender = new RateLimitedSmsSender(delegate, 10, 1, 2, 10, Duration.ofMillis(50));
+
+        sender.send("+46762373333", FROM, "First");
+        for (int i = 0; i < 20; i++) {
+            assertThrows(RejectedExecutionException.class, () -> sender.send("+46762373333", FROM, "Overload"));
+        }
+        Thread.sleep(100);
+
+        // the rejected calls took no tokens, so the next send goes through once one has refilled
+        sender.send("+46762373333", FROM, "After overload");
+        verify(delegate).send("+46762373333", FROM, "After overload");
+        assertEquals(20, sender.stats().rejected());
+    }
+
+    @Test
+    void send_shouldLimitConcurrencyAndRejectWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        SmsSender delegate = (to, from, message) -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                active.decrementAndGet();
+            }
+        };
+        RateLimitedSmsSender sender = new RateLimitedSmsSender(delegate, 1000, 100, 2, 1, Duration.ofSeconds(5));
+
+        ExecutorService callers = Executors.newFixedThreadPool(3);
+        try {
+            for (int i = 0; i < 3; i++) {
+                callers.execute(() -> sender.send("+46762373333", FROM, "Hello"));
+            }
+            while (sender.stats().freeQueueSpace() > 0) {
+                Thread.sleep(5);
+            }
+
+            assertThrows(RejectedExecutionException.class, () -> sender.send("+46762373333", FROM, "Too many"));
+            assertEquals(1, sender.stats().rejected());
+
+            release.countDown();
+            callers.shutdown();
+            assertTrue(callers.awaitTermination(5, TimeUnit.SECONDS));
+            assertEquals(2, maxActive.get());
+            assertEquals(3, sender.stats().sent());
+        } finally {
+            release.countDown();
+            callers.shutdownNow();
+        }
+    }
+}
@@ -6,6 +6,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import se.storkforge.petconnect.cache.CachedUser;
 import se.storkforge.petconnect.entity.User;
 import se.storkforge.petconnect.exception.UserNotFoundException;
 import se.storkforge.petconnect.repository.UserRepository;
@@ -105,6 +106,23 @@ class UserServiceTest {
         assertThrows(UserNotFoundException.class, () -> userService.getUserById(99L));
     }
 
+    @Test
+    void getCachedUser_existingUser_shouldReturnValueWithoutPassword() {
+        User user = createUserWithId(1L, "test", "test@test.com", "pass");
+        user.setPhoneNumber("+46700000000");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        CachedUser result = userService.getCachedUser(1L);
+
+        assertEquals(new CachedUser(1L, "test", "test@test.com", "+46700000000", null, List.of()), result);
+    }
+
+    @Test
+    void getCachedUser_nonExisting_shouldThrowException() {
+        when(userRepository.findById(99L)).thenReturn(Optional.empty());
+        assertThrows(UserNotFoundException.class, () -> userService.getCachedUser(99L));
+    }
+
     // UPDATE USER TESTS
     @Test
     void updateUser_validUpdate_shouldSaveChanges() {
@@ -0,0 +1,116 @@
+package se.storkforge.petconnect.service.searchService;
+
+import org.geolatte.geom.G2D;
+import org.geolatte.geom.builder.DSL;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import se.storkforge.petconnect.entity.MeetUp;
+import se.storkforge.petconnect.repository.MeetUpRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.geolatte.geom.crs.CoordinateReferenceSystems.WGS84;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class MeetUpTileCacheTest {
+
+    private static final double LON = 11.97;
+    private static final double LAT = 57.70;
+    private static final LocalDateTime START = LocalDateTime.of(2025, 4, 14, 0, 0);
+
+    private MeetUpRepository meetUpRepository;
+    private MeetUpTileCache tileCache;
+
+    @BeforeEach
+    void setUp() {
+        meetUpRepository = mock(MeetUpRepository.class);
+        tileCache = new MeetUpTileCache(meetUpRepository, new ConcurrentMapCacheManager(), true);
+    }
+
+    private MeetUp meetUp(Long id, double lon, double lat, LocalDateTime dateTime) {
+        MeetUp meetUp = new MeetUp();
+        meetUp.setId(id);
+        meetUp.setLocation(DSL.point(WGS84, new G2D(lon, lat)));
+        meetUp.setDateTime(dateTime);
+        meetUp.setStatus("PLANNED");
+        return meetUp;
+    }
+
+    @Test
+    void search_shouldFilterByExactDistanceAndTime() {
+        when(meetUpRepository.findInBoundingBox(anyDouble(), anyDouble(), anyDouble(), anyDouble(), any(), any()))
+                .thenReturn(List.of(
+                        meetUp(1L, LON, LAT, START.plusHours(10)),
+                        meetUp(2L, LON + 0.13, LAT, START.plusHours(11)),   // about 7.7 km east
+                        meetUp(3L, LON, LAT + 0.01, START.plusHours(9)),
+                        meetUp(4L, LON, LAT, START.plusDays(1).plusHours(1))));
+
+        Optional<List<Long>> result = tileCache.search(LON, LAT, 5, START, START.plusHours(23));
+
+        assertEquals(Optional.of(List.of(3L, 1L)), result);
+    }
+
+    @Test
+    void search_sameArea_shouldBeServedFromCache() {
+        when(meetUpRepository.findInBoundingBox(anyDouble(), anyDouble(), anyDouble(), anyDouble(), any(), any()))
+                .thenReturn(List.of(meetUp(1L, LON, LAT, START.plusHours(10))));
+
+        tileCache.search(LON, LAT, 5, START, START.plusHours(23));
+        // panning slightly keeps the query inside the cached tiles
+        Optional<List<Long>> result = tileCache.search(LON + 0.001, LAT - 0.001, 5, START.plusHours(1), START.plusHours(20));
+
+        assertEquals(Optional.of(List.of(1L)), result);
+        verify(meetUpRepository, times(1))
+                .findInBoundingBox(anyDouble(), anyDouble(), anyDouble(), anyDouble(), any(), any());
+    }
+
+    @Test
+    void evict_shouldReloadOnlyTheAffectedCell() {
+        when(meetUpRepository.findInBoundingBox(anyDouble(), anyDouble(), anyDouble(), anyDouble(), any(), any()))
+                .thenReturn(List.of());
+        tileCache.search(LON, LAT, 5, START, START.plusHours(23));
+
+        MeetUp created = meetUp(5L, LON, LAT, START.plusHours(12));
+        when(meetUpRepository.findInBoundingBox(anyDouble(), anyDouble(), anyDouble(), anyDouble(), any(), any()))
+                .thenReturn(List.of(created));
+        tileCache.evict(created);
+
+        assertEquals(Optional.of(List.of(5L)), tileCache.search(LON, LAT, 5, START, START.plusHours(23)));
+        verify(meetUpRepository, times(2))
+                .findInBoundingBox(anyDouble(), anyDouble(), anyDouble(), anyDouble(), any(), any());
+    }
+
+    @Test
+    void evict_duringLoad_shouldKeepStaleCellOutOfCache() {
+        MeetUp created = meetUp(5L, LON, LAT, START.plusHours(12));
+        when(meetUpRepository.findInBoundingBox(anyDouble(), anyDouble(), anyDouble(), anyDouble(), any(), any()))
+                .thenAnswer(invocation -> {
+                    // the meet-up commits after the query read the rows
+                    tileCache.evict(created);
+                    return List.of();
+                })
+                .thenReturn(List.of(created));
+
+        assertEquals(Optional.of(List.of()), tileCache.search(LON, LAT, 5, START, START.plusHours(23)));
+
+        assertEquals(Optional.of(List.of(5L)), tileCache.search(LON, LAT, 5, START, START.plusHours(23)));
+    }
+
+    @Test
+    void search_tooLarge_shouldNotBeCached() {
+        assertTrue(tileCache.search(LON, LAT, 2000, START, START.plusHours(1)).isEmpty());
+        assertTrue(tileCache.search(LON, LAT, 5, START, START.plusDays(90)).isEmpty());
+        verifyNoInteractions(meetUpRepository);
+    }
+
+    @Test
+    void disabled_shouldNeverAnswer() {
+        MeetUpTileCache disabled = new MeetUpTileCache(meetUpRepository, new ConcurrentMapCacheManager(), false);
+        assertTrue(disabled.search(LON, LAT, 5, START, START.plusHours(1)).isEmpty());
+    }
+}
@@ -0,0 +1,159 @@
+package se.storkforge.petconnect.service.searchService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import se.storkforge.petconnect.cache.TwoTierCacheManager;
+import se.storkforge.petconnect.entity.Pet;
+import se.storkforge.petconnect.repository.PetRepository;
+import se.storkforge.petconnect.service.PetFilter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.endsWith;
+import static org.mockito.Mockito.*;
+
+class PetSearchIndexTest {
+
+    private PetRepository petRepository;
+    private StringRedisTemplate redisTemplate;
+    private PetSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        petRepository = mock(PetRepository.class);
+        when(petRepository.findAll()).thenReturn(List.of(
+                pet(1L, "Buddy", "Dog", "New York", 3, true),
+                pet(2L, "Whiskers", "Cat", "Göteborg", 5, false),
+                pet(3L, "Budgie", "Bird", "Stockholm", 1, true)
+        ));
+        redisTemplate = mock(StringRedisTemplate.class);
+        index = new PetSearchIndex(petRepository, redisTemplate, mock(RedisMessageListenerContainer.class), true);
+        index.rebuild();
+    }
+
+    private Pet pet(Long id, String name, String species, String location, int age, boolean available) {
+        Pet pet = new Pet(name, species, available, age, null, location);
+        pet.setId(id);
+        return pet;
+    }
+
+    @Test
+    void search_emptyFilter_shouldReturnAllInIdOrder() {
+        assertTrue(index.isReady());
+        assertEquals(List.of(1L, 2L, 3L), index.search(new PetFilter()));
+        assertEquals(List.of(1L, 2L, 3L), index.search(null));
+    }
+
+    @Test
+    void search_nameContains_shouldMatchCaseInsensitiveSubstrings() {
+        PetFilter shortQuery = new PetFilter();
+        shortQuery.setNameContains("BU");
+        assertEquals(List.of(1L, 3L), index.search(shortQuery));
+
+        PetFilter longQuery = new PetFilter();
+        longQuery.setNameContains("hisker");
+        assertEquals(List.of(2L), index.search(longQuery));
+
+        PetFilter noMatch = new PetFilter();
+        noMatch.setNameContains("buddz");
+        assertTrue(index.search(noMatch).isEmpty());
+    }
+
+    @Test
+    void search_combinedFilters_shouldIntersect() {
+        PetFilter filter = new PetFilter();
+        filter.setAvailable(true);
+        filter.setMinAge(2);
+        filter.setLocation("york");
+
+        assertEquals(List.of(1L), index.search(filter));
+
+        filter.setSpecies("Cat");
+        assertTrue(index.search(filter).isEmpty());
+    }
+
+    @Test
+    void index_shouldReplaceExistingDocument() {
+        index.index(pet(1L, "Rex", "Dog", "Malmö", 4, false));
+
+        PetFilter oldName = new PetFilter();
+        oldName.setNameContains("buddy");
+        assertTrue(index.search(oldName).isEmpty());
+
+        PetFilter newLocation = new PetFilter();
+        newLocation.setLocation("malm");
+        assertEquals(List.of(1L), index.search(newLocation));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void indexAll_shouldAnnounceIdsToOtherNodes() {
+        index.indexAll(List.of(pet(4L, "Rex", "Dog", "Malmö", 4, true), pet(5L, "Tom", "Cat", "Lund", 2, true)));
+
+        assertEquals(5, index.size());
+        verify(redisTemplate).convertAndSend(eq(TwoTierCacheManager.CHANNEL), endsWith("\npetSearchIndex\n4,5"));
+    }
+
+    @Test
+    void onMessage_fromOtherNode_shouldReloadAnnouncedPets() {
+        when(petRepository.findAllById(List.of(1L, 4L))).thenReturn(List.of(pet(4L, "Rex", "Dog", "Malmö", 4, true)));
+
+        index.onMessage(message("other-node\npetSearchIndex\n1,4"), null);
+
+        PetFilter dogs = new PetFilter();
+        dogs.setSpecies("Dog");
+        assertEquals(List.of(4L), index.search(dogs));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void onMessage_forNearCache_shouldBeIgnored() {
+        index.onMessage(message("other-node\npetCache\n1"), null);
+
+        verify(petRepository, never()).findAllById(any());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void rebuild_shouldReplayChangesMadeWhileReading() {
+        when(petRepository.findAll()).thenAnswer(invocation -> {
+            // committed after the snapshot was read, its update lands before the rebuild applies it
+            index.remove(1L);
+            return List.of(pet(1L, "Buddy", "Dog", "New York", 3, true), pet(2L, "Whiskers", "Cat", "Göteborg", 5, false));
+        });
+
+        index.rebuild();
+
+        assertEquals(List.of(2L), index.search(new PetFilter()));
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(TwoTierCacheManager.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void remove_shouldDropFromAllPostings() {
+        index.remove(3L);
+
+        PetFilter filter = new PetFilter();
+        filter.setSpecies("Bird");
+        assertTrue(index.search(filter).isEmpty());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void disabledIndex_shouldNeverBeReady() {
+        PetSearchIndex disabled = new PetSearchIndex(petRepository, redisTemplate,
+                mock(RedisMessageListenerContainer.class), false);
+        disabled.rebuild();
+        assertFalse(disabled.isReady());
+    }
+}
@@ -0,0 +1,126 @@
+package se.storkforge.petconnect.service.searchService;
+
+import org.geolatte.geom.G2D;
+import org.geolatte.geom.builder.DSL;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import se.storkforge.petconnect.dto.MeetUpSummary;
+import se.storkforge.petconnect.entity.MeetUp;
+import se.storkforge.petconnect.entity.User;
+import se.storkforge.petconnect.repository.MeetUpRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.geolatte.geom.crs.CoordinateReferenceSystems.WGS84;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class UpcomingMeetUpIndexTest {
+
+    private static final double LON = 11.97;
+    private static final double LAT = 57.70;
+    private static final ZoneId ZONE = ZoneId.of("Europe/Stockholm");
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 4, 14, 12, 0);
+
+    private MeetUpRepository meetUpRepository;
+    private UpcomingMeetUpIndex index;
+
+    @BeforeEach
+    void setUp() {
+        meetUpRepository = mock(MeetUpRepository.class);
+        Clock clock = Clock.fixed(NOW.atZone(ZONE).toInstant(), ZONE);
+        index = new UpcomingMeetUpIndex(meetUpRepository, true, Duration.ofDays(28), clock);
+        when(meetUpRepository.findSummariesBetween(NOW, NOW.plusDays(28))).thenReturn(List.of(
+                new MeetUpSummary(1L, LAT, LON, NOW.plusDays(1), "PLANNED", 2),
+                new MeetUpSummary(2L, LAT + 0.2, LON, NOW.plusDays(2), "PLANNED", 1),   // about 22 km north
+                new MeetUpSummary(3L, LAT + 0.01, LON, NOW.plusHours(2), "PLANNED", 3)));
+        index.reload();
+    }
+
+    private MeetUp meetUp(Long id, double lon, double lat, LocalDateTime dateTime, int participants) {
+        MeetUp meetUp = new MeetUp();
+        meetUp.setId(id);
+        meetUp.setLocation(DSL.point(WGS84, new G2D(lon, lat)));
+        meetUp.setDateTime(dateTime);
+        meetUp.setStatus("PLANNED");
+        Set<User> users = new HashSet<>();
+        for (long i = 0; i < participants; i++) {
+            User user = new User();
+            user.setId(i);
+            users.add(user);
+        }
+        meetUp.setParticipants(users);
+        return meetUp;
+    }
+
+    private List<Long> ids(Optional<List<MeetUpSummary>> result) {
+        return result.orElseThrow().stream().map(MeetUpSummary::id).toList();
+    }
+
+    @Test
+    void search_shouldFilterByDistanceAndSortByDate() {
+        assertEquals(List.of(3L, 1L), ids(index.search(LON, LAT, 5, NOW, NOW.plusDays(7))));
+        assertEquals(List.of(3L, 1L, 2L), ids(index.search(LON, LAT, 30, NOW, NOW.plusDays(7))));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void search_outsideHorizon_shouldFallBack() {
+        assertTrue(index.search(LON, LAT, 5, NOW.minusDays(1), NOW.plusDays(1)).isEmpty());
+        assertTrue(index.search(LON, LAT, 5, NOW, NOW.plusDays(60)).isEmpty());
+    }
+
+    @Test
+    void upsert_shouldBeVisibleAndReplaceParticipantCount() {
+        index.upsert(meetUp(4L, LON + 0.01, LAT, NOW.plusDays(3), 1));
+        index.upsert(meetUp(1L, LON, LAT, NOW.plusDays(1), 5));
+
+        List<MeetUpSummary> result = index.search(LON, LAT, 5, NOW, NOW.plusDays(7)).orElseThrow();
+
+        assertEquals(List.of(3L, 1L, 4L), result.stream().map(MeetUpSummary::id).toList());
+        assertEquals(5, result.get(1).participantCount());
+    }
+
+    @Test
+    void upsert_movedBeyondHorizon_shouldDropFromIndex() {
+        index.upsert(meetUp(1L, LON, LAT, NOW.plusDays(40), 2));
+
+        assertEquals(List.of(3L), ids(index.search(LON, LAT, 5, NOW, NOW.plusDays(7))));
+    }
+
+    @Test
+    void remove_shouldHideFromSearch() {
+        index.remove(3L);
+
+        assertEquals(List.of(1L), ids(index.search(LON, LAT, 5, NOW, NOW.plusDays(7))));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void manyChanges_shouldRepackAndStayConsistent() {
+        for (long id = 100; id < 100 + UpcomingMeetUpIndex.REPACK_THRESHOLD + 10; id++) {
+            index.upsert(meetUp(id, LON + 1, LAT + 1, NOW.plusDays(5), 1));
+        }
+
+        assertEquals(List.of(3L, 1L), ids(index.search(LON, LAT, 5, NOW, NOW.plusDays(7))));
+        assertEquals(3 + UpcomingMeetUpIndex.REPACK_THRESHOLD + 10, index.size());
+    }
+
+    @Test
+    void disabled_shouldNotLoadOrAnswer() {
+        UpcomingMeetUpIndex disabled = new UpcomingMeetUpIndex(meetUpRepository, false, Duration.ofDays(28));
+        disabled.reload();
+
+        assertTrue(disabled.search(LON, LAT, 5, NOW, NOW.plusDays(1)).isEmpty());
+        verify(meetUpRepository, times(1)).findSummariesBetween(any(), any());
+    }
+}
@@ -1,5 +1,7 @@
 package se.storkforge.petconnect.service.storageService;
 
+import org.geolatte.geom.G2D;
+import org.geolatte.geom.builder.DSL;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.ai.chat.client.ChatClient;
@@ -13,19 +15,23 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import se.storkforge.petconnect.config.AiConfig;
+import se.storkforge.petconnect.dto.MeetUpSummary;
 import se.storkforge.petconnect.entity.MeetUp;
 import se.storkforge.petconnect.repository.MeetUpRepository;
 import se.storkforge.petconnect.repository.UserRepository;
 import se.storkforge.petconnect.service.*;
 import se.storkforge.petconnect.service.aiService.AiRecommendationExecutor;
+import se.storkforge.petconnect.service.searchService.MeetUpTileCache;
+import se.storkforge.petconnect.service.searchService.UpcomingMeetUpIndex;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static org.geolatte.geom.crs.CoordinateReferenceSystems.WGS84;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 
-@SpringBootTest(classes = {UserServiceCachingTest.TestAiConfig.class, MeetUpService.class})
+@SpringBootTest(classes = {UserServiceCachingTest.TestAiConfig.class, MeetUpService.class, MeetUpTileCache.class})
 @ActiveProfiles("test")
 class UserServiceCachingTest {
 
@@ -47,12 +53,15 @@ class UserServiceCachingTest {
     @MockitoBean
     private UserRepository userRepository;
 
+    @MockitoBean
+    private UpcomingMeetUpIndex upcomingMeetUpIndex;
+
     @Autowired
     private CacheManager cacheManager;
 
     @BeforeEach
     void clearCache() {
-        cacheManager.getCache("nearbyMeetUpsCache").clear();
+        cacheManager.getCache(MeetUpTileCache.CACHE_NAME).clear();
     }
 
     @TestConfiguration
@@ -81,7 +90,7 @@ class UserServiceCachingTest {
 
         @Bean
         public CacheManager cacheManager() {
-            return new ConcurrentMapCacheManager("nearbyMeetUpsCache");
+            return new ConcurrentMapCacheManager(MeetUpTileCache.CACHE_NAME);
         }
     }
 
@@ -93,15 +102,22 @@ class UserServiceCachingTest {
         var start = LocalDateTime.of(2025, 4, 18, 12, 0);
         var end = start.plusDays(1);
 
-        var mockMeetUps = List.of(new MeetUp());
-        when(meetUpRepository.findMeetUpsNearAndWithinTime(longitude, latitude, radiusInKm * 1000, start, end))
-                .thenReturn(mockMeetUps);
+        var meetUp = new MeetUp();
+        meetUp.setId(1L);
+        meetUp.setLocation(DSL.point(WGS84, new G2D(longitude, latitude)));
+        meetUp.setDateTime(start.plusHours(1));
+        var summary = new MeetUpSummary(1L, latitude, longitude, start.plusHours(1), "PLANNED", 0);
+        when(meetUpRepository.findInBoundingBox(anyDouble(), anyDouble(), anyDouble(), anyDouble(), any(), any()))
+                .thenReturn(List.of(meetUp));
+        when(meetUpRepository.findSummariesByIds(List.of(1L))).thenReturn(List.of(summary));
 
         var firstCall = meetUpService.searchMeetUps(longitude, latitude, radiusInKm, start, end);
         var secondCall = meetUpService.searchMeetUps(longitude, latitude, radiusInKm, start, end);
 
+        assertEquals(List.of(summary), firstCall);
         assertEquals(firstCall, secondCall);
-        verify(meetUpRepository, times(1)).findMeetUpsNearAndWithinTime(anyDouble(), anyDouble(), anyDouble(), any(), any());
+        verify(meetUpRepository, times(1)).findInBoundingBox(anyDouble(), anyDouble(), anyDouble(), anyDouble(), any(), any());
+        verify(meetUpRepository, never()).findSummariesNearAndWithinTime(anyDouble(), anyDouble(), anyDouble(), any(), any());
     }
 
 }
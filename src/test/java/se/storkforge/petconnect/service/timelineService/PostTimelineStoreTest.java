@@ -0,0 +1,86 @@
+package se.storkforge.petconnect.service.timelineService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import se.storkforge.petconnect.entity.Post;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PostTimelineStoreTest {
+
+    private StringRedisTemplate redisTemplate;
+    private ValueOperations<String, String> values;
+    private PostTimelineStore store;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        values = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        store = new PostTimelineStore(redisTemplate, 500, Duration.ofDays(7));
+    }
+
+    @Test
+    void version_missingKey_shouldBeEmpty() {
+        assertEquals("", store.version("alice"));
+
+        when(values.get(PostTimelineStore.VERSION_KEY_PREFIX + "alice")).thenReturn("3");
+        assertEquals("3", store.version("alice"));
+    }
+
+    @Test
+    void version_redisDown_shouldBeNull() {
+        when(values.get(anyString())).thenThrow(new RedisConnectionFailureException("down"));
+
+        assertNull(store.version("alice"));
+    }
+
+    @Test
+    void fill_shouldPassVersionAndScoredIds() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 5, 1, 12, 0);
+        Post post = new Post();
+        post.setId(7L);
+        post.setCreatedAt(createdAt);
+
+        store.fill("alice", "3", List.of(post));
+
+        verify(redisTemplate).execute(any(RedisScript.class),
+                eq(List.of(PostTimelineStore.KEY_PREFIX + "alice", PostTimelineStore.VERSION_KEY_PREFIX + "alice")),
+                eq("3"), eq(String.valueOf(Duration.ofDays(7).toMillis())),
+                eq(String.valueOf(createdAt.toInstant(ZoneOffset.UTC).toEpochMilli())), eq("7"));
+    }
+
+    @Test
+    void fill_withoutVersion_shouldNotWrite() {
+        Post post = new Post();
+        post.setId(7L);
+
+        store.fill("alice", null, List.of(post));
+
+        verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), any(Object[].class));
+    }
+
+    @Test
+    void remove_shouldDropTimelineAndBumpVersion() {
+        store.remove("alice", 7L);
+
+        verify(redisTemplate).execute(any(RedisScript.class),
+                eq(List.of(PostTimelineStore.KEY_PREFIX + "alice", PostTimelineStore.VERSION_KEY_PREFIX + "alice")),
+                eq(String.valueOf(Duration.ofDays(7).toMillis())));
+    }
+}
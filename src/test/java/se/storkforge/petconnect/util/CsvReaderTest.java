@@ -0,0 +1,50 @@
+package se.storkforge.petconnect.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvReaderTest {
+
+    @Test
+    void testReadsPlainRecords() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("a,b,c\n1,,3\n"));
+
+        assertEquals(List.of("a", "b", "c"), reader.next());
+        assertEquals(1, reader.recordLine());
+        assertEquals(List.of("1", "", "3"), reader.next());
+        assertEquals(2, reader.recordLine());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void testQuotedFieldsKeepSeparatorsQuotesAndLineBreaks() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("\"Buddy, Jr.\",\"Say \"\"hi\"\"\",\"two\nlines\"\nnext,row,here"));
+
+        assertEquals(List.of("Buddy, Jr.", "Say \"hi\"", "two\nlines"), reader.next());
+        assertEquals(List.of("next", "row", "here"), reader.next());
+        assertEquals(3, reader.recordLine());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void testAcceptsCrlfLineEndings() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("a,b\r\nc,d\r\n"));
+
+        assertEquals(List.of("a", "b"), reader.next());
+        assertEquals(List.of("c", "d"), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void testUnterminatedQuoteIsRejected() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("ok\n\"never closed\n"));
+
+        assertEquals(List.of("ok"), reader.next());
+        assertThrows(IllegalArgumentException.class, reader::next);
+    }
+}
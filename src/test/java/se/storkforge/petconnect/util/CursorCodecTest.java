@@ -0,0 +1,32 @@
+package se.storkforge.petconnect.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CursorCodecTest {
+
+    @Test
+    void testEncodeDecodeId_RoundTrip() {
+        String cursor = CursorCodec.encodeId(42L);
+        assertEquals(42L, CursorCodec.decodeId(cursor));
+    }
+
+    @Test
+    void testDecode_MultipleKeys() {
+        String cursor = CursorCodec.encode("2025-01-01T10:00", 7L);
+        assertArrayEquals(new String[]{"2025-01-01T10:00", "7"}, CursorCodec.decode(cursor, 2));
+    }
+
+    @Test
+    void testDecode_WrongNumberOfKeys() {
+        String cursor = CursorCodec.encode("a", "b");
+        assertThrows(IllegalArgumentException.class, () -> CursorCodec.decode(cursor, 1));
+    }
+
+    @Test
+    void testDecodeId_Garbage() {
+        assertThrows(IllegalArgumentException.class, () -> CursorCodec.decodeId("not a cursor!"));
+        assertThrows(IllegalArgumentException.class, () -> CursorCodec.decodeId(CursorCodec.encode("abc")));
+    }
+}
@@ -0,0 +1,44 @@
+package se.storkforge.petconnect.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GeohashTest {
+
+    @Test
+    void testEncode_KnownValue() {
+        assertEquals("u4pruydqqvj", Geohash.encode(57.64911, 10.40744, 11));
+        assertEquals("u4pru", Geohash.encode(57.64911, 10.40744, 5));
+    }
+
+    @Test
+    void testBounds_ContainEncodedPoint() {
+        double[] bounds = Geohash.bounds(Geohash.encode(57.70, 11.97, 6));
+        assertTrue(bounds[0] <= 57.70 && 57.70 <= bounds[2]);
+        assertTrue(bounds[1] <= 11.97 && 11.97 <= bounds[3]);
+        assertEquals(Geohash.tileHeight(6), bounds[2] - bounds[0], 1e-9);
+        assertEquals(Geohash.tileWidth(6), bounds[3] - bounds[1], 1e-9);
+    }
+
+    @Test
+    void testCovering_AllTilesIntersectBox() {
+        List<String> tiles = Geohash.covering(57.6, 11.9, 57.8, 12.1, 4);
+        assertEquals(Geohash.coveringSize(57.6, 11.9, 57.8, 12.1, 4), tiles.size());
+        assertTrue(tiles.contains(Geohash.encode(57.70, 11.97, 4)));
+        assertTrue(tiles.contains(Geohash.encode(57.6, 11.9, 4)));
+        assertTrue(tiles.contains(Geohash.encode(57.8, 12.1, 4)));
+    }
+
+    @Test
+    void testCovering_ClampsAtTheEdgeOfTheWorld() {
+        assertEquals(List.of("zzz"), Geohash.covering(89.9, 179.9, 95, 185, 3));
+    }
+
+    @Test
+    void testBounds_InvalidHash() {
+        assertThrows(IllegalArgumentException.class, () -> Geohash.bounds("abc"));
+    }
+}
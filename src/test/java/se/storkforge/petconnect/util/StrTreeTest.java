@@ -0,0 +1,58 @@
+package se.storkforge.petconnect.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StrTreeTest {
+
+    private record Place(int id, double lat, double lon) {
+    }
+
+    private static Set<Integer> search(StrTree<Place> tree, double minLat, double minLon, double maxLat, double maxLon) {
+        Set<Integer> found = new HashSet<>();
+        tree.search(minLat, minLon, maxLat, maxLon, place -> found.add(place.id()));
+        return found;
+    }
+
+    @Test
+    void testEmptyTree() {
+        StrTree<Place> tree = StrTree.build(List.of(), Place::lat, Place::lon);
+        assertEquals(0, tree.size());
+        assertTrue(search(tree, -90, -180, 90, 180).isEmpty());
+    }
+
+    @Test
+    void testSearch_MatchesBruteForce() {
+        Random random = new Random(42);
+        List<Place> places = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            places.add(new Place(i, 55 + random.nextDouble() * 10, 10 + random.nextDouble() * 10));
+        }
+        StrTree<Place> tree = StrTree.build(places, Place::lat, Place::lon);
+        assertEquals(1000, tree.size());
+
+        for (int q = 0; q < 100; q++) {
+            double minLat = 55 + random.nextDouble() * 10;
+            double minLon = 10 + random.nextDouble() * 10;
+            double maxLat = minLat + random.nextDouble() * 2;
+            double maxLon = minLon + random.nextDouble() * 2;
+
+            Set<Integer> expected = new HashSet<>();
+            for (Place place : places) {
+                if (place.lat() >= minLat && place.lat() <= maxLat && place.lon() >= minLon && place.lon() <= maxLon) {
+                    expected.add(place.id());
+                }
+            }
+            assertEquals(expected, search(tree, minLat, minLon, maxLat, maxLon));
+        }
+    }
+
+    @Test
+    void testSearch_IncludesEdges() {
+        StrTree<Place> tree = StrTree.build(List.of(new Place(1, 57.7, 11.97)), Place::lat, Place::lon);
+        assertEquals(Set.of(1), search(tree, 57.7, 11.97, 57.7, 11.97));
+    }
+}
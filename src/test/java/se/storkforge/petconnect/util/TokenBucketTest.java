@@ -0,0 +1,75 @@
+package se.storkforge.petconnect.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenBucketTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void testBurstIsServedImmediately() {
+        TokenBucket bucket = new TokenBucket(1, 3, now::get);
+
+        assertEquals(0, bucket.reserve());
+        assertEquals(0, bucket.reserve());
+        assertEquals(0, bucket.reserve());
+        assertFalse(bucket.tryAcquire());
+    }
+
+    @Test
+    void testReservationsQueueUpAtTheConfiguredRate() {
+        TokenBucket bucket = new TokenBucket(2, 1, now::get);
+
+        assertEquals(0, bucket.reserve());
+        assertEquals(500_000_000L, bucket.reserve());
+        assertEquals(1_000_000_000L, bucket.reserve());
+    }
+
+    @Test
+    void testTokensRefillOverTimeUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(10, 2, now::get);
+        bucket.reserve();
+        bucket.reserve();
+
+        now.addAndGet(100_000_000L);
+        assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire());
+
+        now.addAndGet(10_000_000_000L);
+        assertTrue(bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire());
+    }
+
+    @Test
+    void testBoundedReserveTakesTokenWhenWaitFits() {
+        TokenBucket bucket = new TokenBucket(2, 1, now::get);
+
+        assertEquals(0, bucket.reserve(0));
+        assertEquals(500_000_000L, bucket.reserve(500_000_000L));
+        assertEquals(1_000_000_000L, bucket.reserve());
+    }
+
+    @Test
+    void testRejectedBoundedReserveLeavesBucketUnchanged() {
+        TokenBucket bucket = new TokenBucket(2, 1, now::get);
+        bucket.reserve();
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(-1, bucket.reserve(100_000_000L));
+        }
+
+        now.addAndGet(500_000_000L);
+        assertTrue(bucket.tryAcquire());
+    }
+
+    @Test
+    void testInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1, 0));
+    }
+}